@@ -3,15 +3,19 @@ package com.example.oda.controller;
 import com.example.oda.prompt.dto.ChatHistoryDto;
 import com.example.oda.prompt.dto.ChatResponseDto;
 import com.example.oda.prompt.dto.PromptRequestDto;
+import com.example.oda.prompt.dto.SearchBatchDto;
 import com.example.oda.prompt.dto.QueryPlanDto;
 import com.example.oda.entity.ChatMessage;
 import com.example.oda.prompt.PromptService;
-import com.example.oda.prompt.QueryPlannerService;
+import com.example.oda.prompt.CachingQueryPlannerService;
+import com.example.oda.prompt.SearchStreamService;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -23,14 +27,19 @@ import java.util.Map;
 public class PromptController {
 
     private final PromptService promptService;
-    private final QueryPlannerService queryPlannerService;
+    private final CachingQueryPlannerService queryPlannerService;
+    private final SearchStreamService searchStreamService;
 
     @Autowired
-    public PromptController(PromptService promptService, QueryPlannerService queryPlannerService) {
+    public PromptController(PromptService promptService, CachingQueryPlannerService queryPlannerService,
+                            SearchStreamService searchStreamService) {
         this.promptService = promptService;
         this.queryPlannerService = queryPlannerService;
+        this.searchStreamService = searchStreamService;
     }
 
+    // 에이전트가 규칙 기반 플랜을 받아 가는 경로라 LLM 을 섞는 기본 플래너가 아니라 규칙 기반(캐시) 플래너를 쓴다.
+    // 기본 플래너를 쓰면 에이전트 → 백엔드 → 에이전트 LLM 호출이 한 번 더 생긴다.
     @PostMapping("/api/query-plan")
     public ResponseEntity<QueryPlanDto> getQueryPlan(@RequestBody PromptRequestDto requestDto) {
         QueryPlanDto queryPlan = queryPlannerService.createQueryPlan(requestDto.getPrompt());
@@ -46,7 +55,13 @@ public class PromptController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
-    
+    // 검색 결과를 단계별 배치(간이 순위 → 최종 순위)로 흘려보낸다. Accept 에 따라 SSE 또는 NDJSON.
+    @PostMapping(value = "/api/prompt/stream",
+            produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<SearchBatchDto> streamPrompt(@RequestBody PromptRequestDto promptRequestDto) {
+        return searchStreamService.streamSearch(promptRequestDto.getPrompt());
+    }
+
 
     @GetMapping("/api/chat/history")
     public Mono<ResponseEntity<List<ChatHistoryDto>>> getChatHistory(Authentication authentication) {
@@ -0,0 +1,173 @@
+package com.example.oda.controller;
+
+import com.example.oda.prompt.BatchSearchService;
+import com.example.oda.prompt.CachingQueryPlannerService;
+import com.example.oda.prompt.HybridQueryPlannerService;
+import com.example.oda.prompt.SearchPageService;
+import com.example.oda.prompt.dto.BatchSearchRequestDto;
+import com.example.oda.prompt.dto.BatchSearchResultDto;
+import com.example.oda.prompt.dto.SearchPageDto;
+import com.example.oda.prompt.dto.SearchPageRequestDto;
+import com.example.oda.prompt.dto.SuggestionDto;
+import com.example.oda.prompt.search.CatalogSnapshot;
+import com.example.oda.prompt.search.FilterPushdownStats;
+import com.example.oda.prompt.search.PublicDataSearchIndex;
+import com.example.oda.prompt.search.SearchDictionaryRegistry;
+import com.example.oda.prompt.search.SearchResultCache;
+import com.example.oda.prompt.search.SemanticSearchIndex;
+import com.example.oda.prompt.search.TypeaheadIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class SearchController {
+
+    private final SearchPageService searchPageService;
+    private final SearchResultCache searchResultCache;
+    private final PublicDataSearchIndex searchIndex;
+    private final SemanticSearchIndex semanticIndex;
+    private final TypeaheadIndex typeaheadIndex;
+    private final FilterPushdownStats pushdownStats;
+    private final BatchSearchService batchSearchService;
+    private final CachingQueryPlannerService queryPlanCache;
+    private final SearchDictionaryRegistry dictionaryRegistry;
+    private final HybridQueryPlannerService hybridPlanner;
+
+    @Autowired
+    public SearchController(SearchPageService searchPageService, SearchResultCache searchResultCache,
+                            PublicDataSearchIndex searchIndex, SemanticSearchIndex semanticIndex,
+                            TypeaheadIndex typeaheadIndex, FilterPushdownStats pushdownStats,
+                            BatchSearchService batchSearchService, CachingQueryPlannerService queryPlanCache,
+                            SearchDictionaryRegistry dictionaryRegistry, HybridQueryPlannerService hybridPlanner) {
+        this.searchPageService = searchPageService;
+        this.batchSearchService = batchSearchService;
+        this.searchResultCache = searchResultCache;
+        this.searchIndex = searchIndex;
+        this.semanticIndex = semanticIndex;
+        this.typeaheadIndex = typeaheadIndex;
+        this.pushdownStats = pushdownStats;
+        this.queryPlanCache = queryPlanCache;
+        this.dictionaryRegistry = dictionaryRegistry;
+        this.hybridPlanner = hybridPlanner;
+    }
+
+    /**
+     * 검색 결과 첫 페이지와 패싯 개수. filters 를 주면 해당 패싯 값의 데이터만 정렬한다.
+     * 응답의 nextCursor 로 다음 페이지를 요청한다. explain=true 면 단계별 소요 시간과 결과별 점수 구성을 함께 준다.
+     */
+    @PostMapping("/api/search")
+    public ResponseEntity<SearchPageDto> search(@RequestBody SearchPageRequestDto requestDto) {
+        try {
+            return ResponseEntity.ok(searchPageService.firstPage(
+                    requestDto.getPrompt(), requestDto.getPageSize(), requestDto.getFilters(), requestDto.isExplain()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 다음 페이지 ("더 보기"). 커서의 결과가 만료되었으면 410 을 돌려주며, 첫 페이지부터 다시 검색해야 한다.
+     */
+    @GetMapping("/api/search/next")
+    public ResponseEntity<SearchPageDto> nextPage(@RequestParam String cursor) {
+        try {
+            return searchPageService.nextPage(cursor)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 여러 프롬프트의 일괄 검색 (채팅 세션/메시지를 저장하지 않음). 프롬프트 순서대로 상위 결과를 돌려준다.
+     */
+    @PostMapping("/api/search/batch")
+    public ResponseEntity<List<BatchSearchResultDto>> searchBatch(@RequestBody BatchSearchRequestDto requestDto) {
+        try {
+            return ResponseEntity.ok(batchSearchService.searchAll(requestDto.getPrompts()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 파일데이터명/제목 자동완성. 입력한 앞부분으로 시작하는 데이터를 최근 수정일 순으로 돌려준다.
+     */
+    @GetMapping("/api/search/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(@RequestParam("q") String query,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(typeaheadIndex.suggest(query, limit));
+    }
+
+    /**
+     * 검색 결과 캐시 적중/실패/축출 통계
+     */
+    @GetMapping("/api/search/cache/stats")
+    public ResponseEntity<SearchResultCache.CacheStats> getCacheStats() {
+        return ResponseEntity.ok(searchResultCache.stats());
+    }
+
+    /**
+     * 쿼리 플랜 조건(기관/분류/연도/날짜)을 먼저 적용해 줄어든 후보 수 통계
+     */
+    @GetMapping("/api/search/pushdown/stats")
+    public ResponseEntity<FilterPushdownStats.Stats> getPushdownStats() {
+        return ResponseEntity.ok(pushdownStats.stats());
+    }
+
+    /**
+     * 쿼리 플랜 캐시의 적중/미스 수와 적중률
+     */
+    @GetMapping("/api/search/plan-cache/stats")
+    public ResponseEntity<CachingQueryPlannerService.Stats> getPlanCacheStats() {
+        return ResponseEntity.ok(queryPlanCache.stats());
+    }
+
+    /**
+     * LLM/규칙 기반 쿼리 플랜 중 어느 쪽을 썼는지와 지연 시간 분포
+     */
+    @GetMapping("/api/search/ai-planner/stats")
+    public ResponseEntity<HybridQueryPlannerService.Stats> getAiPlannerStats() {
+        return ResponseEntity.ok(hybridPlanner.stats());
+    }
+
+    /**
+     * 현재 검색 사전의 버전과 출처, 교체/실패 횟수
+     */
+    @GetMapping("/api/search/dictionary")
+    public ResponseEntity<SearchDictionaryRegistry.Status> getDictionaryStatus() {
+        return ResponseEntity.ok(dictionaryRegistry.status());
+    }
+
+    /**
+     * 사전 파일(search.dictionary.location)을 수정 시각과 관계없이 다시 읽는다. 버전이 바뀐 경우에만 교체된다.
+     */
+    @PostMapping("/api/search/dictionary/reload")
+    public ResponseEntity<SearchDictionaryRegistry.Status> reloadDictionary() {
+        return ResponseEntity.ok(dictionaryRegistry.reload(true));
+    }
+
+    /**
+     * 메모리 카탈로그 사본의 크기 (적재 전이면 404)
+     */
+    @GetMapping("/api/search/catalog/memory")
+    public ResponseEntity<CatalogSnapshot.MemoryUsage> getCatalogMemory() {
+        CatalogSnapshot.MemoryUsage usage = searchIndex.memoryUsage();
+        return usage != null ? ResponseEntity.ok(usage) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 의미 검색 색인의 근사 검색 재현율과 지연 시간 (전수 비교 기준, 구축 전이면 404)
+     */
+    @GetMapping("/api/search/semantic/benchmark")
+    public ResponseEntity<SemanticSearchIndex.Benchmark> getSemanticBenchmark() {
+        SemanticSearchIndex.Benchmark benchmark = semanticIndex.benchmark();
+        return benchmark != null ? ResponseEntity.ok(benchmark) : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.oda.entity;
+
+import java.util.List;
+
+/**
+ * 설명(TEXT) 본문 대신 조회하는 요약. 설명 길이와, 요청한 소문자 용어들이 설명에 (겹치지 않게) 나타난 횟수를 담는다.
+ * 등장 횟수는 {@code (length(lower(설명)) - length(replace(lower(설명), 용어, ''))) / length(용어)} 로 DB 에서 계산한다.
+ */
+public record DescriptionDigest(int length, List<String> terms, int[] counts) {
+
+    /** 요약이 주어진 용어 목록(같은 순서)에 대해 계산되었는지 */
+    public boolean covers(List<String> lowerTerms) {
+        return terms.equals(lowerTerms);
+    }
+}
@@ -8,6 +8,11 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
+@SqlResultSetMapping(
+        name = PublicData.MATCH_MAPPING,
+        entities = @EntityResult(entityClass = PublicData.class),
+        columns = @ColumnResult(name = "match_flags", type = String.class)
+)
 @Table(name = "filedata", schema = "public", indexes = {
         @Index(name = "idx_publicdata_filedataname", columnList = "파일데이터명")
 })
@@ -17,6 +22,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class PublicData {
 
+    // 네이티브 검색 쿼리 결과(엔티티 + 키워드/컬럼 일치 표시) 매핑 이름
+    public static final String MATCH_MAPPING = "PublicDataMatch";
+
     @Id
     @Column(name = "제목", nullable = false)
     private String title;
@@ -44,6 +52,10 @@ public class PublicData {
     @Column(name="publicDataPk",unique = true)
     private Long publicDataPk;
 
+    // 요약 조회(설명 본문 없이 순위 계산용 컬럼만 읽은 경우)에서만 채워진다. 저장하지 않는다.
+    @Transient
+    private DescriptionDigest descriptionDigest;
+
     // 누락된 컬럼 추가
 //    @Column(name = "수정일_backup", columnDefinition = "TEXT")
 //    private String modifiedDateBackup;
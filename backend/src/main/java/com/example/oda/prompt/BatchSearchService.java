@@ -0,0 +1,14 @@
+package com.example.oda.prompt;
+
+import com.example.oda.prompt.dto.BatchSearchResultDto;
+
+import java.util.List;
+
+public interface BatchSearchService {
+    /**
+     * 여러 프롬프트를 채팅 세션/메시지 저장 없이 검색한다. 결과는 프롬프트 순서와 같다.
+     *
+     * @throws IllegalArgumentException 프롬프트가 없거나 한도보다 많을 때
+     */
+    List<BatchSearchResultDto> searchAll(List<String> prompts);
+}
@@ -0,0 +1,70 @@
+package com.example.oda.prompt;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.dto.BatchSearchResultDto;
+import com.example.oda.prompt.dto.QueryPlanDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 분석용 일괄 검색. 모든 프롬프트의 플랜을 먼저 만들고, 키워드 합집합으로 후보를 한 번만 조회한 뒤
+ * 프롬프트마다 중복 제거와 관련도 정렬을 한다. 후보와 순위는 프롬프트를 하나씩 검색한 결과와 같다
+ * (동점 항목의 순서만 조회 순서에 따라 다를 수 있다).
+ */
+@Service
+public class BatchSearchServiceImpl implements BatchSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchSearchServiceImpl.class);
+
+    // 프롬프트마다 LLM 을 기다리지 않도록 규칙 기반 플래너(캐시)만 쓴다.
+    private final CachingQueryPlannerService queryPlannerService;
+    private final SearchService searchService;
+    private final int maxPrompts;
+
+    public BatchSearchServiceImpl(CachingQueryPlannerService queryPlannerService, SearchService searchService,
+                                  @Value("${search.batch.max-prompts:500}") int maxPrompts) {
+        this.queryPlannerService = queryPlannerService;
+        this.searchService = searchService;
+        this.maxPrompts = maxPrompts;
+    }
+
+    @Override
+    public List<BatchSearchResultDto> searchAll(List<String> prompts) {
+        if (prompts == null || prompts.isEmpty()) {
+            throw new IllegalArgumentException("검색할 프롬프트가 없습니다.");
+        }
+        if (prompts.size() > maxPrompts) {
+            throw new IllegalArgumentException("한 번에 검색할 수 있는 프롬프트는 " + maxPrompts + "개까지입니다.");
+        }
+        long startTime = System.currentTimeMillis();
+        List<QueryPlanDto> plans = prompts.stream()
+                .map(queryPlannerService::createQueryPlan)
+                .toList();
+        long planTime = System.currentTimeMillis();
+
+        List<List<PublicData>> candidates = searchService.searchAndFilterAll(plans);
+        long retrievalTime = System.currentTimeMillis();
+
+        List<BatchSearchResultDto> results = new ArrayList<>(plans.size());
+        for (int i = 0; i < plans.size(); i++) {
+            QueryPlanDto plan = plans.get(i);
+            List<PublicData> uniqueResults = searchService.deduplicateResults(candidates.get(i));
+            List<PublicData> namedResults = uniqueResults.stream()
+                    .filter(data -> !data.getFileDataName().trim().isEmpty())
+                    .collect(Collectors.toList());
+            List<String> topResults = searchService.rankTopResults(namedResults, plan.getKeywords(), plan.getLimit()).stream()
+                    .map(PublicData::getFileDataName)
+                    .toList();
+            results.add(new BatchSearchResultDto(prompts.get(i), plan.getKeywords(), uniqueResults.size(), topResults));
+        }
+        log.info("일괄 검색 완료: 프롬프트 {}개 (플랜 {}ms, 조회 {}ms, 정렬 {}ms)", prompts.size(),
+                planTime - startTime, retrievalTime - planTime, System.currentTimeMillis() - retrievalTime);
+        return results;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.oda.prompt;
+
+import com.example.oda.prompt.dto.QueryPlanDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link QueryPlannerServiceImpl} 앞의 쿼리 플랜 LRU 캐시.
+ * <p>
+ * 키는 정규화한 프롬프트(NFC, 공백 묶기, 어절 끝 조사 제거)이고, 미스일 때도 원문이 아니라 정규화한 프롬프트로
+ * 플랜을 만든다. 그래서 같은 키에는 언제나 같은 플랜이 대응한다. "작년"/"올해" 처럼 실행 연도에 따라 플랜이 바뀌는
+ * 표현이 있으므로 키에 현재 연도를, 검색 사전이 바뀌면 플랜도 바뀌므로 사전 버전을 넣는다
+ * (해나 사전이 바뀌면 이전 항목은 더 맞지 않고 LRU 로 밀려난다).
+ * 검색 경로에서는 {@link HybridQueryPlannerService} 가 이 캐시를 규칙 기반 플래너로 쓴다.
+ */
+@Service
+public class CachingQueryPlannerService implements QueryPlannerService {
+
+    private final QueryPlannerServiceImpl planner;
+    private final boolean enabled;
+    private final int maxEntries;
+
+    private final LinkedHashMap<Key, QueryPlanDto> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachingQueryPlannerService(QueryPlannerServiceImpl planner,
+                                      @Value("${search.plan-cache.enabled:true}") boolean enabled,
+                                      @Value("${search.plan-cache.max-entries:10000}") int maxEntries) {
+        this.planner = planner;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, QueryPlanDto> eldest) {
+                if (size() > CachingQueryPlannerService.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public QueryPlanDto createQueryPlan(String prompt) {
+        if (!enabled || prompt == null) {
+            return planner.createQueryPlan(prompt);
+        }
+        // 키 계산과 플랜 생성에 같은 사전을 쓴다. 사전이 바뀌면 버전이 다른 키가 되어 이전 항목은 LRU 로 밀려난다.
+        PlannerDictionary dictionary = planner.currentDictionary();
+        Key key = keyOf(prompt, dictionary);
+        synchronized (this) {
+            QueryPlanDto cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return copyOf(cached);
+            }
+        }
+        misses.incrementAndGet();
+
+        // 계산은 잠금 밖에서 한다. 같은 프롬프트가 동시에 들어오면 중복 계산될 수 있지만 결과는 같다.
+        QueryPlanDto plan = planner.createQueryPlan(key.prompt(), dictionary);
+        synchronized (this) {
+            entries.put(key, copyOf(plan));
+        }
+        return plan;
+    }
+
+    /** 현재 사전으로 계산한 prompt 의 캐시 키. 키가 같으면 플랜도 같다. */
+    Key keyOf(String prompt) {
+        return keyOf(prompt, planner.currentDictionary());
+    }
+
+    private static Key keyOf(String prompt, PlannerDictionary dictionary) {
+        return new Key(normalize(prompt, dictionary), Calendar.getInstance().get(Calendar.YEAR), dictionary.version());
+    }
+
+    public synchronized Stats stats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return new Stats(hitCount, misses.get(), evictions.get(), entries.size(), maxEntries,
+                total > 0 ? (double) hitCount / total : 0.0);
+    }
+
+    /**
+     * NFC 로 맞추고, 연속 공백을 한 칸으로 줄이고, 각 어절 끝의 조사/접미사를 뗀다 ({@link PlannerDictionary#stripSuffixes}).
+     * 일반 키워드 추출도 같은 조사를 떼므로 "서울의 교통을" 과 "서울 교통" 은 같은 플랜이 된다.
+     */
+    static String normalize(String prompt, PlannerDictionary dictionary) {
+        String nfc = Normalizer.normalize(prompt, Normalizer.Form.NFC);
+        StringBuilder out = new StringBuilder(nfc.length());
+        int length = nfc.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(nfc.charAt(i))) i++;
+            int start = i;
+            while (i < length && !Character.isWhitespace(nfc.charAt(i))) i++;
+            if (start == i) break;
+
+            if (!out.isEmpty()) out.append(' ');
+            out.append(dictionary.stripSuffixes(nfc.substring(start, i)));
+        }
+        return out.toString();
+    }
+
+    // QueryPlanDto 는 변경 가능하므로 캐시 안팎이 같은 객체를 공유하지 않게 복사한다.
+    static QueryPlanDto copyOf(QueryPlanDto plan) {
+        return new QueryPlanDto(plan.getMajorCategory(),
+                plan.getKeywords() != null ? new ArrayList<>(plan.getKeywords()) : null,
+                plan.getSearchYear(), plan.getProviderAgency(), plan.isHasDateFilter(), plan.getLimit());
+    }
+
+    record Key(String prompt, int year, String dictionaryVersion) {
+    }
+
+    /**
+     * @param hitRatio 조회 중 캐시에서 바로 돌려준 비율
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int maxEntries, double hitRatio) {
+    }
+}
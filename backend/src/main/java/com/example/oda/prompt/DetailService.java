@@ -1,8 +1,14 @@
 package com.example.oda.prompt;
 
 import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.dto.DataDetailMatchDto;
 import reactor.core.publisher.Mono;
 
 public interface DetailService {
     Mono<PublicData> getDataDetails(String prompt);
+
+    /**
+     * 파일명이 정확히 일치하지 않으면 가장 비슷한 데이터와, 사용자가 고를 수 있는 다른 후보 파일명들을 함께 돌려준다.
+     */
+    Mono<DataDetailMatchDto> findDataDetails(String prompt);
 }
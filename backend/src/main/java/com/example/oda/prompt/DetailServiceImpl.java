@@ -1,9 +1,13 @@
 package com.example.oda.prompt;
 
 import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.dto.DataDetailMatchDto;
+import com.example.oda.prompt.search.FileNameTrigramIndex;
+import com.example.oda.prompt.search.PublicDataRetriever;
 import com.example.oda.repository.PublicDataRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -17,25 +21,58 @@ public class DetailServiceImpl implements DetailService {
 
     private static final Logger log = LoggerFactory.getLogger(DetailServiceImpl.class);
     private final PublicDataRepository publicDataRepository;
+    private final PublicDataRetriever publicDataRetriever;
+    private final FileNameTrigramIndex fileNameIndex;
+    private final double similarityThreshold;
+    private final int maxAlternatives;
 
-    public DetailServiceImpl(PublicDataRepository publicDataRepository) {
+    public DetailServiceImpl(PublicDataRepository publicDataRepository, PublicDataRetriever publicDataRetriever,
+                             FileNameTrigramIndex fileNameIndex,
+                             @Value("${search.file-name.similarity-threshold:0.4}") double similarityThreshold,
+                             @Value("${search.file-name.max-alternatives:5}") int maxAlternatives) {
         this.publicDataRepository = publicDataRepository;
+        this.publicDataRetriever = publicDataRetriever;
+        this.fileNameIndex = fileNameIndex;
+        this.similarityThreshold = similarityThreshold;
+        this.maxAlternatives = maxAlternatives;
     }
 
     @Override
     public Mono<PublicData> getDataDetails(String prompt) {
+        return findDataDetails(prompt).map(DataDetailMatchDto::getData);
+    }
+
+    @Override
+    public Mono<DataDetailMatchDto> findDataDetails(String prompt) {
         return Mono.fromCallable(() -> {
             String fileDataName = extractFileNameFromPrompt(prompt);
             log.info("상세 정보 조회 요청: '{}'", fileDataName);
 
-            Optional<PublicData> exactMatch = publicDataRepository.findByFileDataName(fileDataName);
+            Optional<PublicData> exactMatch = publicDataRetriever.findByFileDataName(fileDataName);
             if (exactMatch.isPresent()) {
-                return exactMatch.get();
+                return new DataDetailMatchDto(exactMatch.get(), 1.0, List.of());
+            }
+
+            if (fileNameIndex.isReady()) {
+                List<FileNameTrigramIndex.FileNameMatch> matches =
+                        fileNameIndex.findSimilar(fileDataName, similarityThreshold, maxAlternatives + 1);
+                if (matches.isEmpty()) {
+                    log.info("유사도 {} 이상인 파일명이 없습니다: '{}'", similarityThreshold, fileDataName);
+                    return null;
+                }
+                FileNameTrigramIndex.FileNameMatch best = matches.get(0);
+                log.info("유사 파일명으로 선택: '{}' (유사도 {}, 다른 후보 {}건)",
+                        best.data().getFileDataName(), String.format("%.2f", best.similarity()), matches.size() - 1);
+                List<String> alternatives = matches.subList(1, matches.size()).stream()
+                        .map(match -> match.data().getFileDataName())
+                        .toList();
+                return new DataDetailMatchDto(best.data(), best.similarity(), alternatives);
             }
 
+            // 색인이 적재되지 않았을 때만 DB 부분 일치로 찾는다.
             List<PublicData> partialMatches = publicDataRepository.findByFileDataNameContaining(fileDataName);
             if (!partialMatches.isEmpty()) {
-                return partialMatches.get(0);
+                return new DataDetailMatchDto(partialMatches.get(0), 0.0, List.of());
             }
             return null;
         }).flatMap(Mono::justOrEmpty);
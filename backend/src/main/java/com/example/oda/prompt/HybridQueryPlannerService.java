@@ -0,0 +1,352 @@
+package com.example.oda.prompt;
+
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.service.AiModelService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 규칙 기반 플랜과 LLM 플랜(에이전트의 /api/ai/query-plan)을 함께 구해, 시간 예산 안에 온 LLM 플랜을 쓰는 쿼리 플래너.
+ * <p>
+ * LLM 요청을 먼저 보내 두고 그동안 규칙 기반 플랜({@link CachingQueryPlannerService})을 만든다. 시작부터
+ * search.ai-planner.budget-ms 안에 LLM 플랜이 오면 그것을, 아니면 규칙 기반 플랜을 돌려준다. 예산을 넘긴 LLM 요청도
+ * 끊지 않고 받아서 캐시에 넣으므로, 같은 프롬프트(같은 플랜 캐시 키)가 다시 오면 LLM 플랜을 바로 쓴다.
+ * <p>
+ * 같은 키의 LLM 요청은 동시에 하나만 보내고, 진행 중인 요청이 search.ai-planner.max-in-flight 개면 새 프롬프트는
+ * 규칙 기반으로만 처리한다. LLM 플랜에 빠진 항목(대분류, 개수 등)은 규칙 기반 플랜으로 채운다.
+ * LLM 플랜을 얻지 못한 키(오류, 시간 초과, 보완 실패)는 search.ai-planner.failure-ttl-seconds 동안 다시 요청하지 않는다.
+ * 꺼져 있으면(기본값) 규칙 기반 플랜만 쓴다.
+ */
+@Service
+@Primary
+public class HybridQueryPlannerService implements QueryPlannerService {
+
+    private static final Logger log = LoggerFactory.getLogger(HybridQueryPlannerService.class);
+
+    private final CachingQueryPlannerService localPlanner;
+    private final AiModelService aiModelService;
+    private final boolean enabled;
+    private final long budgetMs;
+    private final Duration aiTimeout;
+    private final int maxEntries;
+    private final int maxInFlight;
+    private final long failureTtlNanos;
+
+    private final LinkedHashMap<CachingQueryPlannerService.Key, QueryPlanDto> aiPlans;
+    // LLM 플랜을 얻지 못한 키와 다시 요청해도 되는 시각(nanoTime). aiPlans 잠금으로 함께 보호한다.
+    private final LinkedHashMap<CachingQueryPlannerService.Key, Long> failedUntil;
+    private final ConcurrentHashMap<CachingQueryPlannerService.Key, AiRequest> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong aiCacheHits = new AtomicLong();
+    private final AtomicLong aiWins = new AtomicLong();
+    private final AtomicLong localWins = new AtomicLong();
+    private final AtomicLong budgetExceeded = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failureCacheHits = new AtomicLong();
+    private final AtomicLong aiCalls = new AtomicLong();
+    private final AtomicLong aiFailures = new AtomicLong();
+    private final AtomicLong lateWarms = new AtomicLong();
+    private final LatencyHistogram aiLatency = new LatencyHistogram();
+    private final LatencyHistogram planLatency = new LatencyHistogram();
+
+    public HybridQueryPlannerService(CachingQueryPlannerService localPlanner, AiModelService aiModelService,
+                                     @Value("${search.ai-planner.enabled:false}") boolean enabled,
+                                     @Value("${search.ai-planner.budget-ms:300}") long budgetMs,
+                                     @Value("${search.ai-planner.timeout-ms:10000}") long timeoutMs,
+                                     @Value("${search.ai-planner.max-entries:10000}") int maxEntries,
+                                     @Value("${search.ai-planner.max-in-flight:32}") int maxInFlight,
+                                     @Value("${search.ai-planner.failure-ttl-seconds:60}") long failureTtlSeconds) {
+        this.localPlanner = localPlanner;
+        this.aiModelService = aiModelService;
+        this.enabled = enabled;
+        this.budgetMs = budgetMs;
+        this.aiTimeout = Duration.ofMillis(timeoutMs);
+        this.maxEntries = maxEntries;
+        this.maxInFlight = maxInFlight;
+        this.failureTtlNanos = TimeUnit.SECONDS.toNanos(failureTtlSeconds);
+        this.aiPlans = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CachingQueryPlannerService.Key, QueryPlanDto> eldest) {
+                return size() > HybridQueryPlannerService.this.maxEntries;
+            }
+        };
+        this.failedUntil = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CachingQueryPlannerService.Key, Long> eldest) {
+                return size() > HybridQueryPlannerService.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public QueryPlanDto createQueryPlan(String prompt) {
+        if (!enabled || prompt == null || prompt.isBlank()) {
+            return localPlanner.createQueryPlan(prompt);
+        }
+        long startTime = System.nanoTime();
+        requests.incrementAndGet();
+        CachingQueryPlannerService.Key key = localPlanner.keyOf(prompt);
+        QueryPlanDto cached;
+        boolean recentlyFailed;
+        synchronized (aiPlans) {
+            cached = aiPlans.get(key);
+            recentlyFailed = cached == null && recentlyFailed(key);
+        }
+        if (recentlyFailed) {
+            failureCacheHits.incrementAndGet();
+        }
+        AiRequest request = cached == null && !recentlyFailed ? startAiRequest(key, prompt) : null;
+
+        // LLM 응답을 기다리는 동안 규칙 기반 플랜을 만든다 (대개 플랜 캐시 적중)
+        QueryPlanDto local = localPlanner.createQueryPlan(prompt);
+        QueryPlanDto plan;
+        if (cached != null) {
+            aiCacheHits.incrementAndGet();
+            plan = merge(cached, local);
+        } else {
+            QueryPlanDto ai = request != null ? await(request, startTime) : null;
+            if (ai != null) {
+                aiWins.incrementAndGet();
+                plan = merge(ai, local);
+            } else {
+                localWins.incrementAndGet();
+                plan = local;
+            }
+        }
+        planLatency.record(System.nanoTime() - startTime);
+        return plan;
+    }
+
+    // 같은 키로 진행 중인 요청이 있으면 거기에 붙는다. 동시 요청이 너무 많으면 null (규칙 기반만 쓴다).
+    private AiRequest startAiRequest(CachingQueryPlannerService.Key key, String prompt) {
+        AiRequest running = inFlight.get(key);
+        if (running != null) {
+            return running;
+        }
+        if (inFlight.size() >= maxInFlight) {
+            skipped.incrementAndGet();
+            return null;
+        }
+        AiRequest request = new AiRequest(new CompletableFuture<>(), new AtomicBoolean());
+        running = inFlight.putIfAbsent(key, request);
+        if (running != null) {
+            return running;
+        }
+        aiCalls.incrementAndGet();
+        long startTime = System.nanoTime();
+        Mono.defer(() -> aiModelService.getQueryPlan(prompt))
+                .timeout(aiTimeout)
+                .toFuture()
+                .whenComplete((json, error) -> {
+                    aiLatency.record(System.nanoTime() - startTime);
+                    QueryPlanDto plan = error == null ? toPlan(json) : null;
+                    if (plan != null) {
+                        synchronized (aiPlans) {
+                            aiPlans.put(key, plan);
+                            failedUntil.remove(key);
+                        }
+                        if (request.fellBack().get()) {
+                            lateWarms.incrementAndGet();
+                        }
+                    } else {
+                        aiFailures.incrementAndGet();
+                        synchronized (aiPlans) {
+                            failedUntil.put(key, System.nanoTime() + failureTtlNanos);
+                        }
+                        log.debug("LLM 쿼리 플랜을 쓸 수 없습니다: '{}' ({})", prompt,
+                                error != null ? error.toString() : "보완 실패 또는 키워드 없음");
+                    }
+                    inFlight.remove(key, request);
+                    request.plan().complete(plan);
+                });
+        return request;
+    }
+
+    // aiPlans 잠금 안에서 부른다. 만료된 항목은 여기서 지운다.
+    private boolean recentlyFailed(CachingQueryPlannerService.Key key) {
+        Long until = failedUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until >= 0) {
+            failedUntil.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    // 예산이 남은 만큼만 기다린다. 넘기면 요청은 그대로 두고(늦게 온 플랜은 캐시에 들어간다) null.
+    private QueryPlanDto await(AiRequest request, long startTime) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(budgetMs) - (System.nanoTime() - startTime);
+        try {
+            return request.plan().get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            request.fellBack().set(true);
+            budgetExceeded.incrementAndGet();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            // 실패해도 null 로 정상 완료하므로 오지 않는다.
+            return null;
+        }
+    }
+
+    /**
+     * 에이전트 응답을 플랜으로 바꾼다. 에이전트는 LLM 보완에 실패하면 isAIEnhanced=false 인 기본 계획을 주므로 버리고,
+     * 키워드가 없는 플랜도 버린다. 없는 항목은 null(개수는 0)로 두고 {@link #merge} 에서 채운다.
+     */
+    private static QueryPlanDto toPlan(JsonNode json) {
+        if (json == null || !json.path("isAIEnhanced").asBoolean(false)) {
+            return null;
+        }
+        List<String> keywords = new ArrayList<>();
+        for (JsonNode keyword : json.path("keywords")) {
+            String text = keyword.isTextual() ? keyword.asText().trim() : "";
+            if (!text.isEmpty() && !keywords.contains(text)) {
+                keywords.add(text);
+            }
+        }
+        if (keywords.isEmpty()) {
+            return null;
+        }
+        JsonNode searchYear = json.path("searchYear");
+        return new QueryPlanDto(textOrNull(json, "majorCategory"), keywords,
+                searchYear.isInt() ? searchYear.asInt() : null, textOrNull(json, "providerAgency"),
+                json.path("hasDateFilter").asBoolean(false), json.path("limit").asInt(0));
+    }
+
+    private static String textOrNull(JsonNode json, String field) {
+        String text = json.path(field).asText("").trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    // 캐시의 LLM 플랜을 공유하지 않도록 새로 만든다.
+    private static QueryPlanDto merge(QueryPlanDto ai, QueryPlanDto local) {
+        return new QueryPlanDto(
+                ai.getMajorCategory() != null ? ai.getMajorCategory() : local.getMajorCategory(),
+                new ArrayList<>(ai.getKeywords()),
+                ai.getSearchYear(),
+                ai.getProviderAgency() != null ? ai.getProviderAgency() : local.getProviderAgency(),
+                ai.isHasDateFilter(),
+                ai.getLimit() > 0 ? ai.getLimit() : local.getLimit());
+    }
+
+    public Stats stats() {
+        int cached;
+        int failed;
+        synchronized (aiPlans) {
+            cached = aiPlans.size();
+            failed = failedUntil.size();
+        }
+        long total = requests.get();
+        long aiUsed = aiWins.get() + aiCacheHits.get();
+        return new Stats(enabled, budgetMs, total, aiCacheHits.get(), aiWins.get(), localWins.get(),
+                budgetExceeded.get(), skipped.get(), failureCacheHits.get(), aiCalls.get(), aiFailures.get(),
+                lateWarms.get(), cached, failed, inFlight.size(), total > 0 ? (double) aiUsed / total : 0.0,
+                aiLatency.snapshot(), planLatency.snapshot());
+    }
+
+    /**
+     * @param fellBack 이 요청을 기다리던 검색 중 예산을 넘겨 규칙 기반 플랜을 쓴 것이 있는지
+     */
+    private record AiRequest(CompletableFuture<QueryPlanDto> plan, AtomicBoolean fellBack) {
+    }
+
+    /**
+     * 고정 구간(ms)으로 센 지연 시간 분포. 백분위는 해당 구간의 상한(최댓값을 넘지 않게)으로 어림한다.
+     */
+    private static final class LatencyHistogram {
+        private static final long[] BOUNDS_MS = {10, 25, 50, 100, 200, 300, 500, 1_000, 2_000, 5_000};
+
+        private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MS.length + 1);
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < BOUNDS_MS.length && millis > BOUNDS_MS[bucket]) bucket++;
+            counts.incrementAndGet(bucket);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        Latency snapshot() {
+            long[] snapshot = new long[counts.length()];
+            long count = 0;
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = counts.get(i);
+                count += snapshot[i];
+                buckets.put(i < BOUNDS_MS.length ? "<=" + BOUNDS_MS[i] + "ms" : ">" + BOUNDS_MS[i - 1] + "ms", snapshot[i]);
+            }
+            long maxMs = TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+            double meanMs = count > 0 ? totalNanos.sum() / 1_000_000.0 / count : 0.0;
+            return new Latency(count, meanMs, percentile(snapshot, count, 0.50, maxMs),
+                    percentile(snapshot, count, 0.95, maxMs), percentile(snapshot, count, 0.99, maxMs), maxMs, buckets);
+        }
+
+        private static long percentile(long[] counts, long total, double quantile, long maxMs) {
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < BOUNDS_MS.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(BOUNDS_MS[i], maxMs);
+                }
+            }
+            return maxMs;
+        }
+    }
+
+    /**
+     * @param p50Ms   중앙값이 든 구간의 상한
+     * @param buckets 구간별 건수 ("<=300ms" 는 200ms 초과 300ms 이하)
+     */
+    public record Latency(long count, double meanMs, long p50Ms, long p95Ms, long p99Ms, long maxMs,
+                          Map<String, Long> buckets) {
+    }
+
+    /**
+     * @param aiCacheHits    이전에(늦게) 받아 둔 LLM 플랜을 쓴 수
+     * @param aiWins         예산 안에 온 LLM 플랜을 쓴 수
+     * @param localWins      규칙 기반 플랜을 쓴 수 (budgetExceeded, skipped, failureCacheHits, 예산 안의 LLM 실패 포함)
+     * @param budgetExceeded 예산 안에 LLM 플랜이 오지 않은 수
+     * @param skipped        진행 중인 LLM 요청이 많아 요청하지 않은 수
+     * @param failureCacheHits 최근에 LLM 플랜을 얻지 못한 키라 요청하지 않은 수
+     * @param aiFailures     오류, 시간 초과(timeout-ms), 보완 실패로 LLM 플랜을 얻지 못한 요청 수
+     * @param lateWarms      예산을 넘겨 도착했지만 캐시에 넣은 LLM 플랜 수
+     * @param failedKeys     다시 요청하지 않고 있는 실패 키 수 (만료된 항목 포함)
+     * @param aiRatio        LLM 플랜(캐시 포함)을 쓴 비율
+     * @param aiLatency      LLM 요청을 보내고 응답(또는 실패)까지 걸린 시간
+     * @param planLatency    이 플래너가 플랜을 돌려주기까지 걸린 시간
+     */
+    public record Stats(boolean enabled, long budgetMs, long requests, long aiCacheHits, long aiWins, long localWins,
+                        long budgetExceeded, long skipped, long failureCacheHits, long aiCalls, long aiFailures,
+                        long lateWarms, int cachedAiPlans, int failedKeys, int inFlight, double aiRatio, Latency aiLatency, Latency planLatency) {
+    }
+}
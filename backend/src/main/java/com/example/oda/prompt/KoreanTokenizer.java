@@ -0,0 +1,281 @@
+package com.example.oda.prompt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 사전과 접미 규칙으로 프롬프트에서 명사 어간을 뽑는 한국어 토크나이저.
+ * <p>
+ * 문자/숫자가 아닌 글자로 어절을 나눈 뒤, 어절마다
+ * <ol>
+ *   <li>서술어 어미("보여줘", "알려주세요")로 끝나면 버리고,</li>
+ *   <li>아는 명사로 끝날 때까지 끝의 조사/접미사("를", "에서", "별", "적인")를 떼고 (뗀 뒤 서술어로 끝나도 버린다),</li>
+ *   <li>남은 어간이 아는 명사들로 빈틈없이 나뉘면("서울교통사고" → "서울", "교통사고") 나눠서, 아니면 통째로 낸다.</li>
+ * </ol>
+ * 숫자로 시작하는 어절은 단위 명사("5개", "2024년")만 붙어 있으면 버린다. 연도와 개수는 플래너가 따로 뽑는다.
+ * <p>
+ * 명사/접미사/어미는 트라이로 컴파일해 두고, 만든 뒤에는 바뀌지 않으므로 여러 스레드가 함께 쓸 수 있다.
+ */
+final class KoreanTokenizer {
+
+    private static final int MIN_NOUN_LENGTH = 2;
+
+    private final Trie nouns;
+    private final Trie reversedNouns;
+    private final Trie reversedSuffixes;
+    private final Trie reversedPredicateEndings;
+    private final Set<String> counters;
+
+    private KoreanTokenizer(Trie nouns, Trie reversedNouns, Trie reversedSuffixes, Trie reversedPredicateEndings,
+                            Set<String> counters) {
+        this.nouns = nouns;
+        this.reversedNouns = reversedNouns;
+        this.reversedSuffixes = reversedSuffixes;
+        this.reversedPredicateEndings = reversedPredicateEndings;
+        this.counters = counters;
+    }
+
+    /**
+     * @param nouns            아는 명사 (두 글자 미만은 무시)
+     * @param suffixes         어절 끝에서 뗄 조사/접미사
+     * @param predicateEndings 이것으로 끝나는 어절은 서술어로 보고 버린다
+     * @param counters         숫자 뒤에 붙는 단위 명사
+     */
+    static KoreanTokenizer compile(Collection<String> nouns, Collection<String> suffixes,
+                                   Collection<String> predicateEndings, Collection<String> counters) {
+        List<String> longNouns = nouns.stream().filter(noun -> noun.length() >= MIN_NOUN_LENGTH).toList();
+        return new KoreanTokenizer(Trie.of(longNouns, false), Trie.of(longNouns, true),
+                Trie.of(suffixes, true), Trie.of(predicateEndings, true), Set.copyOf(counters));
+    }
+
+    /** 명사 어간을 등장 순서대로, 중복 없이 돌려준다. */
+    List<String> nouns(String text) {
+        List<String> out = new ArrayList<>();
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean kept = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (kept && start < 0) {
+                start = i;
+            } else if (!kept && start >= 0) {
+                addWord(text, start, i, out);
+                start = -1;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * word 의 마지막 어절(문자/숫자 연속) 끝에서 {@link #nouns} 가 떼는 조사/접미사를 뗀다.
+     * 숫자로 시작하거나 서술어인 어절은 그대로 둔다. 뗀 뒤의 word 에서도 같은 명사가 나온다.
+     */
+    String stripSuffixes(String word) {
+        int end = word.length();
+        int start = end;
+        while (start > 0 && Character.isLetterOrDigit(word.charAt(start - 1))) start--;
+        if (end - start < MIN_NOUN_LENGTH || Character.isDigit(word.charAt(start)) || isPredicate(word, start, end)) {
+            return word;
+        }
+        return word.substring(0, stemEnd(word, start, end));
+    }
+
+    private void addWord(String text, int start, int end, List<String> out) {
+        if (end - start < MIN_NOUN_LENGTH) {
+            return;
+        }
+        if (Character.isDigit(text.charAt(start))) {
+            addNumberWord(text, start, end, out);
+            return;
+        }
+        if (isPredicate(text, start, end)) {
+            return;
+        }
+        int stemEnd = stemEnd(text, start, end);
+        if (stemEnd < end && isPredicate(text, start, stemEnd)) {
+            return;
+        }
+        if (!addSegments(text, start, stemEnd, out) && stemEnd - start >= MIN_NOUN_LENGTH) {
+            addDistinct(out, text.substring(start, stemEnd));
+        }
+    }
+
+    // "5개", "2024년도", "3건의" 처럼 숫자와 단위만 있는 어절은 버린다.
+    private void addNumberWord(String text, int start, int end, List<String> out) {
+        int digitsEnd = start;
+        while (digitsEnd < end && Character.isDigit(text.charAt(digitsEnd))) digitsEnd++;
+        if (digitsEnd == end) {
+            return;
+        }
+        int stemEnd = end;
+        for (int suffix; (suffix = reversedSuffixes.longestMatch(text, digitsEnd, stemEnd)) > 0
+                && stemEnd - suffix > digitsEnd; ) {
+            stemEnd -= suffix;
+        }
+        if (counters.contains(text.substring(digitsEnd, stemEnd)) || reversedSuffixes.matchesExactly(text, digitsEnd, end)) {
+            return;
+        }
+        addDistinct(out, text.substring(start, stemEnd));
+    }
+
+    private boolean isPredicate(String text, int start, int end) {
+        return !nouns.matchesExactly(text, start, end) && reversedPredicateEndings.longestMatch(text, start, end) > 0;
+    }
+
+    // 아는 명사로 끝날 때까지 조사/접미사를 뗀다. 어간은 두 글자 이상 남기고, 숫자 바로 뒤의 조사("10에서")는 그대로 둔다.
+    private int stemEnd(CharSequence text, int start, int end) {
+        while (reversedNouns.longestMatch(text, start, end) == 0) {
+            int suffix = reversedSuffixes.longestMatch(text, start, end, end - start - MIN_NOUN_LENGTH);
+            if (suffix == 0 || Character.isDigit(text.charAt(end - suffix - 1))) {
+                break;
+            }
+            end -= suffix;
+        }
+        return end;
+    }
+
+    /**
+     * [start, end) 가 아는 명사들로 빈틈없이 나뉘면 가장 적은 조각으로 나눠 넣는다.
+     * best[j] 는 앞의 j 글자를 나누는 최소 조각 수, cut[j] 는 그때 마지막 조각의 길이이다.
+     */
+    private boolean addSegments(String text, int start, int end, List<String> out) {
+        int length = end - start;
+        if (length < MIN_NOUN_LENGTH) {
+            return false;
+        }
+        int[] best = new int[length + 1];
+        int[] cut = new int[length + 1];
+        Arrays.fill(best, Integer.MAX_VALUE);
+        best[0] = 0;
+        for (int i = 0; i < length; i++) {
+            if (best[i] == Integer.MAX_VALUE) continue;
+            long lengths = nouns.matchLengths(text, start + i, end);
+            while (lengths != 0) {
+                int matched = Long.numberOfTrailingZeros(lengths);
+                lengths &= lengths - 1;
+                if (best[i] + 1 < best[i + matched]) {
+                    best[i + matched] = best[i] + 1;
+                    cut[i + matched] = matched;
+                }
+            }
+        }
+        if (best[length] == Integer.MAX_VALUE) {
+            return false;
+        }
+        String[] segments = new String[best[length]];
+        for (int j = length, s = segments.length - 1; j > 0; j -= cut[j], s--) {
+            segments[s] = text.substring(start + j - cut[j], start + j);
+        }
+        for (String segment : segments) {
+            addDistinct(out, segment);
+        }
+        return true;
+    }
+
+    private static void addDistinct(List<String> out, String token) {
+        if (!out.contains(token)) {
+            out.add(token);
+        }
+    }
+
+    /**
+     * 정렬된 자식 문자 배열로 만든 트라이. reversed 면 단어를 뒤집어 넣고 텍스트 끝에서부터 읽는다.
+     * 일치 길이는 63 글자까지 비트 집합(long)으로 돌려준다.
+     */
+    private static final class Trie {
+        private static final int MAX_LENGTH = 63;
+
+        private final boolean reversed;
+        private final char[][] childChars;
+        private final int[][] childNodes;
+        private final boolean[] terminal;
+
+        private Trie(boolean reversed, char[][] childChars, int[][] childNodes, boolean[] terminal) {
+            this.reversed = reversed;
+            this.childChars = childChars;
+            this.childNodes = childNodes;
+            this.terminal = terminal;
+        }
+
+        static Trie of(Collection<String> words, boolean reversed) {
+            List<Map<Character, Integer>> trie = new ArrayList<>();
+            List<Boolean> ends = new ArrayList<>();
+            trie.add(new TreeMap<>());
+            ends.add(false);
+            for (String word : words) {
+                if (word.isEmpty() || word.length() > MAX_LENGTH) {
+                    continue;
+                }
+                int node = 0;
+                for (int i = 0; i < word.length(); i++) {
+                    char c = word.charAt(reversed ? word.length() - 1 - i : i);
+                    Integer next = trie.get(node).get(c);
+                    if (next == null) {
+                        next = trie.size();
+                        trie.add(new TreeMap<>());
+                        ends.add(false);
+                        trie.get(node).put(c, next);
+                    }
+                    node = next;
+                }
+                ends.set(node, true);
+            }
+
+            int nodeCount = trie.size();
+            char[][] childChars = new char[nodeCount][];
+            int[][] childNodes = new int[nodeCount][];
+            boolean[] terminal = new boolean[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                Map<Character, Integer> children = trie.get(node);
+                childChars[node] = new char[children.size()];
+                childNodes[node] = new int[children.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> child : children.entrySet()) {
+                    childChars[node][i] = child.getKey();
+                    childNodes[node][i++] = child.getValue();
+                }
+                terminal[node] = ends.get(node);
+            }
+            return new Trie(reversed, childChars, childNodes, terminal);
+        }
+
+        /** [start, end) 안에서 start 부터(reversed 면 end 부터) 읽어 단어와 일치하는 길이들 */
+        long matchLengths(CharSequence text, int start, int end) {
+            long lengths = 0;
+            int node = 0;
+            int limit = Math.min(end - start, MAX_LENGTH);
+            for (int read = 1; read <= limit; read++) {
+                char c = text.charAt(reversed ? end - read : start + read - 1);
+                int slot = Arrays.binarySearch(childChars[node], c);
+                if (slot < 0) break;
+                node = childNodes[node][slot];
+                if (terminal[node]) lengths |= 1L << read;
+            }
+            return lengths;
+        }
+
+        int longestMatch(CharSequence text, int start, int end) {
+            return longestMatch(text, start, end, end - start);
+        }
+
+        /** maxLength 이하인 일치 중 가장 긴 길이 (없으면 0) */
+        int longestMatch(CharSequence text, int start, int end, int maxLength) {
+            if (maxLength <= 0) {
+                return 0;
+            }
+            long lengths = matchLengths(text, start, end);
+            if (maxLength < MAX_LENGTH) {
+                lengths &= (1L << (maxLength + 1)) - 1;
+            }
+            return lengths == 0 ? 0 : 63 - Long.numberOfLeadingZeros(lengths);
+        }
+
+        boolean matchesExactly(CharSequence text, int start, int end) {
+            return end - start <= MAX_LENGTH && (matchLengths(text, start, end) & (1L << (end - start))) != 0;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.oda.prompt;
+
+import com.example.oda.prompt.search.MultiPatternMatcher;
+import com.example.oda.prompt.search.SearchDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 쿼리 플랜 사전(분류, 도메인 용어, 지역, 기관, 날짜 표현, 개수 표현, 불용어, 일반 키워드용 형태소 사전)을 한 번 컴파일한 결과.
+ * <p>
+ * 모든 용어를 하나의 {@link MultiPatternMatcher} 에 담아 프롬프트를 한 번 훑으면 모든 용어의 포함 여부를 알 수 있다.
+ * 분류/도메인 용어/기관은 기존 구현이 HashMap·HashSet 순회 순서로 동점과 출력 순서를 정했으므로,
+ * 컴파일할 때 같은 방식으로 컬렉션을 만들어 그 순서를 배열로 고정한다.
+ * <p>
+ * 만든 뒤에는 바뀌지 않으므로 여러 스레드가 함께 쓸 수 있다. 사전 원본이 바뀌면 새로 컴파일해 통째로 바꾼다.
+ */
+final class PlannerDictionary {
+
+    static final String UNKNOWN_CATEGORY = "기타";
+    static final String UNKNOWN_AGENCY = "기타기관";
+
+    private final String version;
+    private final MultiPatternMatcher matcher;
+
+    // 아래 패턴 번호 중 "소문자" 표시는 소문자로 바꾼 프롬프트의 스캔 결과로, 나머지는 원문 스캔 결과로 판정한다.
+    private final String[] categories;
+    private final int[][] categoryPatterns;        // 소문자
+    private final String[] domainTerms;
+    private final int[] domainPatterns;            // 소문자
+    private final String[] regions;
+    private final int[] regionPatterns;
+    private final String[] agencyNames;
+    private final int[] agencyPatterns;            // 소문자
+    private final int[] dateTermPatterns;
+    private final int[] lastYearPatterns;
+    private final int[] thisYearPatterns;
+    private final int[] manyPatterns;              // 소문자
+    private final int[] briefPatterns;             // 소문자
+    private final Set<String> stopWords;
+    private final KoreanTokenizer tokenizer;
+
+    private PlannerDictionary(Builder builder) {
+        this.version = builder.version;
+        this.matcher = MultiPatternMatcher.compile(builder.patterns);
+        this.categories = builder.categories;
+        this.categoryPatterns = builder.categoryPatterns;
+        this.domainTerms = builder.domainTerms;
+        this.domainPatterns = builder.domainPatterns;
+        this.regions = builder.regions;
+        this.regionPatterns = builder.regionPatterns;
+        this.agencyNames = builder.agencyNames;
+        this.agencyPatterns = builder.agencyPatterns;
+        this.dateTermPatterns = builder.dateTermPatterns;
+        this.lastYearPatterns = builder.lastYearPatterns;
+        this.thisYearPatterns = builder.thisYearPatterns;
+        this.manyPatterns = builder.manyPatterns;
+        this.briefPatterns = builder.briefPatterns;
+        this.stopWords = builder.stopWords;
+        this.tokenizer = builder.tokenizer;
+    }
+
+    /**
+     * 사전 원본을 컴파일한다. 대분류/도메인 그룹/기관은 원본에 적힌 순서로 기존 HashMap 에 put 했을 때의 순회 순서를 따르고,
+     * 원본의 모든 용어는 일반 키워드 토크나이저의 명사로도 쓰인다.
+     */
+    static PlannerDictionary compile(SearchDictionary source) {
+        Map<String, List<String>> categoryKeywords = source.categoryKeywords();
+        Map<String, List<String>> domainPatterns = source.domainPatterns();
+        List<String> regions = source.regions();
+        Map<String, String> agencies = source.agencies();
+        List<String> stopWords = source.stopWords();
+        Builder builder = new Builder();
+
+        Map<String, Set<String>> categoryMap = new HashMap<>();
+        categoryKeywords.forEach((category, terms) -> categoryMap.put(category, new HashSet<>(terms)));
+        builder.categories = new String[categoryMap.size()];
+        builder.categoryPatterns = new int[categoryMap.size()][];
+        int c = 0;
+        for (Map.Entry<String, Set<String>> entry : categoryMap.entrySet()) {
+            builder.categories[c] = entry.getKey();
+            builder.categoryPatterns[c++] = entry.getValue().stream().mapToInt(term -> builder.pattern(term.toLowerCase())).toArray();
+        }
+
+        Map<String, Set<String>> domainMap = new HashMap<>();
+        domainPatterns.forEach((group, terms) -> domainMap.put(group, new HashSet<>(terms)));
+        List<String> orderedDomainTerms = new ArrayList<>();
+        for (Set<String> terms : domainMap.values()) {
+            orderedDomainTerms.addAll(terms);
+        }
+        builder.domainTerms = orderedDomainTerms.toArray(String[]::new);
+        builder.domainPatterns = orderedDomainTerms.stream().mapToInt(term -> builder.pattern(term.toLowerCase())).toArray();
+
+        builder.regions = regions.stream().distinct().toArray(String[]::new);
+        builder.regionPatterns = Arrays.stream(builder.regions).mapToInt(builder::pattern).toArray();
+
+        Map<String, String> agencyMap = new HashMap<>();
+        agencies.forEach(agencyMap::put);
+        builder.agencyNames = new String[agencyMap.size()];
+        builder.agencyPatterns = new int[agencyMap.size()];
+        int a = 0;
+        for (Map.Entry<String, String> entry : agencyMap.entrySet()) {
+            builder.agencyNames[a] = entry.getValue();
+            builder.agencyPatterns[a++] = builder.pattern(entry.getKey());
+        }
+
+        builder.dateTermPatterns = builder.patterns(source.dateTerms());
+        builder.lastYearPatterns = builder.patterns(source.lastYearTerms());
+        builder.thisYearPatterns = builder.patterns(source.thisYearTerms());
+        builder.manyPatterns = builder.patterns(source.manyTerms());
+        builder.briefPatterns = builder.patterns(source.briefTerms());
+        builder.stopWords = Set.copyOf(stopWords);
+
+        Set<String> knownNouns = new HashSet<>(source.nouns());
+        categoryKeywords.values().forEach(knownNouns::addAll);
+        domainPatterns.values().forEach(knownNouns::addAll);
+        knownNouns.addAll(regions);
+        knownNouns.addAll(agencies.keySet());
+        knownNouns.addAll(agencies.values());
+        knownNouns.addAll(stopWords);
+        builder.tokenizer = KoreanTokenizer.compile(knownNouns, source.suffixes(), source.predicateEndings(), source.counters());
+        builder.version = source.version();
+        return new PlannerDictionary(builder);
+    }
+
+    /** 애플리케이션에 들어 있는 기본 사전 ({@link SearchDictionary#bundled()}) */
+    static PlannerDictionary defaults() {
+        return compile(SearchDictionary.bundled());
+    }
+
+    String version() {
+        return version;
+    }
+
+    MultiPatternMatcher.Hits newHits() {
+        return matcher.newHits();
+    }
+
+    void scan(String text, MultiPatternMatcher.Hits hits) {
+        matcher.scan(text, hits);
+    }
+
+    /** 포함된 용어 수가 가장 많은 대분류 (동점이면 순회 순서상 앞선 것, 하나도 없으면 "기타") */
+    String majorCategory(MultiPatternMatcher.Hits lowerHits) {
+        String best = null;
+        int highestScore = 0;
+        for (int c = 0; c < categories.length; c++) {
+            int score = 0;
+            for (int pattern : categoryPatterns[c]) {
+                if (lowerHits.contains(pattern)) score++;
+            }
+            if (score > highestScore) {
+                highestScore = score;
+                best = categories[c];
+            }
+        }
+        return best != null ? best : UNKNOWN_CATEGORY;
+    }
+
+    void addDomainTerms(MultiPatternMatcher.Hits lowerHits, List<String> out) {
+        for (int t = 0; t < domainTerms.length; t++) {
+            if (lowerHits.contains(domainPatterns[t])) out.add(domainTerms[t]);
+        }
+    }
+
+    void addRegions(MultiPatternMatcher.Hits hits, List<String> out) {
+        for (int r = 0; r < regions.length; r++) {
+            if (hits.contains(regionPatterns[r])) out.add(regions[r]);
+        }
+    }
+
+    String providerAgency(MultiPatternMatcher.Hits lowerHits) {
+        for (int a = 0; a < agencyNames.length; a++) {
+            if (lowerHits.contains(agencyPatterns[a])) return agencyNames[a];
+        }
+        return UNKNOWN_AGENCY;
+    }
+
+    boolean hasDateTerm(MultiPatternMatcher.Hits hits) {
+        return containsAny(hits, dateTermPatterns);
+    }
+
+    boolean mentionsLastYear(MultiPatternMatcher.Hits hits) {
+        return containsAny(hits, lastYearPatterns);
+    }
+
+    boolean mentionsThisYear(MultiPatternMatcher.Hits hits) {
+        return containsAny(hits, thisYearPatterns);
+    }
+
+    boolean asksForMany(MultiPatternMatcher.Hits lowerHits) {
+        return containsAny(lowerHits, manyPatterns);
+    }
+
+    boolean asksForBrief(MultiPatternMatcher.Hits lowerHits) {
+        return containsAny(lowerHits, briefPatterns);
+    }
+
+    boolean isStopWord(String token) {
+        return stopWords.contains(token);
+    }
+
+    /** 일반 키워드 후보: 프롬프트의 명사 어간 ({@link KoreanTokenizer}) */
+    List<String> nouns(String prompt) {
+        return tokenizer.nouns(prompt);
+    }
+
+    String stripSuffixes(String word) {
+        return tokenizer.stripSuffixes(word);
+    }
+
+    private static boolean containsAny(MultiPatternMatcher.Hits hits, int[] patterns) {
+        for (int pattern : patterns) {
+            if (hits.contains(pattern)) return true;
+        }
+        return false;
+    }
+
+    // 같은 문자열은 같은 패턴 번호를 쓴다.
+    private static final class Builder {
+        private String version;
+        private final List<String> patterns = new ArrayList<>();
+        private final Map<String, Integer> patternIds = new HashMap<>();
+        private String[] categories;
+        private int[][] categoryPatterns;
+        private String[] domainTerms;
+        private int[] domainPatterns;
+        private String[] regions;
+        private int[] regionPatterns;
+        private String[] agencyNames;
+        private int[] agencyPatterns;
+        private int[] dateTermPatterns;
+        private int[] lastYearPatterns;
+        private int[] thisYearPatterns;
+        private int[] manyPatterns;
+        private int[] briefPatterns;
+        private Set<String> stopWords;
+        private KoreanTokenizer tokenizer;
+
+        private int pattern(String term) {
+            return patternIds.computeIfAbsent(term, key -> {
+                patterns.add(key);
+                return patterns.size() - 1;
+            });
+        }
+
+        private int[] patterns(List<String> terms) {
+            return terms.stream().mapToInt(this::pattern).toArray();
+        }
+    }
+}
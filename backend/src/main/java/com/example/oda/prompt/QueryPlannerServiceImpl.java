@@ -1,54 +1,65 @@
 package com.example.oda.prompt;
 
 import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.prompt.search.MultiPatternMatcher;
+import com.example.oda.prompt.search.SearchDictionary;
+import com.example.oda.prompt.search.SearchDictionaryParticipant;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.HashMap;
-import java.util.HashSet;            // ★ 추가
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 프롬프트에서 쿼리 플랜을 만든다.
+ * <p>
+ * 사전 용어(분류, 도메인 용어, 지역, 기관, 날짜/개수 표현)는 검색 사전을 컴파일한 {@link PlannerDictionary} 의
+ * 매처로 한 번에 찾고, 숫자(연도, "N개")는 프롬프트를 한 번 훑으며 뽑는다. 일반 키워드는 {@link KoreanTokenizer} 가 낸
+ * 명사 어간 중 불용어와 사전 키워드를 뺀 앞의 세 개이다 (src/test 의 골든 테스트 참고).
+ */
 @Service
 @Slf4j
-public class QueryPlannerServiceImpl implements QueryPlannerService {
-
-    // 도메인 키워드 매핑을 Set으로 (중복 제거 + contains O(1))
-    private final Map<String, Set<String>> categoryKeywords = new HashMap<>();
-
-    public QueryPlannerServiceImpl() {
-        categoryKeywords.put("교통및물류", new HashSet<>(Arrays.asList("교통", "도로", "지하철", "버스", "물류", "주차", "교통사고", "신호등", "교통안전", "도로안전", "사고예방")));
-        categoryKeywords.put("공공질서및안전", new HashSet<>(Arrays.asList("안전", "보안", "방범", "치안", "안전사고", "시민안전", "공공안전", "생활안전")));
-        categoryKeywords.put("문화체육관광", new HashSet<>(Arrays.asList("문화재", "관광", "체육", "문화", "박물관", "공연", "축제", "예술")));
-        categoryKeywords.put("환경", new HashSet<>(Arrays.asList("환경", "대기", "수질", "폐기물", "오염", "녹지", "생태", "기후")));
-        categoryKeywords.put("교육", new HashSet<>(Arrays.asList("교육", "학교", "대학", "학습", "도서관", "연구", "학생", "교사")));
-        categoryKeywords.put("보건", new HashSet<>(Arrays.asList("보건", "병원", "의료", "건강", "질병", "의약", "코로나", "백신")));
-        categoryKeywords.put("사회복지", new HashSet<>(Arrays.asList("복지", "어린이", "노인", "장애", "저소득", "돌봄", "보육", "복지관")));
-        categoryKeywords.put("산업·통상·중소기업", new HashSet<>(Arrays.asList("산업", "기업", "창업", "경제", "무역", "중소기업", "공장", "제조업")));
-        categoryKeywords.put("일반공공행정", new HashSet<>(Arrays.asList("행정", "민원", "공무원", "정책", "규제", "법령", "시청", "구청")));
-        categoryKeywords.put("재정·세제·금융", new HashSet<>(Arrays.asList("재정", "세금", "금융", "예산", "투자", "경제", "세무", "은행"))); // ★ 괄호 수정
-        categoryKeywords.put("지역개발", new HashSet<>(Arrays.asList("개발", "도시", "지역", "건설", "인프라", "택지", "재개발", "도시계획")));
-        categoryKeywords.put("농림", new HashSet<>(Arrays.asList("농업", "임업", "농산물", "산림", "축산", "어업", "농가", "농촌")));
-    }
+public class QueryPlannerServiceImpl implements QueryPlannerService, SearchDictionaryParticipant {
+
+    private static final int DEFAULT_LIMIT = 12;
+    private static final int MANY_LIMIT = 20;
+    private static final int BRIEF_LIMIT = 5;
+    private static final int MIN_YEAR = 2000;
+    private static final int MAX_YEAR = 2035;
+    private static final int MAX_GENERAL_KEYWORDS = 3;
+
+    // 사전이 바뀌면 백그라운드에서 새로 컴파일한 뒤 바꾼다. 요청은 시작할 때 읽은 사전 하나로 끝까지 처리한다.
+    private final AtomicReference<PlannerDictionary> dictionary = new AtomicReference<>(PlannerDictionary.defaults());
 
     @Override
     public QueryPlanDto createQueryPlan(String prompt) {
+        return createQueryPlan(prompt, dictionary.get());
+    }
+
+    QueryPlanDto createQueryPlan(String prompt, PlannerDictionary dictionary) {
         log.info("===== Query Plan 생성 시작: 원본 프롬프트 =====\n{}", prompt);
         long startTime = System.currentTimeMillis();
 
-        String majorCategory = extractMajorCategory(prompt);
-        List<String> keywords = extractKeywords(prompt);
-        Integer searchYear = extractYear(prompt);
-        String providerAgency = extractAgency(prompt);
-        boolean hasDateFilter = hasDateRelatedTerms(prompt);
-        int limit = extractLimit(prompt);
+        // 분류/도메인 용어/기관/개수 표현은 소문자 프롬프트, 지역/날짜 표현은 원문에서 찾는다 (기존 구현과 같다).
+        MultiPatternMatcher.Hits hits = dictionary.newHits();
+        dictionary.scan(prompt, hits);
+        String lowerPrompt = prompt.toLowerCase();
+        MultiPatternMatcher.Hits lowerHits = hits;
+        if (!lowerPrompt.equals(prompt)) {
+            lowerHits = dictionary.newHits();
+            dictionary.scan(lowerPrompt, lowerHits);
+        }
+        PromptScan scan = PromptScan.of(prompt);
+
+        String majorCategory = dictionary.majorCategory(lowerHits);
+        List<String> keywords = extractKeywords(dictionary, hits, lowerHits, scan, dictionary.nouns(prompt));
+        Integer searchYear = extractYear(dictionary, hits, scan);
+        String providerAgency = dictionary.providerAgency(lowerHits);
+        boolean hasDateFilter = dictionary.hasDateTerm(hits);
+        int limit = extractLimit(dictionary, lowerHits, scan);
 
         QueryPlanDto plan = new QueryPlanDto(majorCategory, keywords, searchYear, providerAgency, hasDateFilter, limit);
 
@@ -58,189 +69,148 @@ public class QueryPlannerServiceImpl implements QueryPlannerService {
         return plan;
     }
 
-    private int extractLimit(String prompt) {
-        String lowerPrompt = prompt.toLowerCase();
-        Pattern pattern = Pattern.compile("(\\d+)\\s*개"); // \d, \s
-        Matcher matcher = pattern.matcher(prompt);
-        int limit = 12; // Default
-        if (matcher.find()) {
+    @Override
+    public Runnable prepare(SearchDictionary next) {
+        long startTime = System.currentTimeMillis();
+        PlannerDictionary compiled = PlannerDictionary.compile(next);
+        log.info("쿼리 플랜 사전 컴파일 완료: 버전 {} ({}ms 소요)", next.version(), System.currentTimeMillis() - startTime);
+        return () -> dictionary.set(compiled);
+    }
+
+    /** 지금 쓰는 사전. 쿼리 플랜 캐시는 키 계산과 플랜 생성에 같은 사전을 쓰도록 이것을 고정해 넘긴다. */
+    PlannerDictionary currentDictionary() {
+        return dictionary.get();
+    }
+
+    private int extractLimit(PlannerDictionary dictionary, MultiPatternMatcher.Hits lowerHits, PromptScan scan) {
+        int limit = DEFAULT_LIMIT;
+        if (scan.countDigits != null) {
             try {
-                limit = Integer.parseInt(matcher.group(1));
+                limit = Integer.parseInt(scan.countDigits);
             } catch (NumberFormatException ignored) {}
-        } else if (lowerPrompt.contains("많이")) {
-            limit = 20;
-        } else if (lowerPrompt.contains("간단히") || lowerPrompt.contains("요약")) {
-            limit = 5;
+        } else if (dictionary.asksForMany(lowerHits)) {
+            limit = MANY_LIMIT;
+        } else if (dictionary.asksForBrief(lowerHits)) {
+            limit = BRIEF_LIMIT;
         }
         log.debug("[QueryPlan] Limit 추출: {}개", limit);
         return limit;
     }
 
-    private String extractMajorCategory(String prompt) {
-        String lowerPrompt = prompt.toLowerCase();
-        String bestMatch = null;
-        long highestScore = 0;
-
-        for (Map.Entry<String, Set<String>> entry : categoryKeywords.entrySet()) {
-            long score = entry.getValue().stream().filter(k -> lowerPrompt.contains(k.toLowerCase())).count();
-            if (score > highestScore) {
-                highestScore = score;
-                bestMatch = entry.getKey();
+    // 도메인 용어 → 지역 → 연도 → 일반 키워드 순으로 모은 뒤 중복을 뺀다.
+    private List<String> extractKeywords(PlannerDictionary dictionary, MultiPatternMatcher.Hits hits,
+                                         MultiPatternMatcher.Hits lowerHits, PromptScan scan, List<String> nouns) {
+        List<String> all = new ArrayList<>();
+        dictionary.addDomainTerms(lowerHits, all);
+        dictionary.addRegions(hits, all);
+        addYears(dictionary, hits, scan, all);
+        int excludeCount = all.size();
+
+        int general = 0;
+        for (String token : nouns) {
+            if (general == MAX_GENERAL_KEYWORDS) break;
+            // 명사는 이미 중복 없이 모였으므로, 불용어와 앞서 뽑힌 사전 키워드만 빼면 된다.
+            if (dictionary.isStopWord(token) || all.subList(0, excludeCount).contains(token)) {
+                continue;
             }
+            all.add(token);
+            general++;
         }
-        String result = bestMatch != null ? bestMatch : "기타";
-        log.debug("[QueryPlan] Major Category 추출: {} (점수: {})", result, highestScore);
-        return result;
-    }
-
-    private List<String> extractKeywords(String prompt) {
-        List<String> all = new ArrayList<>();
-        all.addAll(extractDomainKeywords(prompt));
-        all.addAll(extractRegions(prompt));
-        all.addAll(extractYears(prompt));
-        all.addAll(extractGeneralKeywords(prompt, all)); // excludeWords 역할
 
-        List<String> finalKeywords = all.stream().map(String::trim).filter(s -> !s.isEmpty()).distinct().collect(Collectors.toList());
+        List<String> finalKeywords = new ArrayList<>(all.size());
+        for (String keyword : all) {
+            String trimmed = keyword.trim();
+            if (!trimmed.isEmpty() && !finalKeywords.contains(trimmed)) {
+                finalKeywords.add(trimmed);
+            }
+        }
         log.debug("[QueryPlan] 최종 키워드 추출: {}", finalKeywords);
         return finalKeywords;
     }
 
-    private List<String> extractDomainKeywords(String prompt) {
-        Map<String, Set<String>> domainPatterns = new HashMap<>();
-        domainPatterns.put("교통", new HashSet<>(Arrays.asList("교통", "교통사고", "교통안전", "도로안전", "사고예방")));
-        domainPatterns.put("안전", new HashSet<>(Arrays.asList("안전", "보안", "방범", "치안", "안전사고")));
-        domainPatterns.put("연구", new HashSet<>(Arrays.asList("프로젝트", "연구", "분석", "조사", "개발")));
-        domainPatterns.put("시민", new HashSet<>(Arrays.asList("시민", "주민", "시민안전", "공공안전", "생활안전")));
-        domainPatterns.put("환경", new HashSet<>(Arrays.asList("환경", "대기질", "수질", "오염", "기후")));
-        domainPatterns.put("문화", new HashSet<>(Arrays.asList("문화", "관광", "축제", "문화재", "박물관")));
-        domainPatterns.put("복지", new HashSet<>(Arrays.asList("복지", "돌봄", "보육", "노인", "장애인")));
-        domainPatterns.put("데이터", new HashSet<>(Arrays.asList("공공데이터", "데이터", "정보", "자료")));
-
-        List<String> found = new ArrayList<>();
-        String lower = prompt.toLowerCase();
-
-        for (Set<String> set : domainPatterns.values()) {
-            for (String kw : set) {
-                if (lower.contains(kw.toLowerCase())) {
-                    found.add(kw);
-                }
-            }
+    // 범위 안의 네 자리 숫자, 그리고 "작년"/"올해" 등 상대 표현의 연도 (중복 제외)
+    private void addYears(PlannerDictionary dictionary, MultiPatternMatcher.Hits hits, PromptScan scan, List<String> out) {
+        int from = out.size();
+        for (int y = 0; y < scan.yearCount; y++) {
+            int year = scan.years[y];
+            if (year >= MIN_YEAR && year <= MAX_YEAR) addDistinct(out, from, String.valueOf(year));
         }
-        log.debug("[QueryPlan] 도메인 키워드 추출: {}", found);
-        return found;
-    }
-
-    private List<String> extractRegions(String prompt) {
-        List<String> regions = Arrays.asList(
-                "서울","부산","대구","인천","광주","대전","울산","세종",
-                "경기","강원","충북","충남","전북","전남","경북","경남","제주","서구"
-        );
-        List<String> found = regions.stream().filter(prompt::contains).distinct().collect(Collectors.toList());
-        log.debug("[QueryPlan] 지역 키워드 추출: {}", found);
-        return found;
-    }
-
-    private List<String> extractYears(String prompt) {
-        Pattern pattern = Pattern.compile("(\\d{4})"); // \d
-        Matcher matcher = pattern.matcher(prompt);
-        List<String> years = new ArrayList<>();
-        while (matcher.find()) {
-            int y = Integer.parseInt(matcher.group(1));
-            if (y >= 2000 && y <= 2035) years.add(String.valueOf(y));
+        boolean lastYear = dictionary.mentionsLastYear(hits);
+        boolean thisYear = dictionary.mentionsThisYear(hits);
+        if (lastYear || thisYear) {
+            int currentYear = Calendar.getInstance().get(Calendar.YEAR);
+            if (lastYear) addDistinct(out, from, String.valueOf(currentYear - 1));
+            if (thisYear) addDistinct(out, from, String.valueOf(currentYear));
         }
-        int currentYear = Calendar.getInstance().get(Calendar.YEAR);
-        if (prompt.contains("작년")) years.add(String.valueOf(currentYear - 1));
-        if (prompt.contains("올해") || prompt.contains("금년") || prompt.contains("최근") || prompt.contains("최신"))
-            years.add(String.valueOf(currentYear));
-
-        List<String> found = years.stream().distinct().collect(Collectors.toList());
-        log.debug("[QueryPlan] 연도 키워드 추출: {}", found);
-        return found;
-    }
-
-    private List<String> extractGeneralKeywords(String prompt, List<String> excludeWords) {
-        // 불용어 + 이미 추출된 단어를 Set에 합치기
-        Set<String> stop = new HashSet<>(Arrays.asList(
-                "관련","대한","있는","그","이","저","것","에","를","와","과","의","년",
-                "데이터","정보","자료","나는","내가","우리","어떤","어느","무엇","뭐",
-                "하기","위해서","하려면","하고있어","찾고있어","좋을까","것이","것을",
-                "현황","시설","업체","목록"
-        ));
-        stop.addAll(excludeWords);
-
-        // 유니코드 문자/숫자/공백만 남기기
-        String cleaned = prompt
-                .replaceAll("[의가을를에서와과년]", " ")
-                .replaceAll("[^\\p{L}\\p{N}\\s]", " ");
-
-        List<String> found = Arrays.stream(cleaned.split("\s+")) // \s+
-                .map(String::trim)
-                .filter(s -> s.length() >= 2)
-                .filter(s -> !stop.contains(s))
-                .distinct()
-                .limit(3)
-                .collect(Collectors.toList());
-        log.debug("[QueryPlan] 일반 키워드 추출 (제외단어: {}): {}", excludeWords, found);
-        return found;
     }
 
-    private Integer extractYear(String prompt) {
-        Pattern pattern = Pattern.compile("(\\d{4})"); // \d
-        Matcher matcher = pattern.matcher(prompt);
+    // 첫 네 자리 숫자가 범위 안이면 그 연도, 없거나 범위 밖이면 상대 표현의 연도
+    private Integer extractYear(PlannerDictionary dictionary, MultiPatternMatcher.Hits hits, PromptScan scan) {
         Integer year = null;
-        if (matcher.find()) {
-            int parsedYear = Integer.parseInt(matcher.group(1));
-            if (parsedYear >= 2000 && parsedYear <= 2035) year = parsedYear;
+        if (scan.yearCount > 0 && scan.years[0] >= MIN_YEAR && scan.years[0] <= MAX_YEAR) {
+            year = scan.years[0];
         }
         if (year == null) {
-            int currentYear = Calendar.getInstance().get(Calendar.YEAR);
-            if (prompt.contains("작년")) year = currentYear - 1;
-            else if (prompt.contains("올해") || prompt.contains("금년") || prompt.contains("최근") || prompt.contains("최신"))
-                year = currentYear;
+            if (dictionary.mentionsLastYear(hits)) year = Calendar.getInstance().get(Calendar.YEAR) - 1;
+            else if (dictionary.mentionsThisYear(hits)) year = Calendar.getInstance().get(Calendar.YEAR);
         }
         log.debug("[QueryPlan] 검색 연도 추출: {}", year);
         return year;
     }
 
-    private String extractAgency(String prompt) {
-        String lower = prompt.toLowerCase();
-        Map<String, String> agencies = new HashMap<>();
-        agencies.put("인천", "인천광역시서구");
-        agencies.put("대구", "대구광역시서구");
-        agencies.put("서울", "서울특별시");
-        agencies.put("부산", "부산광역시");
-        agencies.put("대전", "대전광역시");
-        agencies.put("광주", "광주광역시");
-        agencies.put("울산", "울산광역시");
-        agencies.put("세종", "세종특별자치시");
-        agencies.put("경기", "경기도");
-        agencies.put("강원", "강원도");
-        agencies.put("충북", "충청북도");
-        agencies.put("충남", "충청남도");
-        agencies.put("전북", "전라북도");
-        agencies.put("전남", "전라남도");
-        agencies.put("경북", "경상북도");
-        agencies.put("경남", "경상남도");
-        agencies.put("제주", "제주특별자치도");
-
-        String agency = "기타기관";
-        for (Map.Entry<String, String> e : agencies.entrySet()) {
-            if (lower.contains(e.getKey())) {
-                agency = e.getValue();
-                break;
-            }
+    private static void addDistinct(List<String> out, int from, String value) {
+        if (!out.subList(from, out.size()).contains(value)) {
+            out.add(value);
         }
-        log.debug("[QueryPlan] 제공 기관 추출: {}", agency);
-        return agency;
     }
 
-    private boolean hasDateRelatedTerms(String prompt) {
-        List<String> dateTerms = Arrays.asList(
-                "최근","최신","2023","2024","2025","작년","올해","업데이트","갱신","신규","새로운","최근 몇 년","최근 몇개월"
-        );
-        boolean hasDateTerm = dateTerms.stream().anyMatch(prompt::contains);
-        log.debug("[QueryPlan] 날짜 관련 키워드 포함 여부: {}", hasDateTerm);
-        return hasDateTerm;
+    /**
+     * 프롬프트를 한 번 훑어 얻는 숫자.
+     * <ul>
+     *   <li>years: ASCII 숫자를 왼쪽부터 겹치지 않게 네 자리씩 끊은 값 (기존 {@code (\d{4})} 반복 검색)</li>
+     *   <li>countDigits: 공백 뒤 "개" 가 오는 첫 숫자열 (기존 {@code (\d+)\s*개})</li>
+     * </ul>
+     */
+    private static final class PromptScan {
+        private int[] years = new int[2];
+        private int yearCount;
+        private String countDigits;
+
+        static PromptScan of(String prompt) {
+            PromptScan scan = new PromptScan();
+            int length = prompt.length();
+            int digitStart = -1;
+            for (int i = 0; i <= length; i++) {
+                boolean digit = i < length && prompt.charAt(i) >= '0' && prompt.charAt(i) <= '9';
+                if (digit && digitStart < 0) {
+                    digitStart = i;
+                } else if (!digit && digitStart >= 0) {
+                    scan.addDigitRun(prompt, digitStart, i);
+                    digitStart = -1;
+                }
+            }
+            return scan;
+        }
+
+        private void addDigitRun(String prompt, int start, int end) {
+            for (int chunk = start; chunk + 4 <= end; chunk += 4) {
+                if (yearCount == years.length) {
+                    years = Arrays.copyOf(years, years.length * 2);
+                }
+                years[yearCount++] = (prompt.charAt(chunk) - '0') * 1000 + (prompt.charAt(chunk + 1) - '0') * 100
+                        + (prompt.charAt(chunk + 2) - '0') * 10 + (prompt.charAt(chunk + 3) - '0');
+            }
+            if (countDigits == null) {
+                int next = end;
+                while (next < prompt.length() && isRegexSpace(prompt.charAt(next))) next++;
+                if (next < prompt.length() && prompt.charAt(next) == '개') {
+                    countDigits = prompt.substring(start, end);
+                }
+            }
+        }
+
+        private static boolean isRegexSpace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+        }
     }
 }
-
@@ -0,0 +1,22 @@
+package com.example.oda.prompt;
+
+import com.example.oda.prompt.dto.SearchPageDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface SearchPageService {
+    /**
+     * @param filters 패싯 이름(classificationSystem, providerAgency, fileExtension, year)별 허용 값 (없으면 null)
+     * @param explain true 면 저장된 정렬 결과를 쓰지 않고 다시 검색하며, 단계별 시간과 결과별 점수 구성을 채운다
+     * @throws IllegalArgumentException 알 수 없는 패싯 이름
+     */
+    SearchPageDto firstPage(String prompt, Integer pageSize, Map<String, List<String>> filters, boolean explain);
+
+    /**
+     * @return 커서의 결과가 만료되었으면 empty
+     * @throws IllegalArgumentException 잘못된 커서
+     */
+    Optional<SearchPageDto> nextPage(String cursor);
+}
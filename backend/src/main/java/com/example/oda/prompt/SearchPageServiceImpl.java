@@ -0,0 +1,206 @@
+package com.example.oda.prompt;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.prompt.dto.ScoreExplanationDto;
+import com.example.oda.prompt.dto.SearchExplainDto;
+import com.example.oda.prompt.dto.SearchPageDto;
+import com.example.oda.prompt.search.FacetIndex;
+import com.example.oda.prompt.search.RankedResultBuffer;
+import com.example.oda.prompt.search.RankedResultBuffer.RankedItem;
+import com.example.oda.prompt.search.RankedResultBuffer.RankedResults;
+import com.example.oda.prompt.search.ScoreBreakdown;
+import com.example.oda.prompt.search.ScoredPublicData;
+import com.example.oda.prompt.search.SearchCursor;
+import com.example.oda.prompt.search.SearchTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 커서 기반 검색 결과 페이지.
+ * <p>
+ * 첫 페이지에서 전체 후보를 한 번 정렬해 {@link RankedResultBuffer} 에 두고, 이후 페이지는 커서가 가리키는 위치부터
+ * 페이지 크기만큼만 잘라 준다. 보관 기간이 지나면 다음 페이지 요청은 실패하며 첫 페이지부터 다시 검색해야 한다.
+ * <p>
+ * 패싯 개수는 필터를 적용하기 전 후보 전체로 세고, 패싯 필터는 순위 계산 전에 후보를 거른다.
+ * <p>
+ * explain 요청은 {@link SearchTrace} 를 붙여 다시 검색하고, 첫 페이지 결과의 점수 구성을 함께 돌려준다.
+ */
+@Service
+public class SearchPageServiceImpl implements SearchPageService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchPageServiceImpl.class);
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final QueryPlannerService queryPlannerService;
+    private final SearchService searchService;
+    private final RankedResultBuffer rankedResultBuffer;
+    private final FacetIndex facetIndex;
+
+    public SearchPageServiceImpl(QueryPlannerService queryPlannerService, SearchService searchService,
+                                 RankedResultBuffer rankedResultBuffer, FacetIndex facetIndex) {
+        this.queryPlannerService = queryPlannerService;
+        this.searchService = searchService;
+        this.rankedResultBuffer = rankedResultBuffer;
+        this.facetIndex = facetIndex;
+    }
+
+    @Override
+    public SearchPageDto firstPage(String prompt, Integer pageSize, Map<String, List<String>> filters, boolean explain) {
+        if (explain) {
+            return explainFirstPage(prompt, pageSize, filters);
+        }
+        QueryPlanDto plan = queryPlannerService.createQueryPlan(prompt);
+        int size = clampPageSize(pageSize != null ? pageSize : plan.getLimit());
+        String fingerprint = fingerprint(plan, filters);
+
+        RankedResults results = rankedResultBuffer.get(fingerprint).orElseGet(() -> {
+            RankedResults ranked = rankAll(plan, filters).results();
+            rankedResultBuffer.put(fingerprint, ranked);
+            return ranked;
+        });
+        return page(fingerprint, results, 0, size);
+    }
+
+    private SearchPageDto explainFirstPage(String prompt, Integer pageSize, Map<String, List<String>> filters) {
+        try (SearchTrace trace = SearchTrace.begin()) {
+            long startTime = System.nanoTime();
+            QueryPlanDto plan = queryPlannerService.createQueryPlan(prompt);
+            trace.record("plan", startTime, plan.getKeywords().size());
+            int size = clampPageSize(pageSize != null ? pageSize : plan.getLimit());
+            String fingerprint = fingerprint(plan, filters);
+
+            Ranking ranking = rankAll(plan, filters);
+            rankedResultBuffer.put(fingerprint, ranking.results());
+
+            List<ScoredPublicData> top = ranking.scored().subList(0, Math.min(size, ranking.scored().size()));
+            startTime = System.nanoTime();
+            List<ScoreBreakdown> breakdowns = searchService.explainScores(
+                    top.stream().map(ScoredPublicData::data).toList(), plan.getKeywords());
+            trace.record("explainScores", startTime, breakdowns.size());
+
+            List<ScoreExplanationDto> explanations = new ArrayList<>(top.size());
+            for (int i = 0; i < top.size(); i++) {
+                explanations.add(new ScoreExplanationDto(top.get(i).data().getFileDataName(),
+                        top.get(i).score(), breakdowns.get(i).components()));
+            }
+            SearchPageDto firstPage = page(fingerprint, ranking.results(), 0, size);
+            firstPage.setExplain(new SearchExplainDto(trace.stages(), explanations));
+            return firstPage;
+        }
+    }
+
+    @Override
+    public Optional<SearchPageDto> nextPage(String cursor) {
+        SearchCursor decoded = SearchCursor.decode(cursor);
+        Optional<RankedResults> results = rankedResultBuffer.get(decoded.fingerprint());
+        if (results.isEmpty()) {
+            log.info("페이지 커서의 결과가 만료되었습니다. (지문: {})", decoded.fingerprint());
+            return Optional.empty();
+        }
+        int offset = seek(results.get().items(), decoded);
+        return Optional.of(page(decoded.fingerprint(), results.get(), offset, clampPageSize(decoded.pageSize())));
+    }
+
+    // 검색 → 중복 제거 → 패싯 집계/필터 → 전체 정렬. 필터가 없으면 GeneralSearchPromptHandler 와 같은 후보, 같은 순서이다.
+    private Ranking rankAll(QueryPlanDto plan, Map<String, List<String>> filters) {
+        SearchTrace trace = SearchTrace.current();
+        long startTime = System.currentTimeMillis();
+        List<PublicData> allResults = searchService.searchAndFilterData(plan);
+        long stageStart = System.nanoTime();
+        List<PublicData> namedResults = searchService.deduplicateResults(allResults).stream()
+                .filter(data -> !data.getFileDataName().trim().isEmpty())
+                .collect(Collectors.toList());
+        if (trace != null) {
+            trace.record("dedup", stageStart, namedResults.size());
+            stageStart = System.nanoTime();
+        }
+        Map<String, List<FacetIndex.FacetCount>> facets = facetIndex.count(namedResults);
+        List<PublicData> filtered = facetIndex.filter(namedResults, filters);
+        if (filtered.size() != namedResults.size()) {
+            log.info("패싯 필터 {} 적용: 후보 {}건 → {}건", filters, namedResults.size(), filtered.size());
+        }
+        if (trace != null) {
+            trace.record("facets", stageStart, filtered.size());
+            stageStart = System.nanoTime();
+        }
+        List<ScoredPublicData> ranked = searchService.rankScoredResults(filtered, plan, filtered.size());
+        if (trace != null) {
+            trace.record("sort", stageStart, ranked.size());
+        }
+        log.info("페이지 검색용 전체 정렬 완료: {}건 ({}ms 소요)", ranked.size(), System.currentTimeMillis() - startTime);
+        List<RankedItem> items = ranked.stream()
+                .map(scored -> new RankedItem(scored.data().getTitle(), scored.data().getFileDataName(), scored.score()))
+                .toList();
+        return new Ranking(new RankedResults(items, facets), ranked);
+    }
+
+    private static SearchPageDto page(String fingerprint, RankedResults results, int offset, int size) {
+        List<RankedItem> items = results.items();
+        int end = Math.min(items.size(), offset + size);
+        List<String> pageResults = items.subList(Math.min(offset, end), end).stream()
+                .map(RankedItem::fileDataName)
+                .toList();
+        String nextCursor = null;
+        if (end < items.size()) {
+            RankedItem last = items.get(end - 1);
+            nextCursor = new SearchCursor(fingerprint, end, size, last.score(), last.title()).encode();
+        }
+        return new SearchPageDto(pageResults, items.size(), nextCursor, results.facets(), null);
+    }
+
+    // 커서 위치의 직전 항목이 커서의 마지막 항목과 같으면 그대로 쓰고, 아니면 (점수, 제목) 으로 다시 찾는다.
+    private static int seek(List<RankedItem> items, SearchCursor cursor) {
+        int offset = cursor.offset();
+        if (offset > 0 && offset <= items.size() && items.get(offset - 1).title().equals(cursor.lastTitle())) {
+            return offset;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            RankedItem item = items.get(i);
+            if (item.title().equals(cursor.lastTitle())) {
+                return i + 1;
+            }
+            if (item.score() < cursor.lastScore()) {
+                return i;
+            }
+        }
+        return items.size();
+    }
+
+    private static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    // 개수(limit)를 뺀 정규화된 플랜과 패싯 필터의 지문. 같은 질의는 페이지 크기와 관계없이 같은 정렬 결과를 쓴다.
+    private static String fingerprint(QueryPlanDto plan, Map<String, List<String>> filters) {
+        String canonical = String.join("\u0001",
+                String.valueOf(plan.getKeywords()),
+                String.valueOf(plan.getMajorCategory()),
+                String.valueOf(plan.getSearchYear()),
+                String.valueOf(plan.getProviderAgency()),
+                String.valueOf(plan.isHasDateFilter()),
+                String.valueOf(filters != null ? new TreeMap<>(filters) : null));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 페이지 버퍼에 넣을 결과와, 설명 모드에서 점수 구성을 계산할 원본 후보
+    private record Ranking(RankedResults results, List<ScoredPublicData> scored) {
+    }
+}
@@ -1,12 +1,28 @@
 package com.example.oda.prompt;
 
 import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.prompt.search.ScoreBreakdown;
+import com.example.oda.prompt.search.ScoredPublicData;
 
 import java.util.List;
 
 public interface SearchService {
     List<PublicData> searchAndFilterData(List<String> keywords, String majorCategory);
+    List<PublicData> searchAndFilterData(QueryPlanDto plan);
+    /** 플랜마다의 {@link #searchAndFilterData(QueryPlanDto)} 결과를 키워드 합집합 한 번의 조회로 만든다. */
+    List<List<PublicData>> searchAndFilterAll(List<QueryPlanDto> plans);
+    /** 파일데이터명·제공기관만 본 빠른 후보 조회. 메모리 색인이 없으면 null. */
+    List<PublicData> searchNamesAndAgencies(QueryPlanDto plan);
     List<PublicData> deduplicateResults(List<PublicData> allResults);
     List<PublicData> sortResultsByRelevance(List<PublicData> uniqueResults, List<String> keywords, String prompt);
+    List<PublicData> rankTopResults(List<PublicData> candidates, List<String> keywords, int limit);
+    List<ScoredPublicData> rankScoredResults(List<PublicData> candidates, List<String> keywords, int limit);
+    /** 플랜의 제공기관/대분류에 맞는 후보를 가산하는 {@link #rankTopResults(List, List, int)} */
+    List<PublicData> rankTopResults(List<PublicData> candidates, QueryPlanDto plan, int limit);
+    /** 플랜의 제공기관/대분류에 맞는 후보를 가산하는 {@link #rankScoredResults(List, List, int)} */
+    List<ScoredPublicData> rankScoredResults(List<PublicData> candidates, QueryPlanDto plan, int limit);
+    /** 검색 설명 모드용 후보별 점수 구성. rankScoredResults 와 같은 관련도 계산기를 쓴다. */
+    List<ScoreBreakdown> explainScores(List<PublicData> candidates, List<String> keywords);
     String extractRegionFromKeywords(List<String> keywords);
 }
@@ -1,11 +1,30 @@
 package com.example.oda.prompt;
 
 import com.example.oda.entity.PublicData;
-import com.example.oda.repository.PublicDataRepository;
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.prompt.search.FilterPushdownStats;
+import com.example.oda.prompt.search.HangulJamo;
+import com.example.oda.prompt.search.JamoSearchIndex;
+import com.example.oda.prompt.search.PlanFilters;
+import com.example.oda.prompt.search.PublicDataRetriever;
+import com.example.oda.prompt.search.RelevanceRanker;
+import com.example.oda.prompt.search.RuleBasedRelevanceRanker;
+import com.example.oda.prompt.search.ScoreBreakdown;
+import com.example.oda.prompt.search.ScoredPublicData;
+import com.example.oda.prompt.search.SearchDictionary;
+import com.example.oda.prompt.search.SearchDictionaryRegistry;
+import com.example.oda.prompt.search.SearchTrace;
+import com.example.oda.prompt.search.SemanticSearchIndex;
+import com.example.oda.prompt.search.TopKSelector;
+import com.example.oda.repository.PublicDataMatch;
+import com.example.oda.repository.SearchField;
+import com.example.oda.repository.SearchFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -14,88 +33,206 @@ import java.util.stream.Collectors;
 public class SearchServiceImpl implements SearchService {
 
     private static final Logger log = LoggerFactory.getLogger(SearchServiceImpl.class);
-    private final PublicDataRepository publicDataRepository;
-
-    private static final Set<String> REGION_KEYWORDS = Set.of(
-            "서울", "부산", "대구", "인천", "광주", "대전", "울산", "세종",
-            "경기", "강원", "충북", "충남", "전북", "전남", "경북", "경남", "제주"
-    );
-
-    // 점수 상수화
-    private static final int SCORE_PROVIDER_AGENCY = 200;
-    private static final int SCORE_DATA_NAME_STARTS_WITH = 150;
-    private static final int SCORE_KEYWORD_EXACT_MATCH = 100;
-    private static final int SCORE_KEYWORD_CONTAINS = 60;
-    private static final int SCORE_DATA_NAME_CONTAINS = 40;
-    private static final int SCORE_TITLE_CONTAINS = 25;
-    private static final int SCORE_DESCRIPTION_CONTAINS = 30;
-    private static final int SCORE_DESCRIPTION_ALL_KEYWORDS = 50;
-    private static final int SCORE_RECENTLY_MODIFIED = 20;
-    private static final int SCORE_CLASSIFICATION_CONTAINS = 20;
-
-    // 기본 키워드 점수
-    private static final int PRIMARY_KEYWORD_REGION_PROVIDER = 100;
-    private static final int PRIMARY_KEYWORD_REGION_NAME_STARTS = 80;
-    private static final int PRIMARY_KEYWORD_REGION_NAME_CONTAINS = 50;
-    private static final int PRIMARY_KEYWORD_REGION_DESC = 40;
-    private static final int PRIMARY_KEYWORD_NORMAL_PROVIDER = 30;
-    private static final int PRIMARY_KEYWORD_NORMAL_NAME = 20;
-    private static final int PRIMARY_KEYWORD_NORMAL_DESC = 25;
-
-    // 설명 점수
-    private static final int DESC_SCORE_KEYWORD_PRESENCE = 10;
-    private static final int DESC_SCORE_SPECIAL_TERM = 25;
-    private static final int DESC_SCORE_HIGH_KEYWORD_DENSITY = 20;
-
-
-    public SearchServiceImpl(PublicDataRepository publicDataRepository) {
-        this.publicDataRepository = publicDataRepository;
+    private final PublicDataRetriever retriever;
+    private final SemanticSearchIndex semanticIndex;
+    private final JamoSearchIndex jamoIndex;
+    private final Map<String, RelevanceRanker> rankers;
+    private final String rankerName;
+    private final int semanticCandidates;
+    private final double semanticMinSimilarity;
+    private final FilterPushdownStats pushdownStats;
+    private final boolean pushdownEnabled;
+    private final int recentMonths;
+    private final double preferredBoost;
+    private final SearchDictionaryRegistry dictionaryRegistry;
+
+    public SearchServiceImpl(PublicDataRetriever retriever, SemanticSearchIndex semanticIndex, JamoSearchIndex jamoIndex,
+                             List<RelevanceRanker> rankers,
+                             @Value("${search.ranker:rule}") String rankerName,
+                             @Value("${search.semantic.candidates:20}") int semanticCandidates,
+                             @Value("${search.semantic.min-similarity:0.35}") double semanticMinSimilarity,
+                             FilterPushdownStats pushdownStats,
+                             @Value("${search.pushdown.enabled:true}") boolean pushdownEnabled,
+                             @Value("${search.pushdown.recent-months:24}") int recentMonths,
+                             @Value("${search.pushdown.preferred-boost:0.2}") double preferredBoost,
+                             SearchDictionaryRegistry dictionaryRegistry) {
+        this.retriever = retriever;
+        this.semanticIndex = semanticIndex;
+        this.jamoIndex = jamoIndex;
+        this.rankers = rankers.stream().collect(Collectors.toMap(RelevanceRanker::name, Function.identity()));
+        this.rankerName = rankerName;
+        this.semanticCandidates = semanticCandidates;
+        this.semanticMinSimilarity = semanticMinSimilarity;
+        this.pushdownStats = pushdownStats;
+        this.pushdownEnabled = pushdownEnabled;
+        this.recentMonths = recentMonths;
+        this.preferredBoost = preferredBoost;
+        this.dictionaryRegistry = dictionaryRegistry;
     }
 
     @Override
     public List<PublicData> searchAndFilterData(List<String> keywords, String majorCategory) {
-        log.info("🔍 검색 시작 - 키워드: {}, 카테고리: {}", keywords, majorCategory);
+        return search(keywords, majorCategory, SearchFilter.NONE);
+    }
 
-        List<PublicData> allResults = new ArrayList<>();
-        for (String keyword : keywords) {
-            log.info("🔍 키워드 '{}' 개별 검색 시작", keyword);
+    @Override
+    public List<PublicData> searchAndFilterData(QueryPlanDto plan) {
+        SearchFilter filter = filterOf(plan);
+        List<PublicData> results = search(plan.getKeywords(), plan.getMajorCategory(), filter);
+        if (results.isEmpty() && !filter.isEmpty()) {
+            // 플랜의 지역/연도 추출이 틀렸을 수 있으므로 빈 결과 대신 조건 없이 다시 찾는다.
+            log.info("조건 {} 을 만족하는 결과가 없어 조건 없이 다시 검색합니다.", filter);
+            pushdownStats.recordFallback();
+            results = search(plan.getKeywords(), plan.getMajorCategory(), SearchFilter.NONE);
+        }
+        return results;
+    }
+
+    @Override
+    public List<List<PublicData>> searchAndFilterAll(List<QueryPlanDto> plans) {
+        // 모든 플랜의 키워드 합집합을 한 번만 조회하고, 플랜마다 자기 키워드에 일치한 행만 골라 쓴다.
+        // 플랜별 조건은 공유 조회에 넣을 수 없으므로 조회 후 메모리에서 적용한다.
+        List<String> union = plans.stream()
+                .flatMap(plan -> plan.getKeywords().stream())
+                .distinct()
+                .toList();
+        log.info("🔍 일괄 검색 시작 - 플랜 {}개, 키워드 합집합 {}개, 조회 경로: {}", plans.size(), union.size(), retriever.describeSource());
+        List<PublicDataMatch> matches;
+        try {
+            matches = retrieve(union, SearchFilter.NONE);
+        } catch (Exception e) {
+            log.error("키워드 {} 일괄 검색 중 오류: {}", union, e.getMessage(), e);
+            return plans.stream().<List<PublicData>>map(plan -> new ArrayList<>()).toList();
+        }
+        log.info("🔍 일괄 검색 후보 {}건 조회 완료", matches.size());
+
+        List<List<PublicData>> results = new ArrayList<>(plans.size());
+        for (QueryPlanDto plan : plans) {
+            List<String> keywords = plan.getKeywords();
+            int[] columns = keywords.stream().mapToInt(union::indexOf).toArray();
+            SearchFilter filter = filterOf(plan);
+            List<PublicData> planResults = collect(keywords, columns, matches, filter, false);
+            if (planResults.isEmpty() && !filter.isEmpty()) {
+                pushdownStats.recordFallback();
+                filter = SearchFilter.NONE;
+                planResults = collect(keywords, columns, matches, filter, false);
+            }
+            addSemanticCandidates(planResults, keywords, filter);
+            results.add(planResults);
+        }
+        return results;
+    }
 
-            Set<PublicData> keywordResults = new HashSet<>();
+    @Override
+    public List<PublicData> searchNamesAndAgencies(QueryPlanDto plan) {
+        try {
+            return retriever.findByNameOrAgency(plan.getKeywords(), filterOf(plan));
+        } catch (Exception e) {
+            log.warn("키워드 {} 빠른 조회 중 오류: {}", plan.getKeywords(), e.getMessage(), e);
+            return null;
+        }
+    }
 
-            // 각 검색 메소드별 상세 로깅
-            try {
-                List<PublicData> providerResults = publicDataRepository.findByProviderAgencyContainingIgnoreCase(keyword);
-                log.info("  - 제공기관 검색 '{}': {}개", keyword, providerResults.size());
-                keywordResults.addAll(providerResults);
+    private SearchFilter filterOf(QueryPlanDto plan) {
+        return pushdownEnabled ? PlanFilters.of(plan, dictionaryRegistry.current(), recentMonths, LocalDate.now()) : SearchFilter.NONE;
+    }
 
-                List<PublicData> nameResults = publicDataRepository.findByFileDataNameContainingIgnoreCase(keyword);
-                log.info("  - 파일명 검색 '{}': {}개", keyword, nameResults.size());
-                keywordResults.addAll(nameResults);
+    private List<PublicData> search(List<String> keywords, String majorCategory, SearchFilter filter) {
+        log.info("🔍 검색 시작 - 키워드: {}, 카테고리: {}, 조건: {}, 조회 경로: {}",
+                keywords, majorCategory, filter.isEmpty() ? "없음" : filter, retriever.describeSource());
 
-                List<PublicData> titleResults = publicDataRepository.findByTitleContainingIgnoreCase(keyword);
-                log.info("  - 제목 검색 '{}': {}개", keyword, titleResults.size());
-                keywordResults.addAll(titleResults);
+        // 모든 키워드 × 컬럼 조건을 한 번에 조회하고, 행마다 일치한 (키워드, 컬럼) 쌍을 받는다.
+        List<PublicDataMatch> matches;
+        try {
+            matches = retrieve(keywords, filter);
+        } catch (Exception e) {
+            log.error("키워드 {} 검색 중 오류: {}", keywords, e.getMessage(), e);
+            return new ArrayList<>();
+        }
+        log.info("🔍 후보 {}건 조회 완료", matches.size());
 
-                List<PublicData> keywordSearchResults = publicDataRepository.findByKeywordsContainingIgnoreCase(keyword);
-                log.info("  - 키워드 필드 검색 '{}': {}개", keyword, keywordSearchResults.size());
-                keywordResults.addAll(keywordSearchResults);
+        // 조건은 조회 단계에서 이미 적용되었다.
+        int[] columns = new int[keywords.size()];
+        Arrays.setAll(columns, k -> k);
+        List<PublicData> allResults = collect(keywords, columns, matches, SearchFilter.NONE, true);
 
-                List<PublicData> descResults = publicDataRepository.findByDescriptionContainingIgnoreCase(keyword);
-                log.info("  - 설명 검색 '{}': {}개", keyword, descResults.size());
-                keywordResults.addAll(descResults);
+        addSemanticCandidates(allResults, keywords, filter);
+        log.info("🔍 전체 검색 결과: {}개", allResults.size());
+        return allResults;
+    }
 
-            } catch (Exception e) {
-                log.error("키워드 '{}' 검색 중 오류: {}", keyword, e.getMessage(), e);
+    private List<PublicDataMatch> retrieve(List<String> keywords, SearchFilter filter) {
+        // DB 경로에서는 설명 본문 대신 순위 계산에 필요한 설명 요약만 읽는다.
+        List<PublicDataMatch> matches =
+                retriever.findByAnyKeyword(keywords, activeRanker().descriptionTerms(rankingKeywords(keywords)), filter);
+        // 초성("ㅈㄱㅊ")이나 입력 중인 자모("전기ㅊ") 키워드는 원문 조회로 찾을 수 없으므로 자모 색인에서 찾아 합친다.
+        if (jamoIndex.isReady() && keywords.stream().anyMatch(HangulJamo::isJamoQuery)) {
+            long startTime = System.nanoTime();
+            List<PublicDataMatch> jamoMatches = jamoIndex.findByAnyKeyword(keywords).stream()
+                    .filter(match -> filter.matches(match.data()))
+                    .toList();
+            SearchTrace trace = SearchTrace.current();
+            if (trace != null) {
+                trace.record("retrieval:jamo", startTime, jamoMatches.size());
             }
-
-            log.info("키워드 '{}' 최종 결과: {}개", keyword, keywordResults.size());
-            allResults.addAll(keywordResults);
+            matches = mergeMatches(matches, jamoMatches);
         }
+        return matches;
+    }
 
-        log.info("🔍 전체 검색 결과: {}개", allResults.size());
+    // 키워드 순서대로, 그 키워드에 일치한 행을 모은다. columns[k] 는 keywords[k] 의 일치 표시 위치이다.
+    private List<PublicData> collect(List<String> keywords, int[] columns, List<PublicDataMatch> matches,
+                                     SearchFilter filter, boolean logCounts) {
+        List<PublicData> allResults = new ArrayList<>();
+        SearchField[] fields = SearchField.values();
+        for (int k = 0; k < keywords.size(); k++) {
+            int column = columns[k];
+            int[] fieldCounts = new int[fields.length];
+            int keywordCount = 0;
+            for (PublicDataMatch match : matches) {
+                if (!match.matchesKeyword(column) || !filter.matches(match.data())) {
+                    continue;
+                }
+                for (SearchField field : fields) {
+                    if (match.matches(column, field)) fieldCounts[field.ordinal()]++;
+                }
+                allResults.add(match.data());
+                keywordCount++;
+            }
+            if (logCounts) {
+                for (SearchField field : fields) {
+                    log.info("  - {} 검색 '{}': {}개", field.getLabel(), keywords.get(k), fieldCounts[field.ordinal()]);
+                }
+                log.info("키워드 '{}' 최종 결과: {}개", keywords.get(k), keywordCount);
+            }
+        }
         return allResults;
     }
 
+    // 키워드를 포함하지 않지만 의미가 가까운 데이터(표기만 다른 표현 등)를 어휘 검색 결과 뒤에 덧붙인다.
+    // 순위는 이후 관련도 계산이 정하므로, 어휘 결과가 적을 때 빈자리를 채우는 역할을 한다.
+    private void addSemanticCandidates(List<PublicData> allResults, List<String> keywords, SearchFilter filter) {
+        if (!semanticIndex.isReady() || keywords.isEmpty()) {
+            return;
+        }
+        Set<String> seen = new HashSet<>();
+        for (PublicData data : allResults) {
+            seen.add(data.getTitle());
+        }
+        long startTime = System.nanoTime();
+        int added = 0;
+        for (PublicData data : semanticIndex.findSimilar(String.join(" ", keywords), semanticCandidates, semanticMinSimilarity)) {
+            if (filter.matches(data) && seen.add(data.getTitle())) {
+                allResults.add(data);
+                added++;
+            }
+        }
+        SearchTrace trace = SearchTrace.current();
+        if (trace != null) {
+            trace.record("retrieval:semantic", startTime, added);
+        }
+        log.info("  - 의미 검색 후보 추가: {}개", added);
+    }
 
     @Override
     public List<PublicData> deduplicateResults(List<PublicData> allResults) {
@@ -121,118 +258,127 @@ public class SearchServiceImpl implements SearchService {
 
     @Override
     public List<PublicData> sortResultsByRelevance(List<PublicData> uniqueResults, List<String> keywords, String prompt) {
-        return uniqueResults.stream()
-                .sorted((a, b) -> calculateRelevanceScore(b, keywords) - calculateRelevanceScore(a, keywords))
-                .collect(Collectors.toList());
+        return rankTopResults(uniqueResults, keywords, uniqueResults.size());
     }
 
     @Override
-    public String extractRegionFromKeywords(List<String> keywords) {
-        return keywords.stream()
-                .filter(this::isRegionKeyword)
-                .findFirst()
-                .orElse(null);
+    public List<PublicData> rankTopResults(List<PublicData> candidates, List<String> keywords, int limit) {
+        return rankTopResults(candidates, keywords, SearchFilter.NONE, limit);
     }
 
-    private int calculateRelevanceScore(PublicData data, List<String> keywords) {
-        int score = 0;
-        score += calculateScoresByKeyword(data, keywords);
-        score += calculateScoresByPrimaryKeyword(data, keywords);
-        score += calculateDescriptionScore(data.getDescription(), keywords);
-        score += calculateBonusScores(data, keywords);
-        return Math.max(0, score);
+    @Override
+    public List<PublicData> rankTopResults(List<PublicData> candidates, QueryPlanDto plan, int limit) {
+        return rankTopResults(candidates, plan.getKeywords(), preferredOf(plan), limit);
     }
 
-    private int calculateScoresByKeyword(PublicData data, List<String> keywords) {
-        int score = 0;
-        String dataName = data.getFileDataName() != null ? data.getFileDataName().toLowerCase() : "";
-        String dataKeywords = data.getKeywords() != null ? data.getKeywords().toLowerCase() : "";
-        String dataTitle = data.getTitle() != null ? data.getTitle().toLowerCase() : "";
-        String providerAgency = data.getProviderAgency() != null ? data.getProviderAgency().toLowerCase() : "";
-        String description = data.getDescription() != null ? data.getDescription().toLowerCase() : "";
+    private List<PublicData> rankTopResults(List<PublicData> candidates, List<String> keywords, SearchFilter preferred, int limit) {
+        List<PublicData> ranked = new ArrayList<>();
+        for (ScoredPublicData scored : rankScoredResults(candidates, keywords, preferred, limit)) {
+            ranked.add(scored.data());
+        }
+        // 요약 조회로 읽은 후보는 최종 상위 결과만 엔티티 전체를 읽는다.
+        return retriever.loadFull(ranked);
+    }
 
-        for (String keyword : keywords) {
-            String lowerKeyword = keyword.toLowerCase();
-            if (providerAgency.contains(lowerKeyword)) score += SCORE_PROVIDER_AGENCY;
-            if (dataName.startsWith(lowerKeyword)) score += SCORE_DATA_NAME_STARTS_WITH;
-            if (isKeywordExactMatch(dataKeywords, lowerKeyword)) score += SCORE_KEYWORD_EXACT_MATCH;
-            else if (dataKeywords.contains(lowerKeyword)) score += SCORE_KEYWORD_CONTAINS;
-            if (dataName.contains(lowerKeyword)) score += SCORE_DATA_NAME_CONTAINS;
-            if (dataTitle.contains(lowerKeyword)) score += SCORE_TITLE_CONTAINS;
-            if (description.contains(lowerKeyword)) score += SCORE_DESCRIPTION_CONTAINS;
-            if (keywords.size() >= 2 && description.contains(String.join(" ", keywords).toLowerCase()))
-                score += SCORE_DESCRIPTION_ALL_KEYWORDS;
-        }
-        return score;
-    }
-
-    private int calculateScoresByPrimaryKeyword(PublicData data, List<String> keywords) {
-        if (keywords.isEmpty()) {
-            return 0;
-        }
-        int score = 0;
-        String primaryKeyword = keywords.get(0).toLowerCase();
-        String dataName = data.getFileDataName() != null ? data.getFileDataName().toLowerCase() : "";
-        String providerAgency = data.getProviderAgency() != null ? data.getProviderAgency().toLowerCase() : "";
-        String description = data.getDescription() != null ? data.getDescription().toLowerCase() : "";
-
-        if (isRegionKeyword(primaryKeyword)) {
-            if (providerAgency.contains(primaryKeyword)) score += PRIMARY_KEYWORD_REGION_PROVIDER;
-            if (dataName.startsWith(primaryKeyword)) score += PRIMARY_KEYWORD_REGION_NAME_STARTS;
-            if (dataName.contains(primaryKeyword)) score += PRIMARY_KEYWORD_REGION_NAME_CONTAINS;
-            if (description.contains(primaryKeyword)) score += PRIMARY_KEYWORD_REGION_DESC;
-        } else {
-            if (providerAgency.contains(primaryKeyword)) score += PRIMARY_KEYWORD_NORMAL_PROVIDER;
-            if (dataName.contains(primaryKeyword)) score += PRIMARY_KEYWORD_NORMAL_NAME;
-            if (description.contains(primaryKeyword)) score += PRIMARY_KEYWORD_NORMAL_DESC;
-        }
-        return score;
-    }
-
-    private int calculateBonusScores(PublicData data, List<String> keywords) {
-        int score = 0;
-        if (data.getModifiedDate() != null && data.getModifiedDate().isAfter(java.time.LocalDateTime.now().minusYears(1))) {
-            score += SCORE_RECENTLY_MODIFIED;
-        }
-
-        if (data.getClassificationSystem() != null) {
-            String classification = data.getClassificationSystem().toLowerCase();
-            for (String keyword : keywords) {
-                if (classification.contains(keyword.toLowerCase())) {
-                    score += SCORE_CLASSIFICATION_CONTAINS;
-                }
-            }
+    @Override
+    public List<ScoredPublicData> rankScoredResults(List<PublicData> candidates, List<String> keywords, int limit) {
+        return rankScoredResults(candidates, keywords, SearchFilter.NONE, limit);
+    }
+
+    @Override
+    public List<ScoredPublicData> rankScoredResults(List<PublicData> candidates, QueryPlanDto plan, int limit) {
+        return rankScoredResults(candidates, plan.getKeywords(), preferredOf(plan), limit);
+    }
+
+    private List<ScoredPublicData> rankScoredResults(List<PublicData> candidates, List<String> keywords,
+                                                     SearchFilter preferred, int limit) {
+        // 후보마다 점수를 한 번만 계산하고, 상위 limit 개만 힙으로 추린다. 동점은 입력 순서를 유지한다(기존 안정 정렬과 동일).
+        RelevanceRanker ranker = activeRanker();
+        long startTime = System.nanoTime();
+        double[] scores = ranker.score(candidates, rankingKeywords(keywords));
+        boostPreferred(candidates, scores, preferred);
+        int[] top = TopKSelector.select(scores, limit);
+        log.info("관련도 계산 ({}): 후보 {}건, 상위 {}건, {}ms",
+                ranker.name(), candidates.size(), top.length, (System.nanoTime() - startTime) / 1_000_000);
+
+        List<ScoredPublicData> ranked = new ArrayList<>(top.length);
+        for (int index : top) {
+            ranked.add(new ScoredPublicData(candidates.get(index), scores[index]));
         }
-        return score;
+        return ranked;
     }
 
-    private int calculateDescriptionScore(String description, List<String> keywords) {
-        if (description == null || description.isEmpty()) return 0;
-        int score = 0;
-        String lowerDescription = description.toLowerCase();
-        for (String keyword : keywords) {
-            if (lowerDescription.contains(keyword.toLowerCase())) score += DESC_SCORE_KEYWORD_PRESENCE;
+    // 조건으로 쓰지 않은 플랜의 제공기관/대분류에 맞는 후보는 계산기와 상관없이 같은 비율로 점수를 올린다.
+    private void boostPreferred(List<PublicData> candidates, double[] scores, SearchFilter preferred) {
+        if (preferred.isEmpty() || preferredBoost <= 0) {
+            return;
         }
-        String[] specialTerms = {"도시개발", "토지구획", "재개발", "재정비", "환지", "감보율", "시행인가", "대기오염", "수질오염", "폐기물", "배출시설", "환경영향", "오염물질", "교통사고", "교통위반", "교통체계", "대중교통", "교통량", "신호체계", "교육과정", "학습", "연구", "교육시설", "교육프로그램", "문화재", "관광지", "문화시설", "예술", "공연", "축제"};
-        for (String term : specialTerms) {
-            if (lowerDescription.contains(term)) score += DESC_SCORE_SPECIAL_TERM;
+        for (int i = 0; i < scores.length; i++) {
+            PublicData data = candidates.get(i);
+            if (preferred.providerAgencyPrefixes() != null && preferred.matchesProviderAgency(data.getProviderAgency())) {
+                scores[i] *= 1 + preferredBoost;
+            }
+            if (preferred.classificationPart() != null && preferred.matchesClassification(data.getClassificationSystem())) {
+                scores[i] *= 1 + preferredBoost;
+            }
         }
-        long keywordCount = keywords.stream().mapToLong(keyword -> (lowerDescription.length() - lowerDescription.replace(keyword.toLowerCase(), "").length()) / Math.max(keyword.length(), 1)).sum();
-        if (keywordCount > 2) score += DESC_SCORE_HIGH_KEYWORD_DENSITY;
-        return score;
     }
 
-    private boolean isRegionKeyword(String keyword) {
-        return REGION_KEYWORDS.contains(keyword);
+    private SearchFilter preferredOf(QueryPlanDto plan) {
+        return pushdownEnabled ? PlanFilters.preferred(plan) : SearchFilter.NONE;
+    }
+
+    @Override
+    public List<ScoreBreakdown> explainScores(List<PublicData> candidates, List<String> keywords) {
+        return activeRanker().explain(candidates, rankingKeywords(keywords));
+    }
+
+    @Override
+    public String extractRegionFromKeywords(List<String> keywords) {
+        SearchDictionary dictionary = dictionaryRegistry.current();
+        return keywords.stream()
+                .filter(dictionary::isRegionKeyword)
+                .findFirst()
+                .orElse(null);
     }
 
-    private boolean isKeywordExactMatch(String dataKeywords, String searchKeyword) {
-        if (dataKeywords == null || dataKeywords.isEmpty()) return false;
-        String[] keywords = dataKeywords.split(",");
+    // 자모 키워드는 데이터에 실제로 쓰인 원문 표현으로 바꿔 관련도를 계산한다 ("ㅈㄱㅊ" → "전기차").
+    private List<String> rankingKeywords(List<String> keywords) {
+        if (!jamoIndex.isReady() || keywords.stream().noneMatch(HangulJamo::isJamoQuery)) {
+            return keywords;
+        }
+        List<String> expanded = new ArrayList<>(keywords.size());
         for (String keyword : keywords) {
-            String trimmedKeyword = keyword.trim().toLowerCase();
-            if (trimmedKeyword.equals(searchKeyword) || trimmedKeyword.contains(searchKeyword)) return true;
+            String surface = jamoIndex.expand(keyword);
+            if (!surface.equals(keyword)) {
+                log.info("자모 키워드 '{}' → '{}' 로 관련도 계산", keyword, surface);
+            }
+            expanded.add(surface);
+        }
+        return expanded;
+    }
+
+    // 제목(PK) 기준으로 합치고 일치 표시는 OR 한다. 순서는 처음 나타난 위치를 따른다.
+    private static List<PublicDataMatch> mergeMatches(List<PublicDataMatch> first, List<PublicDataMatch> second) {
+        Map<String, PublicDataMatch> merged = new LinkedHashMap<>();
+        for (List<PublicDataMatch> matches : List.of(first, second)) {
+            for (PublicDataMatch match : matches) {
+                merged.merge(match.data().getTitle(), match, (existing, added) -> {
+                    BitSet bits = (BitSet) existing.matchedColumns().clone();
+                    bits.or(added.matchedColumns());
+                    return new PublicDataMatch(existing.data(), bits);
+                });
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private RelevanceRanker activeRanker() {
+        RelevanceRanker ranker = rankers.get(rankerName);
+        if (ranker == null) {
+            log.warn("알 수 없는 search.ranker '{}', 규칙 기반 점수를 사용합니다.", rankerName);
+            return rankers.get(RuleBasedRelevanceRanker.NAME);
         }
-        return false;
+        return ranker;
     }
 }
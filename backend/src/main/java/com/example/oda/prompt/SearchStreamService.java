@@ -0,0 +1,8 @@
+package com.example.oda.prompt;
+
+import com.example.oda.prompt.dto.SearchBatchDto;
+import reactor.core.publisher.Flux;
+
+public interface SearchStreamService {
+    Flux<SearchBatchDto> streamSearch(String prompt);
+}
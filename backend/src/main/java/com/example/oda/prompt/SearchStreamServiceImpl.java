@@ -0,0 +1,108 @@
+package com.example.oda.prompt;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.prompt.dto.SearchBatchDto;
+import com.example.oda.prompt.search.QuickRelevanceRanker;
+import com.example.oda.prompt.search.TopKSelector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 검색 결과를 단계별로 흘려보낸다.
+ * <p>
+ * 질의 계획이 나오면 파일데이터명/제공기관 컬럼만 찾는 빠른 조회와 간이 순위로 첫 결과를 먼저 보내고(preliminary),
+ * 설명과 키워드까지 보는 전체 조회와 관련도 계산이 끝나면 최종 순위를 보낸다(final). 최종 배치는
+ * GeneralSearchPromptHandler 의 결과와 같다. 메모리 색인이 없어 빠른 조회를 할 수 없으면 전체 조회 후보로 첫 결과를 만든다.
+ */
+@Service
+public class SearchStreamServiceImpl implements SearchStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchStreamServiceImpl.class);
+
+    private final QueryPlannerService queryPlannerService;
+    private final SearchService searchService;
+    private final QuickRelevanceRanker quickRanker = new QuickRelevanceRanker();
+
+    public SearchStreamServiceImpl(QueryPlannerService queryPlannerService, SearchService searchService) {
+        this.queryPlannerService = queryPlannerService;
+        this.searchService = searchService;
+    }
+
+    @Override
+    public Flux<SearchBatchDto> streamSearch(String prompt) {
+        return Mono.fromCallable(() -> queryPlannerService.createQueryPlan(prompt))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(plan -> {
+                    List<PublicData> quick = quickRetrieve(plan);
+                    Mono<SearchBatchDto> preliminary = quick != null && !quick.isEmpty()
+                            ? Mono.just(preliminaryBatch(plan, quick, quick.size()))
+                            : Mono.empty();
+                    Flux<SearchBatchDto> rest = Mono.fromCallable(() -> retrieve(plan))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMapMany(candidates -> {
+                                if (candidates.unique() == 0) {
+                                    return Flux.just(new SearchBatchDto("not_found", List.of(), 0, true));
+                                }
+                                Mono<SearchBatchDto> fromFull = quick == null
+                                        ? Mono.fromCallable(() -> preliminaryBatch(plan, candidates.named(), candidates.unique()))
+                                        : Mono.empty();
+                                return Flux.concat(fromFull, Mono.fromCallable(() -> finalBatch(candidates)));
+                            });
+                    return Flux.concat(preliminary, rest);
+                });
+    }
+
+    // 파일데이터명/제공기관 컬럼만 찾는다. 메모리 색인이 없으면 null.
+    private List<PublicData> quickRetrieve(QueryPlanDto plan) {
+        long startTime = System.currentTimeMillis();
+        List<PublicData> results = searchService.searchNamesAndAgencies(plan);
+        if (results == null) {
+            return null;
+        }
+        List<PublicData> named = searchService.deduplicateResults(results).stream()
+                .filter(data -> !data.getFileDataName().trim().isEmpty())
+                .collect(Collectors.toList());
+        log.info("스트리밍 검색 빠른 조회 완료: {}건 ({}ms 소요)", named.size(), System.currentTimeMillis() - startTime);
+        return named;
+    }
+
+    private Candidates retrieve(QueryPlanDto plan) {
+        long startTime = System.currentTimeMillis();
+        List<PublicData> uniqueResults = searchService.deduplicateResults(
+                searchService.searchAndFilterData(plan));
+        List<PublicData> namedResults = uniqueResults.stream()
+                .filter(data -> !data.getFileDataName().trim().isEmpty())
+                .collect(Collectors.toList());
+        log.info("스트리밍 검색 후보 조회 완료: {}건 ({}ms 소요)", uniqueResults.size(), System.currentTimeMillis() - startTime);
+        return new Candidates(plan, uniqueResults.size(), namedResults);
+    }
+
+    private SearchBatchDto preliminaryBatch(QueryPlanDto plan, List<PublicData> named, int totalCount) {
+        double[] scores = quickRanker.score(named, plan.getKeywords());
+        List<String> names = new ArrayList<>();
+        for (int index : TopKSelector.select(scores, plan.getLimit())) {
+            names.add(named.get(index).getFileDataName());
+        }
+        return new SearchBatchDto("preliminary", names, totalCount, false);
+    }
+
+    private SearchBatchDto finalBatch(Candidates candidates) {
+        List<String> names = searchService.rankTopResults(candidates.named(), candidates.plan(),
+                        candidates.plan().getLimit()).stream()
+                .map(PublicData::getFileDataName)
+                .collect(Collectors.toList());
+        return new SearchBatchDto("final", names, candidates.unique(), true);
+    }
+
+    private record Candidates(QueryPlanDto plan, int unique, List<PublicData> named) {
+    }
+}
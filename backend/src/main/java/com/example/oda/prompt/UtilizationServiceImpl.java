@@ -2,7 +2,7 @@ package com.example.oda.prompt;
 
 import com.example.oda.prompt.dto.SingleUtilizationRequestDto;
 import com.example.oda.entity.PublicData;
-import com.example.oda.repository.PublicDataRepository;
+import com.example.oda.prompt.search.PublicDataRetriever;
 import com.example.oda.service.AiModelService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -20,18 +20,18 @@ public class UtilizationServiceImpl implements UtilizationService {
 
     private static final Logger log = LoggerFactory.getLogger(UtilizationServiceImpl.class);
 
-    private final PublicDataRepository publicDataRepository;
+    private final PublicDataRetriever publicDataRetriever;
     private final AiModelService aiModelService;
     private final ObjectMapper objectMapper;
 
-    public UtilizationServiceImpl(PublicDataRepository publicDataRepository, AiModelService aiModelService, ObjectMapper objectMapper) {
-        this.publicDataRepository = publicDataRepository;
+    public UtilizationServiceImpl(PublicDataRetriever publicDataRetriever, AiModelService aiModelService, ObjectMapper objectMapper) {
+        this.publicDataRetriever = publicDataRetriever;
         this.aiModelService = aiModelService;
         this.objectMapper = objectMapper;
     }
 
     private Mono<Optional<PublicData>> findDataByName(String fileName) {
-        return Mono.fromCallable(() -> publicDataRepository.findByFileDataName(fileName))
+        return Mono.fromCallable(() -> publicDataRetriever.findByFileDataName(fileName))
                 .subscribeOn(Schedulers.boundedElastic());
     }
 
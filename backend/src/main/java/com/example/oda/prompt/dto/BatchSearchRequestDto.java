@@ -0,0 +1,12 @@
+package com.example.oda.prompt.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchSearchRequestDto {
+    private List<String> prompts;
+}
@@ -0,0 +1,17 @@
+package com.example.oda.prompt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSearchResultDto {
+    private String prompt;
+    private List<String> keywords;  // 쿼리 플랜 키워드
+    private int totalCount;         // 중복 제거 후 후보 수
+    private List<String> results;   // 관련도순 상위 파일데이터명 (플랜의 limit 개)
+}
@@ -0,0 +1,17 @@
+package com.example.oda.prompt.dto;
+
+import com.example.oda.entity.PublicData;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataDetailMatchDto {
+    private PublicData data;            // 선택된 데이터
+    private double similarity;          // 파일명 유사도 (정확히 일치하면 1.0)
+    private List<String> alternatives;  // 다음으로 비슷한 파일데이터명 (유사도 순)
+}
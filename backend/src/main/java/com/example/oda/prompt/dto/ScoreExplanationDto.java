@@ -0,0 +1,16 @@
+package com.example.oda.prompt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreExplanationDto {
+    private String fileDataName;
+    private double score;                   // 최종 점수
+    private Map<String, Double> components; // 구성 요소별 점수 (rule: keyword, primaryKeyword, description, bonus)
+}
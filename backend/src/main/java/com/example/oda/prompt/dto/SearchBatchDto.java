@@ -0,0 +1,17 @@
+package com.example.oda.prompt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchBatchDto {
+    private String phase;           // preliminary: 파일명/제공기관 기준 | final: 최종 순위 | not_found
+    private List<String> results;   // 파일데이터명
+    private int totalCount;         // 중복 제거 후 후보 수 (빠른 조회로 만든 preliminary 는 그 조회의 후보 수)
+    private boolean complete;       // 마지막 배치 여부
+}
@@ -0,0 +1,16 @@
+package com.example.oda.prompt.dto;
+
+import com.example.oda.prompt.search.SearchTrace;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchExplainDto {
+    private List<SearchTrace.Stage> stages;         // 단계별 소요 시간(ms)과 행 수 (플랜 생성, 조회, 중복 제거, 정렬 등)
+    private List<ScoreExplanationDto> results;      // 페이지 결과별 점수 구성
+}
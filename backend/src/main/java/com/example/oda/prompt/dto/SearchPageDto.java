@@ -0,0 +1,22 @@
+package com.example.oda.prompt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.example.oda.prompt.search.FacetIndex;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPageDto {
+    private List<String> results;   // 파일데이터명
+    private int totalCount;         // 전체 결과 수
+    private String nextCursor;      // 다음 페이지 커서 (마지막 페이지면 null)
+    private Map<String, List<FacetIndex.FacetCount>> facets;    // 패싯별 값 개수 (필터 적용 전 후보 기준)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SearchExplainDto explain;   // explain 요청 시에만 채워지는 단계별 시간과 점수 구성
+}
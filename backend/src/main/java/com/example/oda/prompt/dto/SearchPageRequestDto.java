@@ -0,0 +1,16 @@
+package com.example.oda.prompt.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+public class SearchPageRequestDto {
+    private String prompt;
+    private Integer pageSize; // 없으면 프롬프트에서 추출한 개수
+    private Map<String, List<String>> filters; // 패싯 필터 (예: {"fileExtension": ["CSV"], "year": ["2024"]})
+    private boolean explain; // true 면 단계별 소요 시간과 결과별 점수 구성을 함께 돌려준다
+}
@@ -0,0 +1,15 @@
+package com.example.oda.prompt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+    private String fileDataName;
+    private String title;
+    private String providerAgency;
+    private String matchedField;    // 일치한 필드: 파일명 | 제목
+}
@@ -2,7 +2,7 @@ package com.example.oda.prompt.handlers;
 
 import com.example.oda.entity.ChatSession;
 import com.example.oda.entity.PublicData;
-import com.example.oda.repository.PublicDataRepository;
+import com.example.oda.prompt.search.PublicDataRetriever;
 import com.example.oda.service.GeminiService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -20,7 +20,7 @@ import java.util.Optional;
 public class DataCheckPromptHandler implements PromptHandler {
 
    private final GeminiService geminiService;
-   private final PublicDataRepository publicDataRepository;
+   private final PublicDataRetriever publicDataRetriever;
 
    @Override
    public boolean canHandle(String prompt, String lastDataName) {
@@ -31,7 +31,7 @@ public class DataCheckPromptHandler implements PromptHandler {
    @Override
    public Mono<JsonNode> handle(ChatSession session, String prompt, String lastDataName) {
        // Find the PublicData entity by its name to get the PK
-       Optional<PublicData> publicDataOptional = publicDataRepository.findByFileDataName(lastDataName);
+       Optional<PublicData> publicDataOptional = publicDataRetriever.findByFileDataName(lastDataName);
 
        if (publicDataOptional.isEmpty()) {
            ObjectNode errorNode = JsonNodeFactory.instance.objectNode();
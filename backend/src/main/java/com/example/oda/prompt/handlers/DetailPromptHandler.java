@@ -1,6 +1,7 @@
 package com.example.oda.prompt.handlers;
 
 import com.example.oda.entity.ChatSession;
+import com.example.oda.entity.PublicData;
 import com.example.oda.repository.ChatSessionRepository;
 import com.example.oda.prompt.DetailService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -51,8 +52,9 @@ public class DetailPromptHandler implements PromptHandler {
         chatSessionRepository.save(session);
 
         final String finalEffectiveFileName = effectiveFileName; 
-        return detailService.getDataDetails(effectiveFileName)
-                .map(publicData -> {
+        return detailService.findDataDetails(effectiveFileName)
+                .map(match -> {
+                    PublicData publicData = match.getData();
                     ObjectNode root = objectMapper.createObjectNode();
                     root.put("type", "data_detail");
 
@@ -75,6 +77,13 @@ public class DetailPromptHandler implements PromptHandler {
                     payload.set("keywords", keywordsNode);
 
                     root.set("payload", payload);
+
+                    // 파일명이 정확히 일치하지 않았으면 다른 후보를 함께 보여준다.
+                    if (match.getAlternatives() != null && !match.getAlternatives().isEmpty()) {
+                        ArrayNode alternativesNode = objectMapper.createArrayNode();
+                        match.getAlternatives().forEach(alternativesNode::add);
+                        root.set("alternatives", alternativesNode);
+                    }
                     return (JsonNode) root;
                 })
                 .switchIfEmpty(Mono.fromCallable(() -> {
@@ -5,6 +5,8 @@ import com.example.oda.entity.ChatSession;
 import com.example.oda.entity.PublicData;
 import com.example.oda.prompt.QueryPlannerService;
 import com.example.oda.prompt.SearchService;
+import com.example.oda.prompt.search.SearchResultCache;
+import com.example.oda.prompt.search.SearchResultCache.SearchOutcome;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -25,6 +27,7 @@ public class GeneralSearchPromptHandler implements PromptHandler {
 
     private final QueryPlannerService queryPlannerService;
     private final SearchService searchService;
+    private final SearchResultCache searchResultCache;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -44,25 +47,14 @@ public class GeneralSearchPromptHandler implements PromptHandler {
             // 1. 쿼리 플랜 생성
             QueryPlanDto plan = queryPlannerService.createQueryPlan(prompt);
 
-            // 2. 데이터 검색 및 필터링
-            log.info("데이터 검색을 시작합니다. (키워드: {}, 카테고리: {})", plan.getKeywords(), plan.getMajorCategory());
-            long startTime = System.currentTimeMillis();
-            List<PublicData> allResults = searchService.searchAndFilterData(plan.getKeywords(), plan.getMajorCategory());
-            long endTime = System.currentTimeMillis();
-            log.info("데이터 검색 완료. {}개 결과. (소요 시간: {}ms)", allResults.size(), (endTime - startTime));
-
-            // 3. 중복 제거
-            List<PublicData> uniqueResults = searchService.deduplicateResults(allResults);
-            log.info("중복 제거 후 {}개 결과 남음.", uniqueResults.size());
-
-            // 4. 관련도순 정렬
-            List<PublicData> sortedResults = searchService.sortResultsByRelevance(uniqueResults, plan.getKeywords(), prompt);
-            log.info("관련도순 정렬 후 {}개 결과.", sortedResults.size());
+            // 2~4. 검색, 중복 제거, 관련도 정렬 (같은 플랜의 결과는 캐시에서 재사용)
+            SearchOutcome outcome = searchResultCache.get(plan, () -> search(plan));
+            List<PublicData> topResults = outcome.topResults();
 
             ObjectNode root = objectMapper.createObjectNode();
 
             // 5. 결과 JSON 생성
-            if (sortedResults.isEmpty()) {
+            if (outcome.uniqueCount() == 0) {
                 log.warn("최종 검색 결과가 없습니다. 'search_not_found' 메시지를 생성합니다.");
                 String regionKeyword = searchService.extractRegionFromKeywords(plan.getKeywords());
                 root.put("type", "search_not_found");
@@ -72,10 +64,8 @@ public class GeneralSearchPromptHandler implements PromptHandler {
                 payload.put("regionKeyword", regionKeyword);
                 root.set("payload", payload);
             } else {
-                List<String> resultNames = sortedResults.stream()
+                List<String> resultNames = topResults.stream()
                         .map(PublicData::getFileDataName)
-                        .filter(name -> name != null && !name.trim().isEmpty())
-                        .limit(plan.getLimit())
                         .collect(Collectors.toList());
 
                 log.info("최종 {}개의 결과를 클라이언트에게 반환합니다. (요청된 개수: {})", resultNames.size(), plan.getLimit());
@@ -98,4 +88,25 @@ public class GeneralSearchPromptHandler implements PromptHandler {
             return Mono.just(errorNode);
         }
     }
+
+    private SearchOutcome search(QueryPlanDto plan) {
+        // 2. 데이터 검색 및 필터링
+        log.info("데이터 검색을 시작합니다. (키워드: {}, 카테고리: {})", plan.getKeywords(), plan.getMajorCategory());
+        long startTime = System.currentTimeMillis();
+        List<PublicData> allResults = searchService.searchAndFilterData(plan);
+        long endTime = System.currentTimeMillis();
+        log.info("데이터 검색 완료. {}개 결과. (소요 시간: {}ms)", allResults.size(), (endTime - startTime));
+
+        // 3. 중복 제거
+        List<PublicData> uniqueResults = searchService.deduplicateResults(allResults);
+        log.info("중복 제거 후 {}개 결과 남음.", uniqueResults.size());
+
+        // 4. 관련도순 상위 limit 개 선택 (파일명이 비어 있으면 반환 대상이 아니므로 순위에서 제외)
+        List<PublicData> namedResults = uniqueResults.stream()
+                .filter(data -> !data.getFileDataName().trim().isEmpty())
+                .collect(Collectors.toList());
+        List<PublicData> topResults = searchService.rankTopResults(namedResults, plan, plan.getLimit());
+        log.info("관련도순 상위 {}개 선택.", topResults.size());
+        return new SearchOutcome(uniqueResults.size(), topResults);
+    }
 }
@@ -0,0 +1,104 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.SearchField;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BM25F 관련도 점수. search.ranker=bm25
+ * <p>
+ * 필드별 등장 횟수(tf)를 필드 길이로 정규화하고 가중치를 곱해 합친 뒤, 카탈로그 전체의 문서 빈도(df)로 구한 idf 를 곱한다.
+ * 통계는 {@link PublicDataSearchIndex} 가 미리 계산해 둔 것을 쓰며, 색인이 없으면 후보 집합으로 계산한다.
+ */
+@Component
+public class Bm25RelevanceRanker implements RelevanceRanker {
+
+    public static final String NAME = "bm25";
+
+    private static final double K1 = 1.2;
+
+    // SearchField 순서: 제공기관, 파일데이터명, 제목, 키워드, 설명
+    private static final double[] FIELD_WEIGHTS = {2.0, 3.0, 2.5, 2.0, 1.0};
+    private static final double[] FIELD_LENGTH_NORMALIZATION = {0.3, 0.5, 0.5, 0.5, 0.75};
+
+    private static final SearchField[] FIELDS = SearchField.values();
+
+    private final PublicDataSearchIndex searchIndex;
+
+    public Bm25RelevanceRanker(PublicDataSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double[] score(List<PublicData> candidates, List<String> keywords) {
+        CorpusStatistics statistics = searchIndex.statistics();
+        if (statistics == null) {
+            statistics = CorpusStatistics.ofDocuments(candidates);
+        }
+
+        List<String> lowerKeywords = keywords.stream().map(String::toLowerCase).toList();
+        double[] idf = new double[lowerKeywords.size()];
+        int documentCount = statistics.documentCount();
+        for (int k = 0; k < idf.length; k++) {
+            int df = statistics.documentFrequency(lowerKeywords.get(k));
+            idf[k] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+        }
+        double[] averageLengths = new double[FIELDS.length];
+        for (SearchField field : FIELDS) {
+            averageLengths[field.ordinal()] = statistics.averageLength(field);
+        }
+
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile(lowerKeywords);
+        MultiPatternMatcher.Hits hits = matcher.newHits();
+        double[] weightedTermFrequencies = new double[lowerKeywords.size()];
+        double[] scores = new double[candidates.size()];
+
+        for (int i = 0; i < scores.length; i++) {
+            Arrays.fill(weightedTermFrequencies, 0);
+            PublicData candidate = candidates.get(i);
+            for (SearchField field : FIELDS) {
+                String value = field.valueOf(candidate);
+                int length;
+                if (value != null) {
+                    length = value.length();
+                    matcher.scan(value.toLowerCase(), hits);
+                } else if (field == SearchField.DESCRIPTION && candidate.getDescriptionDigest() != null
+                        && candidate.getDescriptionDigest().covers(lowerKeywords)) {
+                    // 설명 본문 없이 요약만 읽은 후보
+                    length = candidate.getDescriptionDigest().length();
+                    hits.assign(candidate.getDescriptionDigest().counts());
+                } else {
+                    continue;
+                }
+                if (length == 0) {
+                    continue;
+                }
+                int f = field.ordinal();
+                double b = FIELD_LENGTH_NORMALIZATION[f];
+                double lengthRatio = averageLengths[f] > 0 ? length / averageLengths[f] : 1;
+                double norm = 1 - b + b * lengthRatio;
+                for (int k = 0; k < weightedTermFrequencies.length; k++) {
+                    int tf = hits.count(k);
+                    if (tf > 0) {
+                        weightedTermFrequencies[k] += FIELD_WEIGHTS[f] * tf / norm;
+                    }
+                }
+            }
+            double score = 0;
+            for (int k = 0; k < weightedTermFrequencies.length; k++) {
+                double tf = weightedTermFrequencies[k];
+                score += idf[k] * tf * (K1 + 1) / (K1 + tf);
+            }
+            scores[i] = score;
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.oda.prompt.search;
+
+/**
+ * filedata 카탈로그가 바뀌었음을 알리는 이벤트. 검색 결과 캐시 등 카탈로그에서 파생된 상태를 비운다.
+ *
+ * @param changedRows 반영된 행 수 (전체 재적재이면 전체 행 수)
+ * @param fullReload  전체 재적재 여부
+ */
+public record CatalogChangedEvent(int changedRows, boolean fullReload) {
+}
@@ -0,0 +1,669 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.DescriptionDigest;
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.SearchField;
+import com.example.oda.repository.SearchFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * filedata 카탈로그의 불변 컬럼형 사본.
+ * <p>
+ * 제목/파일데이터명/키워드/설명은 하나의 UTF-8 바이트 배열(arena)에 컬럼별로 이어 붙이고 행마다 시작 위치만 둔다.
+ * 값 종류가 적은 분류체계/제공기관/확장자는 사전 인코딩해 int 코드로 저장한다. 읽을 때만 {@link PublicData} 로 만든다.
+ * 부분 문자열 검증과 설명 요약({@link #summaryRow})은 문자열을 만들지 않고 arena 바이트에서 바로 한다.
+ * 변경은 {@link #withChanges} 로 새 사본을 만들어 통째로 바꾼다.
+ */
+public final class CatalogSnapshot {
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private enum TextColumn {
+        TITLE(PublicData::getTitle),
+        FILE_DATA_NAME(PublicData::getFileDataName),
+        KEYWORDS(PublicData::getKeywords),
+        DESCRIPTION(PublicData::getDescription);
+
+        private final Function<PublicData, String> accessor;
+
+        TextColumn(Function<PublicData, String> accessor) {
+            this.accessor = accessor;
+        }
+    }
+
+    private enum CodedColumn {
+        CLASSIFICATION_SYSTEM(PublicData::getClassificationSystem),
+        PROVIDER_AGENCY(PublicData::getProviderAgency),
+        FILE_EXTENSION(PublicData::getFileExtension);
+
+        private final Function<PublicData, String> accessor;
+
+        CodedColumn(Function<PublicData, String> accessor) {
+            this.accessor = accessor;
+        }
+    }
+
+    private final int size;
+    private final byte[] arena;
+    // textOffsets[c][row] ~ textOffsets[c][row + 1] 이 arena 에서 값의 범위. null 값은 textNulls 로 구분한다.
+    private final int[][] textOffsets;
+    private final BitSet[] textNulls;
+    // 소문자화가 ASCII 대문자만 바꾸지 않는 값(비ASCII 대문자 등)을 가진 행. 이 행들만 문자열로 만들어 비교한다.
+    private final BitSet[] foldedRows;
+    // codes[c][row] 는 dictionaries[c] 의 위치, null 이면 -1
+    private final int[][] codes;
+    private final String[][] dictionaries;
+    private final long[] modifiedMicros;
+    private final long[] publicDataPks;
+    // 제목/파일데이터명 → 행 번호 조회용 개방 주소 해시 테이블 (row + 1 저장, 0 은 빈 칸).
+    // 키 문자열은 따로 들고 있지 않고 arena 에서 읽어 비교한다.
+    private final int[] titleSlots;
+    private final int[] fileDataNameSlots;
+    private final LocalDateTime maxModifiedDate;
+
+    private CatalogSnapshot(int size, byte[] arena, int[][] textOffsets, BitSet[] textNulls, BitSet[] foldedRows,
+                            int[][] codes, String[][] dictionaries, long[] modifiedMicros, long[] publicDataPks) {
+        this.size = size;
+        this.arena = arena;
+        this.textOffsets = textOffsets;
+        this.textNulls = textNulls;
+        this.foldedRows = foldedRows;
+        this.codes = codes;
+        this.dictionaries = dictionaries;
+        this.modifiedMicros = modifiedMicros;
+        this.publicDataPks = publicDataPks;
+        this.titleSlots = buildSlots(TextColumn.TITLE);
+        this.fileDataNameSlots = buildSlots(TextColumn.FILE_DATA_NAME);
+        long max = NULL_LONG;
+        for (long micros : modifiedMicros) {
+            max = Math.max(max, micros);
+        }
+        this.maxModifiedDate = toDateTime(max);
+    }
+
+    public static CatalogSnapshot of(List<PublicData> rows) {
+        return assemble(null, rows.toArray(new PublicData[0]));
+    }
+
+    /**
+     * 바뀐 행(제목 기준)을 교체하고 새 행은 끝에 덧붙인 사본. 기존 행 번호는 유지된다.
+     * 바뀌지 않은 행은 PublicData 로 만들지 않고 arena 구간과 코드를 그대로 복사한다.
+     */
+    public CatalogSnapshot withChanges(Collection<PublicData> changed) {
+        Map<Integer, PublicData> replaced = new HashMap<>();
+        List<PublicData> appended = new ArrayList<>();
+        Map<String, Integer> appendedRows = new HashMap<>();
+        for (PublicData data : changed) {
+            int row = rowOf(data.getTitle());
+            if (row >= 0) {
+                replaced.put(row, data);
+                continue;
+            }
+            Integer existing = appendedRows.putIfAbsent(data.getTitle(), appended.size());
+            if (existing != null) {
+                appended.set(existing, data);
+            } else {
+                appended.add(data);
+            }
+        }
+        PublicData[] rows = new PublicData[size + appended.size()];
+        replaced.forEach((row, data) -> rows[row] = data);
+        for (int i = 0; i < appended.size(); i++) {
+            rows[size + i] = appended.get(i);
+        }
+        return assemble(this, rows);
+    }
+
+    // rows[row] 가 null 인 행은 base 의 같은 행을 복사하고, 나머지는 새로 인코딩한다 (base 가 null 이면 모두 새로).
+    // 사전 인코딩 컬럼은 base 의 사전을 이어 쓰므로, 더 이상 쓰이지 않는 값이 전체 재적재 전까지 사전에 남을 수 있다.
+    private static CatalogSnapshot assemble(CatalogSnapshot base, PublicData[] rows) {
+        int size = rows.length;
+        TextColumn[] textColumns = TextColumn.values();
+
+        byte[][][] encoded = new byte[textColumns.length][size][];
+        long arenaSize = 0;
+        for (TextColumn column : textColumns) {
+            int c = column.ordinal();
+            for (int row = 0; row < size; row++) {
+                if (rows[row] == null) {
+                    arenaSize += base.textOffsets[c][row + 1] - base.textOffsets[c][row];
+                    continue;
+                }
+                String value = column.accessor.apply(rows[row]);
+                if (value != null) {
+                    encoded[c][row] = value.getBytes(StandardCharsets.UTF_8);
+                    arenaSize += encoded[c][row].length;
+                }
+            }
+        }
+        if (arenaSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("카탈로그 문자열이 너무 큽니다: " + arenaSize + " bytes");
+        }
+
+        byte[] arena = new byte[(int) arenaSize];
+        int[][] textOffsets = new int[textColumns.length][size + 1];
+        BitSet[] textNulls = new BitSet[textColumns.length];
+        BitSet[] foldedRows = new BitSet[textColumns.length];
+        int position = 0;
+        for (TextColumn column : textColumns) {
+            int c = column.ordinal();
+            textNulls[c] = new BitSet(size);
+            foldedRows[c] = new BitSet();
+            for (int row = 0; row < size; ) {
+                if (rows[row] == null) {
+                    // 바뀌지 않은 연속 구간은 한 번에 복사한다.
+                    int end = row;
+                    while (end < size && rows[end] == null) {
+                        end++;
+                    }
+                    int from = base.textOffsets[c][row];
+                    int length = base.textOffsets[c][end] - from;
+                    System.arraycopy(base.arena, from, arena, position, length);
+                    for (int r = row; r < end; r++) {
+                        textOffsets[c][r] = base.textOffsets[c][r] - from + position;
+                    }
+                    copyBits(base.textNulls[c], textNulls[c], row, end);
+                    copyBits(base.foldedRows[c], foldedRows[c], row, end);
+                    position += length;
+                    row = end;
+                    continue;
+                }
+                textOffsets[c][row] = position;
+                byte[] bytes = encoded[c][row];
+                if (bytes == null) {
+                    textNulls[c].set(row);
+                } else {
+                    System.arraycopy(bytes, 0, arena, position, bytes.length);
+                    position += bytes.length;
+                    if (needsFullLowering(column.accessor.apply(rows[row]))) {
+                        foldedRows[c].set(row);
+                    }
+                }
+                row++;
+            }
+            textOffsets[c][size] = position;
+        }
+
+        CodedColumn[] codedColumns = CodedColumn.values();
+        int[][] codes = new int[codedColumns.length][size];
+        String[][] dictionaries = new String[codedColumns.length][];
+        for (CodedColumn column : codedColumns) {
+            int c = column.ordinal();
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            if (base != null) {
+                for (String value : base.dictionaries[c]) {
+                    dictionary.put(value, dictionary.size());
+                }
+            }
+            for (int row = 0; row < size; row++) {
+                if (rows[row] == null) {
+                    codes[c][row] = base.codes[c][row];
+                    continue;
+                }
+                String value = column.accessor.apply(rows[row]);
+                codes[c][row] = value == null ? -1 : dictionary.computeIfAbsent(value, v -> dictionary.size());
+            }
+            dictionaries[c] = dictionary.keySet().toArray(new String[0]);
+        }
+
+        long[] modifiedMicros = new long[size];
+        long[] publicDataPks = new long[size];
+        for (int row = 0; row < size; row++) {
+            PublicData data = rows[row];
+            if (data == null) {
+                modifiedMicros[row] = base.modifiedMicros[row];
+                publicDataPks[row] = base.publicDataPks[row];
+            } else {
+                modifiedMicros[row] = toMicros(data.getModifiedDate());
+                publicDataPks[row] = data.getPublicDataPk() != null ? data.getPublicDataPk() : NULL_LONG;
+            }
+        }
+        return new CatalogSnapshot(size, arena, textOffsets, textNulls, foldedRows, codes, dictionaries,
+                modifiedMicros, publicDataPks);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** 제목(기본키)으로 찾은 행 번호, 없으면 -1 */
+    public int rowOf(String title) {
+        return find(titleSlots, TextColumn.TITLE, title);
+    }
+
+    /** 파일데이터명이 정확히 같은 첫 행 번호, 없으면 -1 */
+    public int rowOfFileDataName(String fileDataName) {
+        return find(fileDataNameSlots, TextColumn.FILE_DATA_NAME, fileDataName);
+    }
+
+    /** 행이 data 와 모든 컬럼에서 같은지 (증분 갱신에서 실제로 바뀐 행만 고르는 데 쓴다) */
+    public boolean sameAs(int row, PublicData data) {
+        for (TextColumn column : TextColumn.values()) {
+            if (!Objects.equals(text(column, row), column.accessor.apply(data))) {
+                return false;
+            }
+        }
+        for (CodedColumn column : CodedColumn.values()) {
+            if (!Objects.equals(decode(column, row), column.accessor.apply(data))) {
+                return false;
+            }
+        }
+        return modifiedMicros[row] == toMicros(data.getModifiedDate())
+                && publicDataPks[row] == (data.getPublicDataPk() != null ? data.getPublicDataPk() : NULL_LONG);
+    }
+
+    /** 증분 갱신 기준 시각: 사본에 있는 가장 최근 수정일 (없으면 null) */
+    public LocalDateTime maxModifiedDate() {
+        return maxModifiedDate;
+    }
+
+    /** 행의 분류체계 (null 허용) */
+    public String classificationSystem(int row) {
+        return decode(CodedColumn.CLASSIFICATION_SYSTEM, row);
+    }
+
+    /** 행의 파일 확장자 (null 허용) */
+    public String fileExtension(int row) {
+        return decode(CodedColumn.FILE_EXTENSION, row);
+    }
+
+    /** 행의 수정일 (null 허용) */
+    public LocalDateTime modifiedDate(int row) {
+        return toDateTime(modifiedMicros[row]);
+    }
+
+    /**
+     * 조건을 만족하는 행들. 제공기관·분류체계 조건은 사전 값마다 한 번만 검사하고 행에서는 코드만 비교한다.
+     */
+    public BitSet rowsMatching(SearchFilter filter) {
+        boolean[] agencies = matchingCodes(CodedColumn.PROVIDER_AGENCY, filter::matchesProviderAgency);
+        boolean[] classifications = matchingCodes(CodedColumn.CLASSIFICATION_SYSTEM, filter::matchesClassification);
+        boolean agencyNullAllowed = filter.providerAgencyPrefixes() == null;
+        boolean classificationNullAllowed = filter.classificationPart() == null;
+        long sinceMicros = filter.modifiedSince() != null ? toMicros(filter.modifiedSince()) : Long.MIN_VALUE;
+        int[] agencyCodes = codes[CodedColumn.PROVIDER_AGENCY.ordinal()];
+        int[] classificationCodes = codes[CodedColumn.CLASSIFICATION_SYSTEM.ordinal()];
+
+        BitSet rows = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            int agency = agencyCodes[row];
+            int classification = classificationCodes[row];
+            if ((agency < 0 ? agencyNullAllowed : agencies[agency])
+                    && (classification < 0 ? classificationNullAllowed : classifications[classification])
+                    && modifiedMicros[row] >= sinceMicros) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    /** 검색 필드의 원래 값 (null 허용) */
+    public String value(SearchField field, int row) {
+        return switch (field) {
+            case PROVIDER_AGENCY -> decode(CodedColumn.PROVIDER_AGENCY, row);
+            case FILE_DATA_NAME -> text(TextColumn.FILE_DATA_NAME, row);
+            case TITLE -> text(TextColumn.TITLE, row);
+            case KEYWORDS -> text(TextColumn.KEYWORDS, row);
+            case DESCRIPTION -> text(TextColumn.DESCRIPTION, row);
+        };
+    }
+
+    /** 검색 필드 값의 길이 (문자 수, null 이면 0). 값을 문자열로 만들지 않고 센다. */
+    public int length(SearchField field, int row) {
+        if (field == SearchField.PROVIDER_AGENCY) {
+            String agency = decode(CodedColumn.PROVIDER_AGENCY, row);
+            return agency != null ? agency.length() : 0;
+        }
+        int c = textColumnOf(field).ordinal();
+        return charLength(textOffsets[c][row], textOffsets[c][row + 1]);
+    }
+
+    /** 행 하나를 새 PublicData 로 만든다 (영속성 컨텍스트에 속하지 않는다). */
+    public PublicData row(int row) {
+        PublicData data = withoutDescription(row);
+        data.setDescription(text(TextColumn.DESCRIPTION, row));
+        return data;
+    }
+
+    /**
+     * 설명 본문 대신 {@link DescriptionDigest} 를 담은 행. DB 요약 조회와 같이 설명 길이와, 소문자화한 설명에
+     * lowerTerms 가 (겹치지 않게) 나타난 횟수를 담는다. 길이는 원래 설명의 {@link String#length()} 로, 행 전체로
+     * 점수를 매길 때와 같다. 후보 단계에서 설명 문자열을 만들지 않으려고 쓴다.
+     */
+    public PublicData summaryRow(int row, List<String> lowerTerms) {
+        PublicData data = withoutDescription(row);
+        int c = TextColumn.DESCRIPTION.ordinal();
+        int from = textOffsets[c][row];
+        int to = textOffsets[c][row + 1];
+        int[] counts = new int[lowerTerms.size()];
+        if (!textNulls[c].get(row)) {
+            String lowerDescription = null;
+            for (int t = 0; t < counts.length; t++) {
+                String term = lowerTerms.get(t);
+                byte[] needle = term.getBytes(StandardCharsets.UTF_8);
+                if (foldedRows[c].get(row) || !encodable(term, needle)) {
+                    if (lowerDescription == null) {
+                        lowerDescription = text(TextColumn.DESCRIPTION, row).toLowerCase();
+                    }
+                    counts[t] = occurrences(lowerDescription, term);
+                } else {
+                    counts[t] = occurrences(from, to, needle);
+                }
+            }
+        }
+        data.setDescriptionDigest(new DescriptionDigest(charLength(from, to), lowerTerms, counts));
+        return data;
+    }
+
+    /**
+     * 검색 필드 값을 부분 문자열 색인의 원본으로 쓰는 보기. 색인은 값을 복사하지 않고 이것으로 검증한다.
+     */
+    SubstringIndex.Values searchValues(SearchField field) {
+        return field == SearchField.PROVIDER_AGENCY ? new AgencyValues() : new TextValues(textColumnOf(field));
+    }
+
+    private PublicData withoutDescription(int row) {
+        PublicData data = new PublicData();
+        data.setTitle(text(TextColumn.TITLE, row));
+        data.setFileDataName(text(TextColumn.FILE_DATA_NAME, row));
+        data.setKeywords(text(TextColumn.KEYWORDS, row));
+        data.setClassificationSystem(decode(CodedColumn.CLASSIFICATION_SYSTEM, row));
+        data.setProviderAgency(decode(CodedColumn.PROVIDER_AGENCY, row));
+        data.setFileExtension(decode(CodedColumn.FILE_EXTENSION, row));
+        data.setModifiedDate(toDateTime(modifiedMicros[row]));
+        data.setPublicDataPk(publicDataPks[row] != NULL_LONG ? publicDataPks[row] : null);
+        return data;
+    }
+
+    /**
+     * 사본이 차지하는 대략적인 메모리 (배열 헤더 등 고정 비용 제외).
+     */
+    public MemoryUsage memoryUsage() {
+        long arenaBytes = arena.length;
+        long columnBytes = 0;
+        for (int[] offsets : textOffsets) {
+            columnBytes += 4L * offsets.length;
+        }
+        for (BitSet nulls : textNulls) {
+            columnBytes += nulls.size() / 8;
+        }
+        for (BitSet folded : foldedRows) {
+            columnBytes += folded.size() / 8;
+        }
+        for (int[] column : codes) {
+            columnBytes += 4L * column.length;
+        }
+        columnBytes += 8L * modifiedMicros.length + 8L * publicDataPks.length;
+        long dictionaryBytes = 0;
+        int dictionaryEntries = 0;
+        for (String[] dictionary : dictionaries) {
+            dictionaryEntries += dictionary.length;
+            for (String value : dictionary) {
+                dictionaryBytes += 40 + 2L * value.length();
+            }
+        }
+        long lookupBytes = 4L * (titleSlots.length + fileDataNameSlots.length);
+        return new MemoryUsage(size, arenaBytes, columnBytes, dictionaryBytes, dictionaryEntries, lookupBytes, 0);
+    }
+
+    private String text(TextColumn column, int row) {
+        int c = column.ordinal();
+        if (textNulls[c].get(row)) {
+            return null;
+        }
+        int from = textOffsets[c][row];
+        return new String(arena, from, textOffsets[c][row + 1] - from, StandardCharsets.UTF_8);
+    }
+
+    // 행 순서대로 넣으므로 같은 값이 여러 행이면 탐색 중 가장 앞 행을 먼저 만난다.
+    // 해시는 arena 의 UTF-8 바이트로 계산하므로 값을 문자열로 만들지 않는다.
+    private int[] buildSlots(TextColumn column) {
+        int c = column.ordinal();
+        int[] slots = new int[Integer.highestOneBit(Math.max(size, 1) * 2) * 2];
+        for (int row = 0; row < size; row++) {
+            if (textNulls[c].get(row)) {
+                continue;
+            }
+            int slot = hash(arena, textOffsets[c][row], textOffsets[c][row + 1]) & (slots.length - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            slots[slot] = row + 1;
+        }
+        return slots;
+    }
+
+    private int find(int[] slots, TextColumn column, String value) {
+        if (value == null) {
+            return -1;
+        }
+        int c = column.ordinal();
+        byte[] key = value.getBytes(StandardCharsets.UTF_8);
+        for (int slot = hash(key, 0, key.length) & (slots.length - 1); slots[slot] != 0; slot = (slot + 1) & (slots.length - 1)) {
+            int row = slots[slot] - 1;
+            if (Arrays.equals(arena, textOffsets[c][row], textOffsets[c][row + 1], key, 0, key.length)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private static int hash(byte[] bytes, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    // arena[from, to) 에서 needle 이 처음 나타나는 위치. 값 쪽은 ASCII 대문자만 소문자로 바꿔 비교한다.
+    // UTF-8 은 문자 경계가 자기 동기화되므로 바이트 일치는 곧 문자열 일치이다.
+    private int indexOf(int from, int to, byte[] needle) {
+        int last = to - needle.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (lowerAscii(arena[i + j]) != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // String.replace 로 지우는 것과 같은, 겹치지 않는 등장 횟수
+    private int occurrences(int from, int to, byte[] needle) {
+        if (needle.length == 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int at = indexOf(from, to, needle); at >= 0; at = indexOf(at + needle.length, to, needle)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int occurrences(String lowerValue, String term) {
+        if (term.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        for (int at = lowerValue.indexOf(term); at >= 0; at = lowerValue.indexOf(term, at + term.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    // UTF-8 구간의 String 길이 (보조 문자는 2)
+    private int charLength(int from, int to) {
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            int b = arena[i] & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                length += b >= 0xF0 ? 2 : 1;
+            }
+        }
+        return length;
+    }
+
+    private static byte lowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    // 짝이 맞지 않는 서로게이트처럼 UTF-8 로 그대로 옮겨지지 않는 검색어는 바이트로 비교할 수 없다.
+    private static boolean encodable(String value, byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8).equals(value);
+    }
+
+    // 소문자화가 ASCII 대문자를 바꾸는 것 말고 다른 일을 하는 값인지 (비ASCII 대문자, 보조 문자 등)
+    private static boolean needsFullLowering(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch >= 0x80 && (Character.isSurrogate(ch) || Character.toLowerCase(ch) != ch)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void copyBits(BitSet from, BitSet to, int fromRow, int toRow) {
+        for (int row = from.nextSetBit(fromRow); row >= 0 && row < toRow; row = from.nextSetBit(row + 1)) {
+            to.set(row);
+        }
+    }
+
+    private static TextColumn textColumnOf(SearchField field) {
+        return switch (field) {
+            case FILE_DATA_NAME -> TextColumn.FILE_DATA_NAME;
+            case TITLE -> TextColumn.TITLE;
+            case KEYWORDS -> TextColumn.KEYWORDS;
+            case DESCRIPTION -> TextColumn.DESCRIPTION;
+            case PROVIDER_AGENCY -> throw new IllegalArgumentException("제공기관은 사전 인코딩 컬럼입니다.");
+        };
+    }
+
+    private String decode(CodedColumn column, int row) {
+        int code = codes[column.ordinal()][row];
+        return code < 0 ? null : dictionaries[column.ordinal()][code];
+    }
+
+    private boolean[] matchingCodes(CodedColumn column, Predicate<String> predicate) {
+        String[] dictionary = dictionaries[column.ordinal()];
+        boolean[] matching = new boolean[dictionary.length];
+        for (int code = 0; code < dictionary.length; code++) {
+            matching[code] = predicate.test(dictionary[code]);
+        }
+        return matching;
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NULL_LONG;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime toDateTime(long micros) {
+        if (micros == NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000,
+                ZoneOffset.UTC);
+    }
+
+    // arena 의 텍스트 컬럼. 대부분의 행은 바이트에서 바로 검사하고, foldedRows 의 행만 문자열로 만든다.
+    private final class TextValues implements SubstringIndex.Values {
+        private final TextColumn column;
+
+        private TextValues(TextColumn column) {
+            this.column = column;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public String lowerValue(int docId) {
+            String value = text(column, docId);
+            return value != null ? value.toLowerCase() : null;
+        }
+
+        @Override
+        public IntPredicate containing(String lowerQuery) {
+            int c = column.ordinal();
+            byte[] needle = lowerQuery.getBytes(StandardCharsets.UTF_8);
+            boolean bytewise = encodable(lowerQuery, needle);
+            return row -> {
+                if (textNulls[c].get(row)) {
+                    return false;
+                }
+                if (!bytewise || foldedRows[c].get(row)) {
+                    return text(column, row).toLowerCase().contains(lowerQuery);
+                }
+                return indexOf(textOffsets[c][row], textOffsets[c][row + 1], needle) >= 0;
+            };
+        }
+    }
+
+    // 제공기관은 사전 값마다 한 번만 검사하고 행에서는 코드만 본다.
+    private final class AgencyValues implements SubstringIndex.Values {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public String lowerValue(int docId) {
+            String value = decode(CodedColumn.PROVIDER_AGENCY, docId);
+            return value != null ? value.toLowerCase() : null;
+        }
+
+        @Override
+        public IntPredicate containing(String lowerQuery) {
+            boolean[] matching = matchingCodes(CodedColumn.PROVIDER_AGENCY, value -> value.toLowerCase().contains(lowerQuery));
+            int[] agencyCodes = codes[CodedColumn.PROVIDER_AGENCY.ordinal()];
+            return row -> agencyCodes[row] >= 0 && matching[agencyCodes[row]];
+        }
+    }
+
+    /**
+     * @param dictionaryEntries 사전 인코딩된 컬럼들의 서로 다른 값 수 합계
+     * @param indexBytes        사본 위에 만든 부분 문자열 색인(posting, 토큰 표)의 크기
+     */
+    public record MemoryUsage(int rows, long arenaBytes, long columnBytes, long dictionaryBytes,
+                              int dictionaryEntries, long lookupBytes, long indexBytes) {
+
+        public long totalBytes() {
+            return arenaBytes + columnBytes + dictionaryBytes + lookupBytes + indexBytes;
+        }
+
+        /** 데이터셋 10만 건 기준으로 환산한 바이트 수 */
+        public long bytesPer100k() {
+            return rows == 0 ? 0 : totalBytes() * 100_000 / rows;
+        }
+
+        MemoryUsage withIndexBytes(long indexBytes) {
+            return new MemoryUsage(rows, arenaBytes, columnBytes, dictionaryBytes, dictionaryEntries, lookupBytes, indexBytes);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.DescriptionDigest;
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.SearchField;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * BM25 계산용 카탈로그 통계: 문서 수, 필드별 총 길이(문자 수), 용어별 문서 빈도(df).
+ * <p>
+ * df 는 "어느 필드에든 용어를 포함하는 문서 수"로, 처음 요청될 때 색인 posting 에서 구해 최근 용어
+ * {@value #MAX_MEMOIZED_TERMS}개까지 기억해 둔다. 카탈로그 일부가 바뀌면 {@link #withChanges} 로 필드 길이는
+ * 바뀐 문서만큼 보정하고, df 는 새 색인에서 다시 구한다.
+ */
+public final class CorpusStatistics {
+
+    private static final SearchField[] FIELDS = SearchField.values();
+    static final int MAX_MEMOIZED_TERMS = 10_000;
+
+    private final int documentCount;
+    private final long[] totalLengths;
+    private final ToIntFunction<String> documentFrequencySource;
+    // 검색어로 채워지므로 크기를 제한한다 (접근 순서 LRU, 이 객체로 잠근다)
+    private final Map<String, Integer> documentFrequencies = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > MAX_MEMOIZED_TERMS;
+        }
+    };
+
+    private CorpusStatistics(int documentCount, long[] totalLengths, ToIntFunction<String> documentFrequencySource) {
+        this.documentCount = documentCount;
+        this.totalLengths = totalLengths;
+        this.documentFrequencySource = documentFrequencySource;
+    }
+
+    /**
+     * @param documentFrequencySource 소문자 용어의 df 를 구하는 함수 (보통 색인 조회)
+     */
+    public static CorpusStatistics compute(Collection<PublicData> documents, ToIntFunction<String> documentFrequencySource) {
+        long[] totalLengths = new long[FIELDS.length];
+        for (PublicData document : documents) {
+            addLengths(totalLengths, document, 1);
+        }
+        return new CorpusStatistics(documents.size(), totalLengths, documentFrequencySource);
+    }
+
+    /**
+     * 이미 합산한 필드별 총 길이({@link SearchField} 순서)로 통계를 만든다.
+     */
+    static CorpusStatistics of(int documentCount, long[] totalLengths, ToIntFunction<String> documentFrequencySource) {
+        return new CorpusStatistics(documentCount, totalLengths.clone(), documentFrequencySource);
+    }
+
+    /**
+     * 색인 없이 주어진 문서 집합만으로 통계를 만든다 (df 는 문서를 훑어 센다).
+     */
+    public static CorpusStatistics ofDocuments(List<PublicData> documents) {
+        return compute(documents, term -> (int) documents.stream().filter(d -> containsInAnyField(d, term)).count());
+    }
+
+    /**
+     * removed 를 빼고 added 를 더한 통계. df 는 기억해 둔 값을 버리고 newDocumentFrequencySource 에서 다시 구한다.
+     */
+    public CorpusStatistics withChanges(Collection<PublicData> removed, Collection<PublicData> added,
+                                        ToIntFunction<String> newDocumentFrequencySource) {
+        long[] lengths = totalLengths.clone();
+        removed.forEach(document -> addLengths(lengths, document, -1));
+        added.forEach(document -> addLengths(lengths, document, 1));
+        return new CorpusStatistics(documentCount - removed.size() + added.size(), lengths, newDocumentFrequencySource);
+    }
+
+    public int documentCount() {
+        return documentCount;
+    }
+
+    public double averageLength(SearchField field) {
+        return documentCount == 0 ? 0 : (double) totalLengths[field.ordinal()] / documentCount;
+    }
+
+    // df 계산은 잠금 밖에서 한다. 같은 용어가 동시에 들어오면 두 번 셀 수 있지만 결과는 같다.
+    public int documentFrequency(String lowerTerm) {
+        synchronized (documentFrequencies) {
+            Integer cached = documentFrequencies.get(lowerTerm);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        int df = documentFrequencySource.applyAsInt(lowerTerm);
+        synchronized (documentFrequencies) {
+            documentFrequencies.put(lowerTerm, df);
+        }
+        return df;
+    }
+
+    private static void addLengths(long[] totalLengths, PublicData document, int sign) {
+        for (SearchField field : FIELDS) {
+            totalLengths[field.ordinal()] += (long) sign * length(document, field);
+        }
+    }
+
+    // 설명 본문 없이 요약만 읽은 문서는 요약의 길이와 등장 횟수를 쓴다.
+    private static int length(PublicData document, SearchField field) {
+        String value = field.valueOf(document);
+        if (value == null && field == SearchField.DESCRIPTION && document.getDescriptionDigest() != null) {
+            return document.getDescriptionDigest().length();
+        }
+        return value != null ? value.length() : 0;
+    }
+
+    private static boolean containsInAnyField(PublicData document, String lowerTerm) {
+        for (SearchField field : FIELDS) {
+            String value = field.valueOf(document);
+            if (value != null && value.toLowerCase().contains(lowerTerm)) {
+                return true;
+            }
+        }
+        DescriptionDigest digest = document.getDescriptionDigest();
+        if (document.getDescription() == null && digest != null) {
+            int term = digest.terms().indexOf(lowerTerm);
+            return term >= 0 && digest.counts()[term] > 0;
+        }
+        return false;
+    }
+}
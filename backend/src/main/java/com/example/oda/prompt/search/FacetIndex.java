@@ -0,0 +1,206 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.SearchField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * 분류체계·제공기관·확장자·수정 연도별로 해당 행 번호를 {@link RoaringBitmap} 으로 둔 패싯 색인.
+ * <p>
+ * 검색 후보를 비트맵으로 바꾼 뒤 값별 비트맵과의 교집합 크기로 패싯 개수를 세고, 패싯 필터는 비트맵 합집합/교집합으로
+ * 허용 행 집합을 만들어 순위 계산 전에 후보를 거른다. {@link CatalogChangedEvent} 를 받으면 다시 만들어 통째로 교체한다.
+ */
+@Component
+public class FacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FacetIndex.class);
+    private static final int MAX_VALUES_PER_FACET = 20;
+
+    private final PublicDataSearchIndex searchIndex;
+
+    private volatile Snapshot snapshot;
+
+    public FacetIndex(PublicDataSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * 패싯 종류. 요청/응답에서는 {@link #getParameter()} 이름을 쓴다.
+     */
+    public enum Facet {
+        CLASSIFICATION_SYSTEM("classificationSystem", PublicData::getClassificationSystem),
+        PROVIDER_AGENCY("providerAgency", PublicData::getProviderAgency),
+        FILE_EXTENSION("fileExtension", PublicData::getFileExtension),
+        YEAR("year", data -> year(data.getModifiedDate()));
+
+        private final String parameter;
+        private final Function<PublicData, String> accessor;
+
+        Facet(String parameter, Function<PublicData, String> accessor) {
+            this.parameter = parameter;
+            this.accessor = accessor;
+        }
+
+        public String getParameter() {
+            return parameter;
+        }
+
+        public String valueOf(PublicData data) {
+            return accessor.apply(data);
+        }
+
+        public static Facet fromParameter(String parameter) {
+            return Arrays.stream(values())
+                    .filter(facet -> facet.parameter.equals(parameter))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("알 수 없는 패싯: " + parameter));
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            CatalogSnapshot catalog = searchIndex.catalog();
+            if (catalog == null) {
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+            long bytes = 0;
+            for (Facet facet : Facet.values()) {
+                Map<String, IntList> rows = new TreeMap<>();
+                for (int row = 0; row < catalog.size(); row++) {
+                    String value = valueOf(catalog, facet, row);
+                    if (value != null) {
+                        rows.computeIfAbsent(value, v -> new IntList()).add(row);
+                    }
+                }
+                Map<String, RoaringBitmap> values = new TreeMap<>();
+                for (Map.Entry<String, IntList> entry : rows.entrySet()) {
+                    RoaringBitmap bitmap = RoaringBitmap.ofSorted(entry.getValue().toArray());
+                    values.put(entry.getKey(), bitmap);
+                    bytes += bitmap.sizeInBytes();
+                }
+                bitmaps.put(facet, values);
+            }
+            this.snapshot = new Snapshot(catalog, bitmaps);
+            log.info("패싯 색인 구축 완료: {}건, 비트맵 {}KB ({}ms 소요)", catalog.size(), bytes / 1024, System.currentTimeMillis() - startTime);
+        } catch (RuntimeException e) {
+            log.warn("패싯 색인 갱신 실패, 이전 색인을 계속 씁니다: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 후보들의 패싯별 값 개수. 값은 개수 내림차순(같으면 값 순)으로 패싯마다 최대 {@value #MAX_VALUES_PER_FACET} 개이며,
+     * 개수가 0 인 값은 뺀다. 색인이 없으면 빈 맵.
+     */
+    public Map<String, List<FacetCount>> count(List<PublicData> candidates) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Map.of();
+        }
+        RoaringBitmap candidateRows = current.rowsOf(candidates);
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        for (Facet facet : Facet.values()) {
+            List<FacetCount> counts = new ArrayList<>();
+            current.bitmaps.get(facet).forEach((value, rows) -> {
+                int count = rows.andCardinality(candidateRows);
+                if (count > 0) {
+                    counts.add(new FacetCount(value, count));
+                }
+            });
+            counts.sort(Comparator.comparingInt(FacetCount::count).reversed());
+            facets.put(facet.getParameter(), counts.size() > MAX_VALUES_PER_FACET ? counts.subList(0, MAX_VALUES_PER_FACET) : counts);
+        }
+        return facets;
+    }
+
+    /**
+     * 패싯 필터를 통과한 후보만 남긴다. 같은 패싯의 값끼리는 OR, 패싯끼리는 AND 이다.
+     * 색인이 있으면 비트맵으로 허용 행 집합을 만들고, 없으면 후보의 필드 값을 직접 비교한다.
+     *
+     * @throws IllegalArgumentException 알 수 없는 패싯 이름
+     */
+    public List<PublicData> filter(List<PublicData> candidates, Map<String, List<String>> filters) {
+        if (filters == null || filters.values().stream().allMatch(values -> values == null || values.isEmpty())) {
+            return candidates;
+        }
+        Map<Facet, List<String>> parsed = new EnumMap<>(Facet.class);
+        filters.forEach((name, values) -> {
+            if (values != null && !values.isEmpty()) {
+                parsed.put(Facet.fromParameter(name), values);
+            }
+        });
+
+        Snapshot current = snapshot;
+        if (current == null) {
+            return candidates.stream()
+                    .filter(data -> parsed.entrySet().stream()
+                            .allMatch(entry -> entry.getValue().contains(entry.getKey().valueOf(data))))
+                    .toList();
+        }
+        RoaringBitmap allowed = null;
+        for (Map.Entry<Facet, List<String>> entry : parsed.entrySet()) {
+            RoaringBitmap facetRows = RoaringBitmap.empty();
+            for (String value : entry.getValue()) {
+                RoaringBitmap rows = current.bitmaps.get(entry.getKey()).get(value);
+                if (rows != null) {
+                    facetRows = facetRows.or(rows);
+                }
+            }
+            allowed = allowed == null ? facetRows : allowed.and(facetRows);
+        }
+        RoaringBitmap allowedRows = allowed;
+        return candidates.stream()
+                .filter(data -> {
+                    int row = current.catalog.rowOf(data.getTitle());
+                    return row >= 0 && allowedRows.contains(row);
+                })
+                .toList();
+    }
+
+    private static String valueOf(CatalogSnapshot catalog, Facet facet, int row) {
+        return switch (facet) {
+            case CLASSIFICATION_SYSTEM -> catalog.classificationSystem(row);
+            case PROVIDER_AGENCY -> catalog.value(SearchField.PROVIDER_AGENCY, row);
+            case FILE_EXTENSION -> catalog.fileExtension(row);
+            case YEAR -> year(catalog.modifiedDate(row));
+        };
+    }
+
+    private static String year(LocalDateTime dateTime) {
+        return dateTime != null ? String.valueOf(dateTime.getYear()) : null;
+    }
+
+    public record FacetCount(String value, int count) {
+    }
+
+    private record Snapshot(CatalogSnapshot catalog, Map<Facet, Map<String, RoaringBitmap>> bitmaps) {
+
+        RoaringBitmap rowsOf(List<PublicData> candidates) {
+            int[] rows = candidates.stream()
+                    .mapToInt(data -> catalog.rowOf(data.getTitle()))
+                    .filter(row -> row >= 0)
+                    .toArray();
+            return RoaringBitmap.of(rows);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.SearchField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 파일데이터명 문자 3-gram 색인. 철자가 조금 틀리거나 일부만 입력한 파일명과 가장 비슷한 데이터를
+ * Dice 계수(2·공유 3-gram 수 / 양쪽 3-gram 수 합)로 찾는다.
+ * <p>
+ * Dice 계수는 길이 차이에 민감해 파일명 일부("전기차 등록 현황")만 입력하면 낮아지므로, 질의 3-gram 의
+ * (앞뒤 경계 3-gram 제외) {@value #MIN_QUERY_COVERAGE} 이상이 파일명에 있는 후보도 받아들인다(기존 부분 일치 조회를 대신한다). 순위는 어느 경우든 Dice 계수이다.
+ * <p>
+ * 파일명은 자동완성과 같은 방식(소문자, 공백 제거)으로 맞춘 뒤 앞에 공백 두 칸, 뒤에 한 칸을 붙여 3-gram 을 만든다
+ * (pg_trgm 과 같은 방식). {@link CatalogChangedEvent} 를 받으면 현재 카탈로그 사본으로 다시 만들어 통째로 교체한다.
+ */
+@Component
+public class FileNameTrigramIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FileNameTrigramIndex.class);
+    private static final double MIN_QUERY_COVERAGE = 0.8;
+
+    private final PublicDataSearchIndex searchIndex;
+
+    private volatile Snapshot snapshot;
+
+    public FileNameTrigramIndex(PublicDataSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            CatalogSnapshot catalog = searchIndex.catalog();
+            if (catalog == null) {
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            Map<Long, IntList> postings = new HashMap<>();
+            int[] trigramCounts = new int[catalog.size()];
+            for (int row = 0; row < catalog.size(); row++) {
+                String fileDataName = catalog.value(SearchField.FILE_DATA_NAME, row);
+                if (fileDataName == null) {
+                    continue;
+                }
+                long[] trigrams = trigrams(fileDataName);
+                trigramCounts[row] = trigrams.length;
+                for (long trigram : trigrams) {
+                    postings.computeIfAbsent(trigram, key -> new IntList()).add(row);
+                }
+            }
+            long[] keys = postings.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            int[][] rows = new int[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                rows[i] = postings.get(keys[i]).toArray();
+            }
+            this.snapshot = new Snapshot(catalog, keys, rows, trigramCounts);
+            log.info("파일명 3-gram 색인 구축 완료: 3-gram {}개 ({}ms 소요)", keys.length, System.currentTimeMillis() - startTime);
+        } catch (RuntimeException e) {
+            log.warn("파일명 3-gram 색인 갱신 실패, 이전 색인을 계속 씁니다: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 파일명과 Dice 유사도가 threshold 이상이거나 파일명을 거의 포함하는 데이터를 유사도 순으로 최대 limit 건.
+     * 색인이 없으면 빈 목록.
+     */
+    public List<FileNameMatch> findSimilar(String fileDataName, double threshold, int limit) {
+        Snapshot current = snapshot;
+        if (current == null || fileDataName == null) {
+            return List.of();
+        }
+        long[] query = trigrams(fileDataName);
+        if (query.length == 0) {
+            return List.of();
+        }
+        // 포함 여부는 앞뒤 공백이 붙은 경계 3-gram 을 뺀 내부 3-gram 만으로 본다. 경계 3-gram 은 첫 글자나
+        // 마지막 글자만 같아도 겹치므로, 함께 세면 짧은 질의가 첫 글자만 같은 파일명에도 포함으로 잡힌다.
+        int[] shared = new int[current.trigramCounts.length];
+        int[] sharedInterior = new int[current.trigramCounts.length];
+        int interior = 0;
+        IntList touched = new IntList();
+        for (long trigram : query) {
+            boolean interiorTrigram = isInterior(trigram);
+            if (interiorTrigram) {
+                interior++;
+            }
+            int slot = Arrays.binarySearch(current.keys, trigram);
+            if (slot < 0) {
+                continue;
+            }
+            for (int row : current.rows[slot]) {
+                if (shared[row]++ == 0) {
+                    touched.add(row);
+                }
+                if (interiorTrigram) {
+                    sharedInterior[row]++;
+                }
+            }
+        }
+
+        // 받아들이지 않는 후보는 음수 점수로 두어 상위 선택에서 뒤로 보낸다.
+        double[] scores = new double[touched.size()];
+        for (int i = 0; i < scores.length; i++) {
+            int row = touched.get(i);
+            double dice = 2.0 * shared[row] / (query.length + current.trigramCounts[row]);
+            double coverage = interior > 0 ? (double) sharedInterior[row] / interior : 0;
+            scores[i] = dice >= threshold || coverage >= MIN_QUERY_COVERAGE ? dice : -1;
+        }
+        List<FileNameMatch> matches = new ArrayList<>();
+        for (int index : TopKSelector.select(scores, limit)) {
+            if (scores[index] < 0) {
+                break;
+            }
+            matches.add(new FileNameMatch(current.catalog.row(touched.get(index)), scores[index]));
+        }
+        return matches;
+    }
+
+    // 정규화한 파일명의 중복 없는 3-gram (문자 세 개를 16비트씩 묶은 값)
+    static long[] trigrams(String text) {
+        String padded = "  " + PrefixSuggester.normalize(text) + " ";
+        if (padded.length() == 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[padded.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    // 정규화한 파일명에는 공백이 없으므로 공백이 든 3-gram 은 앞뒤 경계 3-gram 이다.
+    private static boolean isInterior(long trigram) {
+        return (trigram >>> 32) != ' ' && ((trigram >>> 16) & 0xFFFF) != ' ' && (trigram & 0xFFFF) != ' ';
+    }
+
+    public record FileNameMatch(PublicData data, double similarity) {
+    }
+
+    private record Snapshot(CatalogSnapshot catalog, long[] keys, int[][] rows, int[] trigramCounts) {
+    }
+}
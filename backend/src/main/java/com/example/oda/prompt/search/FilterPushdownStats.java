@@ -0,0 +1,74 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.repository.SearchFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 쿼리 플랜 조건({@link SearchFilter})을 텍스트 일치보다 먼저 적용해 줄어든 후보 수 통계.
+ * <p>
+ * 조건 적용 전 후보 수는 메모리 색인 경로에서만 잴 수 있다. DB 경로는 WHERE 절에서 이미 걸러진 결과만 받으므로
+ * 적용 후 후보 수만 센다.
+ */
+@Component
+public class FilterPushdownStats {
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong filteredSearches = new AtomicLong();
+    private final AtomicLong measuredSearches = new AtomicLong();
+    private final AtomicLong candidatesBefore = new AtomicLong();
+    private final AtomicLong candidatesAfter = new AtomicLong();
+    private final AtomicLong databaseCandidates = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    /** 색인 경로 조회 한 번. unfilteredCount 는 조건이 없었다면 나왔을 후보 수이다. */
+    void recordIndex(SearchFilter filter, int unfilteredCount, int filteredCount) {
+        searches.incrementAndGet();
+        if (filter.isEmpty()) {
+            return;
+        }
+        filteredSearches.incrementAndGet();
+        measuredSearches.incrementAndGet();
+        candidatesBefore.addAndGet(unfilteredCount);
+        candidatesAfter.addAndGet(filteredCount);
+    }
+
+    /** DB 경로 조회 한 번 */
+    void recordDatabase(SearchFilter filter, int filteredCount) {
+        searches.incrementAndGet();
+        if (filter.isEmpty()) {
+            return;
+        }
+        filteredSearches.incrementAndGet();
+        databaseCandidates.addAndGet(filteredCount);
+    }
+
+    /** 조건을 적용한 결과가 없어 조건 없이 다시 검색한 경우 */
+    public void recordFallback() {
+        fallbacks.incrementAndGet();
+    }
+
+    public Stats stats() {
+        long before = candidatesBefore.get();
+        long after = candidatesAfter.get();
+        double removedRatio = before > 0 ? (double) (before - after) / before : 0.0;
+        return new Stats(searches.get(), filteredSearches.get(), measuredSearches.get(),
+                before, after, removedRatio, databaseCandidates.get(), fallbacks.get());
+    }
+
+    /**
+     * @param searches           전체 후보 조회 수
+     * @param filteredSearches   조건이 하나 이상 있었던 조회 수
+     * @param measuredSearches   그중 적용 전후를 모두 잰(색인 경로) 조회 수
+     * @param candidatesBefore   색인 경로에서 조건 적용 전 후보 수 합계
+     * @param candidatesAfter    색인 경로에서 조건 적용 후 후보 수 합계
+     * @param removedRatio       색인 경로에서 조건으로 제외된 후보 비율
+     * @param databaseCandidates DB 경로에서 조건 적용 후 후보 수 합계
+     * @param fallbacks          조건 적용 결과가 없어 조건 없이 다시 검색한 수
+     */
+    public record Stats(long searches, long filteredSearches, long measuredSearches,
+                        long candidatesBefore, long candidatesAfter, double removedRatio,
+                        long databaseCandidates, long fallbacks) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.oda.prompt.search;
+
+/**
+ * 한글 음절의 초성 추출과 자모 분해. 결과는 호환용 자모(ㄱ, ㅏ 등 U+3131~U+318E)로 쓴다.
+ * <p>
+ * {@link #initials} 는 글자마다 정확히 한 글자를 내므로 결과의 위치가 원문 위치와 같다.
+ * 한글 음절이 아닌 글자는 소문자로 바꿔 그대로 둔다.
+ */
+public final class HangulJamo {
+
+    private static final char SYLLABLE_FIRST = '가';
+    private static final char SYLLABLE_LAST = '힣';
+    private static final char JAMO_FIRST = 'ㄱ';
+    private static final char CONSONANT_LAST = 'ㅎ';
+    private static final char JAMO_LAST = 'ㆎ';
+
+    private static final char[] INITIALS = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ', 'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'};
+    private static final char[] MEDIALS = {
+            'ㅏ', 'ㅐ', 'ㅑ', 'ㅒ', 'ㅓ', 'ㅔ', 'ㅕ', 'ㅖ', 'ㅗ', 'ㅘ', 'ㅙ', 'ㅚ', 'ㅛ', 'ㅜ', 'ㅝ', 'ㅞ', 'ㅟ', 'ㅠ', 'ㅡ', 'ㅢ', 'ㅣ'};
+    // 0 번은 받침 없음
+    private static final char[] FINALS = {
+            0, 'ㄱ', 'ㄲ', 'ㄳ', 'ㄴ', 'ㄵ', 'ㄶ', 'ㄷ', 'ㄹ', 'ㄺ', 'ㄻ', 'ㄼ', 'ㄽ', 'ㄾ', 'ㄿ', 'ㅀ', 'ㅁ', 'ㅂ', 'ㅄ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'};
+
+    private HangulJamo() {
+    }
+
+    /** "전기차" → "ㅈㄱㅊ". 길이와 글자 위치가 원문과 같다. */
+    public static String initials(String text) {
+        char[] result = new char[text.length()];
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            result[i] = isSyllable(c) ? INITIALS[(c - SYLLABLE_FIRST) / (MEDIALS.length * FINALS.length)] : Character.toLowerCase(c);
+        }
+        return new String(result);
+    }
+
+    /** "전기차" → "ㅈㅓㄴㄱㅣㅊㅏ" */
+    public static String decompose(String text) {
+        return decompose(text, null);
+    }
+
+    /**
+     * 자모 분해. sourceIndex 가 null 이 아니면 결과 글자마다 원문 위치를 채운다 (길이는 결과 길이 이상이어야 한다).
+     */
+    static String decompose(String text, int[] sourceIndex) {
+        StringBuilder result = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int start = result.length();
+            if (isSyllable(c)) {
+                int index = c - SYLLABLE_FIRST;
+                result.append(INITIALS[index / (MEDIALS.length * FINALS.length)]);
+                result.append(MEDIALS[(index / FINALS.length) % MEDIALS.length]);
+                char fin = FINALS[index % FINALS.length];
+                if (fin != 0) {
+                    result.append(fin);
+                }
+            } else {
+                result.append(Character.toLowerCase(c));
+            }
+            if (sourceIndex != null) {
+                for (int j = start; j < result.length(); j++) {
+                    sourceIndex[j] = i;
+                }
+            }
+        }
+        return result.toString();
+    }
+
+    /** 공백을 뺀 모든 글자가 자음(ㄱ~ㅎ)이고 두 글자 이상인 초성 검색어인지 */
+    public static boolean isInitialsQuery(String text) {
+        int consonants = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (c < JAMO_FIRST || c > CONSONANT_LAST) {
+                return false;
+            }
+            consonants++;
+        }
+        return consonants >= 2;
+    }
+
+    /** 초성 검색어이거나, 완성되지 않은 자모("전기ㅊ")가 섞인 검색어인지 */
+    public static boolean isJamoQuery(String text) {
+        if (isInitialsQuery(text)) {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= JAMO_FIRST && c <= JAMO_LAST) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSyllable(char c) {
+        return c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST;
+    }
+}
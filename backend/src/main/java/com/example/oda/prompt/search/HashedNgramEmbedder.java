@@ -0,0 +1,89 @@
+package com.example.oda.prompt.search;
+
+/**
+ * 외부 모델 없이 동작하는 문자 n-gram 해시 임베딩.
+ * <p>
+ * 소문자화한 텍스트를 글자/숫자 토큰으로 나누고, 토큰 경계를 표시한 문자 2-gram/3-gram 을 {@code dimension} 차원에
+ * 부호 있는 해시로 더한 뒤 L2 정규화한다. 같은 어근을 공유하는 표현("자전거 도로", "자전거길")은 가까워지지만,
+ * 글자를 공유하지 않는 동의어("대기질", "미세먼지")는 데이터 설명에 함께 쓰인 경우에만 가까워진다.
+ */
+public final class HashedNgramEmbedder {
+
+    private static final int MAX_TEXT_LENGTH = 1_000;
+
+    private final int dimension;
+
+    public HashedNgramEmbedder(int dimension) {
+        this.dimension = dimension;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * 가중치를 준 텍스트들을 하나의 정규화된 벡터로 만든다. null 텍스트는 건너뛴다.
+     */
+    public float[] embed(String[] texts, float[] weights) {
+        float[] vector = new float[dimension];
+        for (int t = 0; t < texts.length; t++) {
+            if (texts[t] != null) {
+                accumulate(vector, texts[t], weights[t]);
+            }
+        }
+        normalize(vector);
+        return vector;
+    }
+
+    public float[] embed(String text) {
+        return embed(new String[]{text}, new float[]{1f});
+    }
+
+    private void accumulate(float[] vector, String text, float weight) {
+        String lower = text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH).toLowerCase() : text.toLowerCase();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (!token.isEmpty()) {
+                addToken(vector, token, weight);
+                token.setLength(0);
+            }
+        }
+    }
+
+    // "<토큰>" 의 2-gram, 3-gram. 한 글자 토큰도 "<x>" 로 특징을 남긴다.
+    private void addToken(float[] vector, CharSequence token, float weight) {
+        String padded = "<" + token + ">";
+        for (int n = 2; n <= 3; n++) {
+            for (int i = 0; i + n <= padded.length(); i++) {
+                int hash = mix(padded.substring(i, i + n).hashCode() * 31 + n);
+                int slot = Math.floorMod(hash, dimension);
+                vector[slot] += (hash & 0x8000_0000) == 0 ? weight : -weight;
+            }
+        }
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EB_CA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2_AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static void normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+}
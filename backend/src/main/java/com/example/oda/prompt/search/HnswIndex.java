@@ -0,0 +1,272 @@
+package com.example.oda.prompt.search;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * 정규화된 벡터의 내적(코사인 유사도)으로 근사 최근접 이웃을 찾는 HNSW 그래프.
+ * <p>
+ * 벡터는 힙 밖의 direct 버퍼 하나에 이어 붙여 저장하므로 GC 가 훑지 않으며, 그래프 링크만 힙의 int 배열로 둔다.
+ * 용량은 생성 시 정해지고, 모든 벡터를 {@link #add} 한 뒤에는 읽기 전용으로 여러 스레드에서 동시에 검색해도 된다.
+ * 노드 번호는 추가한 순서(0부터)이다.
+ */
+final class HnswIndex {
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final FloatBuffer vectors;
+    // links[node][level] = {이웃 수, 이웃...}
+    private final int[][][] links;
+    private final Random random = new Random(42);
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(int dimension, int capacity, int m, int efConstruction) {
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.vectors = ByteBuffer.allocateDirect(capacity * dimension * Float.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        this.links = new int[capacity][][];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** 힙 밖에 잡은 벡터 버퍼 크기 */
+    long offHeapBytes() {
+        return (long) vectors.capacity() * Float.BYTES;
+    }
+
+    /** 그래프 링크가 차지하는 힙 크기 (배열 머리 제외 추정치) */
+    long linkBytes() {
+        long bytes = 0;
+        for (int node = 0; node < size; node++) {
+            for (int[] level : links[node]) {
+                bytes += (long) level.length * Integer.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 정규화된 벡터를 다음 노드 번호로 추가한다.
+     */
+    void add(float[] vector) {
+        int node = size;
+        vectors.put(node * dimension, vector);
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[(l == 0 ? maxM0 : m) + 1];
+        }
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            Candidates nearest = searchLayer(vector, current, efConstruction, l);
+            int[] neighbors = nearest.closest(m);
+            for (int neighbor : neighbors) {
+                connect(node, neighbor, l);
+                connect(neighbor, node, l);
+            }
+            current = neighbors[0];
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    /**
+     * 유사도가 높은 순으로 최대 k 개의 노드 번호. {@code similarities} 가 null 이 아니면 같은 순서로 유사도를 채운다.
+     */
+    int[] search(float[] query, int k, int ef, float[] similarities) {
+        if (entryPoint < 0) {
+            return new int[0];
+        }
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedyClosest(query, current, l);
+        }
+        Candidates nearest = searchLayer(query, current, Math.max(ef, k), 0);
+        int[] top = nearest.closest(k);
+        if (similarities != null) {
+            for (int i = 0; i < top.length; i++) {
+                similarities[i] = similarity(query, top[i]);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * 모든 노드와 비교하는 전수 검색. 근사 검색의 재현율을 재는 기준으로 쓴다.
+     */
+    int[] bruteForce(float[] query, int k) {
+        PriorityQueue<Scored> worst = new PriorityQueue<>(Scored.ASCENDING);
+        for (int node = 0; node < size; node++) {
+            float s = similarity(query, node);
+            if (worst.size() < k) {
+                worst.add(new Scored(node, s));
+            } else if (s > worst.peek().similarity) {
+                worst.poll();
+                worst.add(new Scored(node, s));
+            }
+        }
+        int[] top = new int[worst.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = worst.poll().node;
+        }
+        return top;
+    }
+
+    float similarity(float[] query, int node) {
+        int base = node * dimension;
+        float dot = 0;
+        for (int i = 0; i < dimension; i++) {
+            dot += query[i] * vectors.get(base + i);
+        }
+        return dot;
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbors = links[current][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                float s = similarity(query, neighbors[i]);
+                if (s > best) {
+                    best = s;
+                    current = neighbors[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Candidates searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Scored> frontier = new PriorityQueue<>(Scored.DESCENDING);
+        Candidates results = new Candidates(ef);
+        Scored first = new Scored(start, similarity(query, start));
+        visited.set(start);
+        frontier.add(first);
+        results.offer(first);
+        while (!frontier.isEmpty()) {
+            Scored closest = frontier.poll();
+            if (results.isFull() && closest.similarity < results.worstSimilarity()) {
+                break;
+            }
+            int[] neighbors = links[closest.node][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int neighbor = neighbors[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                Scored scored = new Scored(neighbor, similarity(query, neighbor));
+                if (results.offer(scored)) {
+                    frontier.add(scored);
+                }
+            }
+        }
+        return results;
+    }
+
+    // 이웃 목록이 가득 차면 자신과 가장 가까운 이웃만 남긴다.
+    private void connect(int from, int to, int level) {
+        int[] neighbors = links[from][level];
+        int count = neighbors[0];
+        if (count < neighbors.length - 1) {
+            neighbors[++count] = to;
+            neighbors[0] = count;
+            return;
+        }
+        float[] fromVector = new float[dimension];
+        vectors.get(from * dimension, fromVector);
+        Candidates keep = new Candidates(count);
+        keep.offer(new Scored(to, similarity(fromVector, to)));
+        for (int i = 1; i <= count; i++) {
+            keep.offer(new Scored(neighbors[i], similarity(fromVector, neighbors[i])));
+        }
+        int[] kept = keep.closest(count);
+        System.arraycopy(kept, 0, neighbors, 1, kept.length);
+        neighbors[0] = kept.length;
+    }
+
+    private record Scored(int node, float similarity) {
+        static final Comparator<Scored> ASCENDING = (a, b) -> Float.compare(a.similarity, b.similarity);
+        static final Comparator<Scored> DESCENDING = ASCENDING.reversed();
+    }
+
+    /**
+     * 유사도 상위 capacity 개만 유지하는 모음 (가장 낮은 것이 머리).
+     */
+    private static final class Candidates {
+        private final int capacity;
+        private final PriorityQueue<Scored> worst = new PriorityQueue<>(Scored.ASCENDING);
+
+        Candidates(int capacity) {
+            this.capacity = capacity;
+        }
+
+        boolean isFull() {
+            return worst.size() >= capacity;
+        }
+
+        float worstSimilarity() {
+            return worst.peek().similarity;
+        }
+
+        /** 들어갔으면 true */
+        boolean offer(Scored scored) {
+            if (worst.size() < capacity) {
+                worst.add(scored);
+                return true;
+            }
+            if (scored.similarity > worst.peek().similarity) {
+                worst.poll();
+                worst.add(scored);
+                return true;
+            }
+            return false;
+        }
+
+        /** 유사도가 높은 순으로 최대 k 개 */
+        int[] closest(int k) {
+            Scored[] sorted = worst.toArray(new Scored[0]);
+            Arrays.sort(sorted, Scored.DESCENDING);
+            int[] nodes = new int[Math.min(k, sorted.length)];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = sorted[i].node;
+            }
+            return nodes;
+        }
+    }
+}
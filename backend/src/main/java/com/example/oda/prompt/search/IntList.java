@@ -0,0 +1,46 @@
+package com.example.oda.prompt.search;
+
+import java.util.Arrays;
+
+/**
+ * 박싱 없는 가변 int 배열. 색인 빌드 시 posting 목록을 모으는 용도로만 쓴다.
+ */
+final class IntList {
+
+    private int[] values;
+    private int size;
+
+    IntList() {
+        this(4);
+    }
+
+    IntList(int initialCapacity) {
+        this.values = new int[Math.max(1, initialCapacity)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = value;
+    }
+
+    /** 마지막 값과 같으면 추가하지 않는다. 문서 id 순서로 채울 때 문서 내 중복 제거에 쓴다. */
+    void addIfLastDiffers(int value) {
+        if (size == 0 || values[size - 1] != value) {
+            add(value);
+        }
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.repository.PublicDataMatch;
+import com.example.oda.repository.SearchField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 파일데이터명·제목·키워드의 초성 형태("ㅈㄱㅊ")와 자모 분해 형태("ㅈㅓㄴㄱㅣㅊㅏ")를 미리 만들어 둔 부분 문자열 색인.
+ * <p>
+ * 초성만 입력한 검색어나 마지막 음절을 입력하는 중인 검색어("전기ㅊ")처럼 원문 LIKE 로는 찾을 수 없는 입력을 처리한다.
+ * {@link CatalogChangedEvent} 를 받으면 현재 카탈로그 사본으로 다시 만들어 통째로 교체한다.
+ */
+@Component
+public class JamoSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(JamoSearchIndex.class);
+    private static final SearchField[] FIELDS = {SearchField.FILE_DATA_NAME, SearchField.TITLE, SearchField.KEYWORDS};
+    // 검색어를 원문 표현으로 바꿀 때 살펴볼 최대 행 수
+    private static final int EXPANSION_SAMPLE_ROWS = 500;
+
+    private final PublicDataSearchIndex searchIndex;
+
+    private volatile Snapshot snapshot;
+
+    public JamoSearchIndex(PublicDataSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            CatalogSnapshot catalog = searchIndex.catalog();
+            if (catalog == null) {
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            Map<SearchField, SubstringIndex> initials = new EnumMap<>(SearchField.class);
+            Map<SearchField, SubstringIndex> decomposed = new EnumMap<>(SearchField.class);
+            for (SearchField field : FIELDS) {
+                String[] initialValues = new String[catalog.size()];
+                String[] decomposedValues = new String[catalog.size()];
+                for (int row = 0; row < catalog.size(); row++) {
+                    String value = catalog.value(field, row);
+                    if (value != null) {
+                        initialValues[row] = HangulJamo.initials(value);
+                        decomposedValues[row] = HangulJamo.decompose(value);
+                    }
+                }
+                initials.put(field, SubstringIndex.build(initialValues));
+                decomposed.put(field, SubstringIndex.build(decomposedValues));
+            }
+            this.snapshot = new Snapshot(catalog, initials, decomposed);
+            log.info("초성/자모 색인 구축 완료: {}건 ({}ms 소요)", catalog.size(), System.currentTimeMillis() - startTime);
+        } catch (RuntimeException e) {
+            log.warn("초성/자모 색인 갱신 실패, 이전 색인을 계속 씁니다: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 자모 검색어({@link HangulJamo#isJamoQuery})만 골라 일치한 (키워드, 컬럼) 쌍을 표시한 결과. 비트 위치는
+     * {@link PublicDataMatch} 와 같이 키워드 목록에서의 위치를 따르며, 다른 키워드의 비트는 비어 있다. 결과는 카탈로그 순서이다.
+     */
+    public List<PublicDataMatch> findByAnyKeyword(List<String> keywords) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return List.of();
+        }
+        Map<Integer, BitSet> matched = new TreeMap<>();
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            if (!HangulJamo.isJamoQuery(keyword)) {
+                continue;
+            }
+            for (SearchField field : FIELDS) {
+                int bit = PublicDataMatch.bitOf(k, field);
+                for (int row : current.find(keyword, field)) {
+                    matched.computeIfAbsent(row, id -> new BitSet()).set(bit);
+                }
+            }
+        }
+        List<PublicDataMatch> results = new ArrayList<>(matched.size());
+        matched.forEach((row, bits) -> results.add(new PublicDataMatch(current.catalog.row(row), bits)));
+        return results;
+    }
+
+    /**
+     * 자모 검색어를 실제 데이터에 가장 많이 쓰인 원문 표현으로 바꾼다 ("ㅈㄱㅊ" → "전기차", "전기ㅊ" → "전기차").
+     * 관련도 계산처럼 원문과 비교하는 단계에 쓴다. 자모 검색어가 아니거나 일치하는 데이터가 없으면 그대로 돌려준다.
+     */
+    public String expand(String keyword) {
+        Snapshot current = snapshot;
+        if (current == null || !HangulJamo.isJamoQuery(keyword)) {
+            return keyword;
+        }
+        boolean initialsQuery = HangulJamo.isInitialsQuery(keyword);
+        String query = initialsQuery ? keyword.toLowerCase() : HangulJamo.decompose(keyword);
+        Map<String, Integer> counts = new HashMap<>();
+        int sampled = 0;
+        for (SearchField field : FIELDS) {
+            for (int row : current.find(keyword, field)) {
+                if (sampled >= EXPANSION_SAMPLE_ROWS) {
+                    break;
+                }
+                sampled++;
+                String value = current.catalog.value(field, row);
+                String surface = initialsQuery ? initialsSurface(value, query) : decomposedSurface(value, query);
+                if (surface != null) {
+                    counts.merge(surface, 1, Integer::sum);
+                }
+            }
+        }
+        // 가장 많이 쓰인 표현, 같으면 사전순으로 앞선 표현
+        String best = keyword;
+        int bestCount = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > bestCount || (entry.getValue() == bestCount && entry.getKey().compareTo(best) < 0)) {
+                best = entry.getKey();
+                bestCount = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    // 초성 형태는 원문과 위치가 같으므로 같은 구간을 잘라낸다.
+    private static String initialsSurface(String value, String query) {
+        int start = HangulJamo.initials(value).indexOf(query);
+        return start >= 0 ? value.substring(start, start + query.length()) : null;
+    }
+
+    // 분해 형태에서 찾은 구간을 원문 음절 구간으로 되돌린다. 마지막 음절은 통째로 포함한다.
+    private static String decomposedSurface(String value, String query) {
+        int[] sourceIndex = new int[value.length() * 3];
+        int start = HangulJamo.decompose(value, sourceIndex).indexOf(query);
+        if (start < 0) {
+            return null;
+        }
+        return value.substring(sourceIndex[start], sourceIndex[start + query.length() - 1] + 1);
+    }
+
+    private record Snapshot(CatalogSnapshot catalog, Map<SearchField, SubstringIndex> initials,
+                            Map<SearchField, SubstringIndex> decomposed) {
+
+        int[] find(String keyword, SearchField field) {
+            return HangulJamo.isInitialsQuery(keyword)
+                    ? initials.get(field).findContaining(keyword.toLowerCase())
+                    : decomposed.get(field).findContaining(HangulJamo.decompose(keyword));
+        }
+    }
+}
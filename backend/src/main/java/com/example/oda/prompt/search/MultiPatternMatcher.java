@@ -0,0 +1,188 @@
+package com.example.oda.prompt.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick 다중 패턴 매처. 패턴 목록으로 한 번 컴파일해 두고, 텍스트를 한 번 훑어 패턴별 등장 횟수를 센다.
+ * <p>
+ * 횟수는 패턴마다 왼쪽부터 겹치지 않게 센 값으로, {@code (text.length() - text.replace(p, "").length()) / p.length()}
+ * 와 같다. 패턴과 텍스트의 대소문자 정규화는 호출하는 쪽에서 맞춘다.
+ */
+public final class MultiPatternMatcher {
+
+    private final int[] patternLengths;
+    // 노드별 자식: 정렬된 문자와 같은 위치의 자식 노드
+    private final char[][] childChars;
+    private final int[][] childNodes;
+    private final int[] fail;
+    // 이 노드에서 끝나는 패턴들과, 실패 링크를 따라가다 처음 만나는 출력 노드
+    private final int[][] outputs;
+    private final int[] outputLink;
+
+    private MultiPatternMatcher(int[] patternLengths, char[][] childChars, int[][] childNodes,
+                                int[] fail, int[][] outputs, int[] outputLink) {
+        this.patternLengths = patternLengths;
+        this.childChars = childChars;
+        this.childNodes = childNodes;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.outputLink = outputLink;
+    }
+
+    public static MultiPatternMatcher compile(List<String> patterns) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+
+        int[] patternLengths = new int[patterns.size()];
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            patternLengths[p] = pattern.length();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                    trie.get(node).put(pattern.charAt(i), next);
+                }
+                node = next;
+            }
+            ends.get(node).add(p);
+        }
+
+        int nodeCount = trie.size();
+        char[][] childChars = new char[nodeCount][];
+        int[][] childNodes = new int[nodeCount][];
+        int[][] outputs = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            Map<Character, Integer> children = trie.get(node);
+            childChars[node] = new char[children.size()];
+            childNodes[node] = new int[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> child : children.entrySet()) {
+                childChars[node][i] = child.getKey();
+                childNodes[node][i++] = child.getValue();
+            }
+            outputs[node] = ends.get(node).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // 너비 우선으로 실패 링크와 출력 링크를 채운다.
+        int[] fail = new int[nodeCount];
+        int[] outputLink = new int[nodeCount];
+        Arrays.fill(outputLink, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : childNodes[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < childChars[node].length; i++) {
+                char c = childChars[node][i];
+                int child = childNodes[node][i];
+                int f = fail[node];
+                while (f != 0 && findChild(childChars, childNodes, f, c) < 0) {
+                    f = fail[f];
+                }
+                int target = findChild(childChars, childNodes, f, c);
+                fail[child] = target >= 0 && target != child ? target : 0;
+                outputLink[child] = outputs[fail[child]].length > 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+        return new MultiPatternMatcher(patternLengths, childChars, childNodes, fail, outputs, outputLink);
+    }
+
+    public int patternCount() {
+        return patternLengths.length;
+    }
+
+    public Hits newHits() {
+        return new Hits(patternLengths);
+    }
+
+    /**
+     * {@code text} 를 한 번 훑어 {@code hits} 를 채운다. 이전 내용은 지워진다. null 은 빈 문자열로 본다.
+     */
+    public void scan(String text, Hits hits) {
+        hits.reset();
+        if (text == null) {
+            return;
+        }
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = findChild(childChars, childNodes, node, c);
+            while (next < 0 && node != 0) {
+                node = fail[node];
+                next = findChild(childChars, childNodes, node, c);
+            }
+            node = next < 0 ? 0 : next;
+
+            for (int out = outputs[node].length > 0 ? node : outputLink[node]; out >= 0; out = outputLink[out]) {
+                for (int p : outputs[out]) {
+                    hits.record(p, i + 1 - patternLengths[p], i + 1);
+                }
+            }
+        }
+    }
+
+    private static int findChild(char[][] childChars, int[][] childNodes, int node, char c) {
+        int slot = Arrays.binarySearch(childChars[node], c);
+        return slot >= 0 ? childNodes[node][slot] : -1;
+    }
+
+    /**
+     * 한 번의 스캔 결과. 문서마다 새로 만들지 않고 재사용한다.
+     */
+    public static final class Hits {
+        private final int[] patternLengths;
+        private final int[] counts;
+        private final int[] nextFree;
+
+        private Hits(int[] patternLengths) {
+            this.patternLengths = patternLengths;
+            this.counts = new int[patternLengths.length];
+            this.nextFree = new int[patternLengths.length];
+        }
+
+        /** 겹치지 않게 센 등장 횟수 */
+        public int count(int pattern) {
+            return counts[pattern];
+        }
+
+        /** {@link String#contains} 와 같다 (빈 패턴은 항상 true). */
+        public boolean contains(int pattern) {
+            return counts[pattern] > 0 || patternLengths[pattern] == 0;
+        }
+
+        private void record(int pattern, int start, int end) {
+            if (start >= nextFree[pattern]) {
+                counts[pattern]++;
+                nextFree[pattern] = end;
+            }
+        }
+
+        private void reset() {
+            Arrays.fill(counts, 0);
+            Arrays.fill(nextFree, 0);
+        }
+
+        /** 미리 계산된 등장 횟수(예: DB 에서 센 설명 요약)로 채운다. 순서는 패턴 순서와 같아야 한다. */
+        void assign(int[] patternCounts) {
+            reset();
+            System.arraycopy(patternCounts, 0, counts, 0, counts.length);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.repository.SearchFilter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 쿼리 플랜을 DB/색인에 먼저 적용할 {@link SearchFilter} 로 바꾼다.
+ * <p>
+ * 먼저 적용하면 걸러진 데이터는 순위 계산에 다시 들어올 수 없으므로, 확실한 조건만 조건으로 쓴다.
+ * 제공기관은 사전의 지역 단위 접두어로만 좁히고("인천광역시서구" → "인천"), 기관명 자체와 대분류는
+ * {@link #preferred} 로 순위 가산에만 쓴다.
+ */
+public final class PlanFilters {
+
+    // 쿼리 플랜에서 "조건 없음" 을 뜻하는 값
+    private static final String UNKNOWN_AGENCY = "기타기관";
+    private static final String UNKNOWN_CATEGORY = "기타";
+
+    /**
+     * 쿼리 플랜의 제공기관 지역·검색 연도·날짜 표현을 조건으로 바꾼다.
+     * 검색 연도는 그해 1월 1일 이후 수정, 날짜 표현("최근" 등)은 recentMonths 개월 이내 수정으로 보며,
+     * 둘 다 있으면 더 넓은 쪽(이른 시각)을 쓴다.
+     */
+    public static SearchFilter of(QueryPlanDto plan, SearchDictionary dictionary, int recentMonths, LocalDate today) {
+        LocalDateTime since = null;
+        if (plan.getSearchYear() != null) {
+            since = LocalDate.of(plan.getSearchYear(), 1, 1).atStartOfDay();
+        }
+        if (plan.isHasDateFilter()) {
+            LocalDateTime recent = today.minusMonths(recentMonths).atStartOfDay();
+            since = since == null || recent.isBefore(since) ? recent : since;
+        }
+        return new SearchFilter(regionPrefixes(agencyOf(plan), dictionary.agencies()), null, since);
+    }
+
+    /**
+     * 조건으로 쓰지 않은 플랜의 제공기관(접두어)과 대분류(분류체계 부분 문자열). 일치하는 후보는 순위에서 가산한다.
+     */
+    public static SearchFilter preferred(QueryPlanDto plan) {
+        String agency = agencyOf(plan);
+        String category = plan.getMajorCategory();
+        return new SearchFilter(
+                agency == null ? null : List.of(agency),
+                category == null || category.isBlank() || UNKNOWN_CATEGORY.equals(category) ? null : category,
+                null);
+    }
+
+    /**
+     * 제공기관이 사전의 지역(키) 또는 그 기관명(값)으로 시작하면 그 지역의 모든 기관을 포함하는 접두어들.
+     * 지역 이름으로 시작하는 기관명이면 지역 이름 하나("서울" → "서울특별시", "서울교통공사"),
+     * 아니면 둘 다("충북", "충청북도") 이다. 지역을 알 수 없으면 null (조건 없음).
+     */
+    static List<String> regionPrefixes(String agency, Map<String, String> agencies) {
+        if (agency == null) {
+            return null;
+        }
+        String compact = agency.replaceAll("\\s+", "");
+        for (Map.Entry<String, String> entry : agencies.entrySet()) {
+            String region = entry.getKey();
+            String official = entry.getValue();
+            if (compact.startsWith(region) || compact.startsWith(official)) {
+                return official.startsWith(region) ? List.of(region) : List.of(region, official);
+            }
+        }
+        return null;
+    }
+
+    private static String agencyOf(QueryPlanDto plan) {
+        String agency = plan.getProviderAgency();
+        return agency == null || agency.isBlank() || UNKNOWN_AGENCY.equals(agency) ? null : agency.trim();
+    }
+
+    private PlanFilters() {
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.repository.SearchField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 접두어 자동완성용 정렬 키 사전.
+ * <p>
+ * 정규화한 키(소문자, 공백 제거)를 정렬해 한 char 배열에 이어 붙이고, 접두어에 해당하는 키 구간은 이분 탐색으로,
+ * 구간 안의 가중치 상위 항목은 가중치 최댓값 세그먼트 트리로 찾는다. 따라서 질의 비용은 키 개수와 거의 무관하게
+ * O(|접두어|·log n + k·log n) 이다. 한 행이 여러 키(파일데이터명, 제목)를 가질 수 있으며 결과에서는 행당 한 번만 나온다.
+ */
+final class PrefixSuggester {
+
+    private final char[] arena;
+    private final int[] offsets;
+    private final int[] rows;
+    private final SearchField[] fields;
+    private final int[] weights;
+    private final int leafStart;
+    // 구간 안에서 가중치가 가장 큰 키 번호 (같으면 앞선 키)
+    private final int[] tree;
+
+    private PrefixSuggester(char[] arena, int[] offsets, int[] rows, SearchField[] fields, int[] weights) {
+        this.arena = arena;
+        this.offsets = offsets;
+        this.rows = rows;
+        this.fields = fields;
+        this.weights = weights;
+        int n = rows.length;
+        int leaves = 1;
+        while (leaves < n) {
+            leaves <<= 1;
+        }
+        this.leafStart = leaves;
+        this.tree = new int[leaves * 2];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < n; i++) {
+            tree[leaves + i] = i;
+        }
+        for (int node = leaves - 1; node >= 1; node--) {
+            tree[node] = better(tree[node * 2], tree[node * 2 + 1]);
+        }
+    }
+
+    /**
+     * @param keys    키 원문 (null 이거나 정규화 후 비면 건너뛴다)
+     * @param rows    키마다 가리키는 카탈로그 행 번호
+     * @param fields  키마다 어느 필드의 값인지
+     * @param weights 키마다 순위 가중치 (클수록 먼저)
+     */
+    static PrefixSuggester build(String[] keys, int[] rows, SearchField[] fields, int[] weights) {
+        List<String> normalized = new ArrayList<>(keys.length);
+        List<Integer> order = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i] != null ? normalize(keys[i]) : "";
+            normalized.add(key);
+            if (!key.isEmpty()) {
+                order.add(i);
+            }
+        }
+        order.sort(Comparator.comparing(normalized::get));
+
+        int n = order.size();
+        int totalChars = 0;
+        for (int i : order) {
+            totalChars += normalized.get(i).length();
+        }
+        char[] arena = new char[totalChars];
+        int[] offsets = new int[n + 1];
+        int[] sortedRows = new int[n];
+        SearchField[] sortedFields = new SearchField[n];
+        int[] sortedWeights = new int[n];
+        for (int k = 0; k < n; k++) {
+            int i = order.get(k);
+            String key = normalized.get(i);
+            key.getChars(0, key.length(), arena, offsets[k]);
+            offsets[k + 1] = offsets[k] + key.length();
+            sortedRows[k] = rows[i];
+            sortedFields[k] = fields[i];
+            sortedWeights[k] = weights[i];
+        }
+        return new PrefixSuggester(arena, offsets, sortedRows, sortedFields, sortedWeights);
+    }
+
+    /** 키와 질의를 같은 방식으로 맞춘다: 소문자, 공백 제거 */
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    int keyCount() {
+        return rows.length;
+    }
+
+    /** 키 문자열, 항목 배열, 세그먼트 트리의 대략적인 바이트 수 */
+    long memoryBytes() {
+        return 2L * arena.length + 4L * (offsets.length + rows.length + weights.length + tree.length)
+                + 8L * fields.length;
+    }
+
+    /**
+     * 정규화한 접두어로 시작하는 키의 행을 가중치 순으로 최대 limit 개. 접두어가 비면 빈 목록.
+     */
+    List<Match> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int from = lowerBound(normalized, false);
+        int to = lowerBound(normalized, true);
+        List<Match> matches = new ArrayList<>(limit);
+        if (from >= to) {
+            return matches;
+        }
+        BitSet seenRows = new BitSet();
+        // 남은 구간을 구간 최댓값 순으로 꺼내고, 꺼낸 위치를 기준으로 둘로 나눈다.
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compare(a[2], b[2]));
+        ranges.add(new int[]{from, to, query(from, to)});
+        while (!ranges.isEmpty() && matches.size() < limit) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            if (!seenRows.get(rows[best])) {
+                seenRows.set(rows[best]);
+                matches.add(new Match(rows[best], fields[best], weights[best]));
+            }
+            if (range[0] < best) {
+                ranges.add(new int[]{range[0], best, query(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[]{best + 1, range[1], query(best + 1, range[1])});
+            }
+        }
+        return matches;
+    }
+
+    // 정렬된 키에서 prefix 이상인 첫 위치. afterPrefix 이면 prefix 로 시작하는 키들 다음 위치.
+    private int lowerBound(String prefix, boolean afterPrefix) {
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, prefix);
+            if (cmp < 0 || (afterPrefix && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // 키의 앞 |prefix| 글자와 prefix 비교 (키가 prefix 로 시작하면 0)
+    private int compareKey(int key, String prefix) {
+        int start = offsets[key];
+        int length = offsets[key + 1] - start;
+        int common = Math.min(length, prefix.length());
+        for (int i = 0; i < common; i++) {
+            char a = arena[start + i];
+            char b = prefix.charAt(i);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return length >= prefix.length() ? 0 : -1;
+    }
+
+    // [from, to) 구간의 최선 키 번호
+    private int query(int from, int to) {
+        int best = -1;
+        for (int low = from + leafStart, high = to + leafStart; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                best = better(best, tree[low++]);
+            }
+            if ((high & 1) == 1) {
+                best = better(best, tree[--high]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) return b;
+        if (b < 0) return a;
+        return compare(a, b) <= 0 ? a : b;
+    }
+
+    // 가중치가 큰 쪽이 앞, 같으면 정렬 순서(짧고 사전순으로 앞선 키)가 앞
+    private int compare(int a, int b) {
+        int byWeight = Integer.compare(weights[b], weights[a]);
+        return byWeight != 0 ? byWeight : Integer.compare(a, b);
+    }
+
+    record Match(int row, SearchField field, int weight) {
+    }
+}
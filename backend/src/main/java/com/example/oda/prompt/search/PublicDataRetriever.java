@@ -0,0 +1,303 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.PostgresSearchSchema;
+import com.example.oda.repository.PublicDataMatch;
+import com.example.oda.repository.PublicDataRepository;
+import com.example.oda.repository.SearchField;
+import com.example.oda.repository.SearchFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 키워드 후보 조회 경로를 고른다. 메모리 색인이 준비되어 있으면 색인을, 아니면 설정된 DB 검색 방식을 쓴다.
+ * <p>
+ * DB 경로는 기본적으로 모든 키워드를 한 문장으로 조회한다. search.retrieval.parallel=true 이면 키워드별 조회를
+ * 가상 스레드에서 동시에 실행하되, 동시 조회 수를 커넥션 풀 크기에서 예약분을 뺀 값으로 제한해
+ * 채팅 메시지 저장 등 다른 작업이 커넥션을 얻지 못하는 일이 없게 한다.
+ * <p>
+ * search.retrieval.projection=true 이면 DB 경로는 설명(TEXT) 본문 대신 순위 계산용 컬럼과 설명 요약만 읽고,
+ * 최종 상위 결과만 {@link #loadFull} 로 엔티티 전체를 다시 읽는다.
+ * <p>
+ * {@link SearchFilter} 조건은 텍스트 일치보다 먼저 적용한다. 색인 경로는 행 비트셋으로, DB 경로는 WHERE 절로 거른다.
+ */
+@Component
+public class PublicDataRetriever {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicDataRetriever.class);
+
+    private static final SearchField[] NAME_FIELDS = {SearchField.PROVIDER_AGENCY, SearchField.FILE_DATA_NAME};
+
+    private final PublicDataSearchIndex searchIndex;
+    private final PublicDataRepository publicDataRepository;
+    private final PostgresSearchSchema postgresSearchSchema;
+    private final SearchBackend configuredBackend;
+    private final boolean parallel;
+    private final boolean projection;
+    private final int maxConcurrentQueries;
+    private final Semaphore connectionPermits;
+    private final FilterPushdownStats pushdownStats;
+
+    public PublicDataRetriever(PublicDataSearchIndex searchIndex,
+                               PublicDataRepository publicDataRepository,
+                               PostgresSearchSchema postgresSearchSchema,
+                               FilterPushdownStats pushdownStats,
+                               @Value("${search.backend:auto}") String backend,
+                               @Value("${search.retrieval.parallel:false}") boolean parallel,
+                               @Value("${search.retrieval.projection:true}") boolean projection,
+                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+                               @Value("${search.retrieval.reserved-connections:1}") int reservedConnections) {
+        this.searchIndex = searchIndex;
+        this.publicDataRepository = publicDataRepository;
+        this.postgresSearchSchema = postgresSearchSchema;
+        this.pushdownStats = pushdownStats;
+        this.configuredBackend = SearchBackend.valueOf(backend.trim().toUpperCase().replace('-', '_'));
+        this.parallel = parallel;
+        this.projection = projection;
+        this.maxConcurrentQueries = Math.max(1, maximumPoolSize - reservedConnections);
+        this.connectionPermits = new Semaphore(maxConcurrentQueries);
+    }
+
+    public List<PublicDataMatch> findByAnyKeyword(List<String> keywords) {
+        return findByAnyKeyword(keywords, null);
+    }
+
+    /**
+     * @param digestTerms 요약 조회 시 설명에서 등장 횟수를 셀 소문자 용어들 (null 이면 엔티티 전체 조회).
+     *                    search.retrieval.projection=false 이면 무시된다.
+     */
+    public List<PublicDataMatch> findByAnyKeyword(List<String> keywords, List<String> digestTerms) {
+        return findByAnyKeyword(keywords, digestTerms, SearchFilter.NONE);
+    }
+
+    /**
+     * filter 를 만족하는 데이터 중에서만 키워드 일치를 찾는다.
+     */
+    public List<PublicDataMatch> findByAnyKeyword(List<String> keywords, List<String> digestTerms, SearchFilter filter) {
+        SearchTrace trace = SearchTrace.current();
+        long startTime = System.nanoTime();
+        List<String> summaryTerms = projection ? digestTerms : null;
+        if (searchIndex.isReady()) {
+            PublicDataSearchIndex.FilteredMatches result = searchIndex.findByAnyKeyword(keywords, summaryTerms, filter);
+            pushdownStats.recordIndex(filter, result.unfilteredCount(), result.matches().size());
+            if (trace != null) {
+                trace.record("retrieval:index", startTime, result.matches().size());
+            }
+            if (!filter.isEmpty()) {
+                log.info("  - 조건 {} 적용: 후보 {}건 → {}건", filter, result.unfilteredCount(), result.matches().size());
+            }
+            return result.matches();
+        }
+        SearchBackend backend = resolveBackend();
+        log.debug("DB 검색 방식: {} (설정: {}, 병렬: {}, 요약 조회: {})", backend, configuredBackend, parallel, summaryTerms != null);
+        boolean inParallel = parallel && keywords.size() > 1;
+        List<PublicDataMatch> matches = inParallel
+                ? findInParallel(backend, keywords, summaryTerms, filter)
+                : query(backend, keywords, summaryTerms, filter);
+        pushdownStats.recordDatabase(filter, matches.size());
+        if (trace != null && !inParallel) {
+            trace.record("retrieval:" + backend.name().toLowerCase(), startTime, matches.size());
+        }
+        return matches;
+    }
+
+    /**
+     * 파일데이터명·제공기관 컬럼에서만 키워드를 찾는 빠른 조회 (스트리밍 검색의 첫 배치용). 설명 본문은 만들지 않는다.
+     * 메모리 색인이 준비되지 않았으면 null. DB 경로에서는 전체 조회와 비용이 같아 따로 두지 않는다.
+     */
+    public List<PublicData> findByNameOrAgency(List<String> keywords, SearchFilter filter) {
+        if (!searchIndex.isReady()) {
+            return null;
+        }
+        long startTime = System.nanoTime();
+        List<PublicData> results = searchIndex.findByAnyKeyword(keywords, NAME_FIELDS, List.of(), filter).matches().stream()
+                .map(PublicDataMatch::data)
+                .toList();
+        SearchTrace trace = SearchTrace.current();
+        if (trace != null) {
+            trace.record("retrieval:names", startTime, results.size());
+        }
+        return results;
+    }
+
+    /**
+     * 파일데이터명이 정확히 같은 데이터. 메모리 색인이 준비되어 있으면 DB 를 거치지 않는다.
+     */
+    public Optional<PublicData> findByFileDataName(String fileDataName) {
+        if (searchIndex.isReady()) {
+            return searchIndex.findByFileDataName(fileDataName);
+        }
+        return publicDataRepository.findByFileDataName(fileDataName);
+    }
+
+    /**
+     * 요약 조회로 읽은 항목(설명 요약만 있는 항목)을 엔티티 전체로 바꾼다. 순서는 그대로이다.
+     * 메모리 색인에 있는 제목은 사본에서 만들고, 없는 제목만 DB 에서 읽는다.
+     */
+    public List<PublicData> loadFull(List<PublicData> results) {
+        List<String> summaryTitles = results.stream()
+                .filter(data -> data.getDescriptionDigest() != null)
+                .map(PublicData::getTitle)
+                .toList();
+        if (summaryTitles.isEmpty()) {
+            return results;
+        }
+        long startTime = System.nanoTime();
+        Map<String, PublicData> full = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String title : summaryTitles) {
+            Optional<PublicData> row = searchIndex.findByTitle(title);
+            if (row.isPresent()) {
+                full.put(title, row.get());
+            } else {
+                missing.add(title);
+            }
+        }
+        if (!missing.isEmpty()) {
+            publicDataRepository.findAllById(missing).forEach(data -> full.put(data.getTitle(), data));
+        }
+        SearchTrace trace = SearchTrace.current();
+        if (trace != null) {
+            trace.record("loadFull", startTime, full.size());
+        }
+        return results.stream()
+                .map(data -> data.getDescriptionDigest() != null ? full.getOrDefault(data.getTitle(), data) : data)
+                .toList();
+    }
+
+    private List<PublicDataMatch> query(SearchBackend backend, List<String> keywords, List<String> digestTerms,
+                                        SearchFilter filter) {
+        if (!filter.isEmpty()) {
+            return switch (backend) {
+                case TRIGRAM -> publicDataRepository.findFilteredByAnyKeywordTrigram(keywords, postgresSearchSchema.effectiveSimilarityThreshold(), digestTerms, filter);
+                case FULL_TEXT -> publicDataRepository.findFilteredByAnyKeywordFullText(keywords, digestTerms, filter);
+                default -> publicDataRepository.findFilteredByAnyKeyword(keywords, digestTerms, filter);
+            };
+        }
+        if (digestTerms != null) {
+            return switch (backend) {
+                case TRIGRAM -> publicDataRepository.findSummariesByAnyKeywordTrigram(keywords, postgresSearchSchema.effectiveSimilarityThreshold(), digestTerms);
+                case FULL_TEXT -> publicDataRepository.findSummariesByAnyKeywordFullText(keywords, digestTerms);
+                default -> publicDataRepository.findSummariesByAnyKeyword(keywords, digestTerms);
+            };
+        }
+        return switch (backend) {
+            case TRIGRAM -> publicDataRepository.findByAnyKeywordTrigram(keywords, postgresSearchSchema.effectiveSimilarityThreshold());
+            case FULL_TEXT -> publicDataRepository.findByAnyKeywordFullText(keywords);
+            default -> publicDataRepository.findByAnyKeyword(keywords);
+        };
+    }
+
+    // 키워드별 조회를 가상 스레드로 동시에 실행하고, 결과를 제목(PK) 기준으로 합친다.
+    // 합친 뒤의 순서는 (키워드 순서, 키워드 내 순서)로 처음 나타난 위치를 따르므로 순차 실행과 같다.
+    private List<PublicDataMatch> findInParallel(SearchBackend backend, List<String> keywords, List<String> digestTerms,
+                                                 SearchFilter filter) {
+        long startTime = System.nanoTime();
+        ConcurrentMap<String, MergedMatch> merged = new ConcurrentHashMap<>();
+        List<Future<RetrievalTiming>> futures = new ArrayList<>(keywords.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int k = 0; k < keywords.size(); k++) {
+                final int keywordIndex = k;
+                futures.add(executor.submit(() -> {
+                    String keyword = keywords.get(keywordIndex);
+                    connectionPermits.acquire();
+                    long queryStart = System.nanoTime();
+                    List<PublicDataMatch> rows;
+                    try {
+                        rows = query(backend, List.of(keyword), digestTerms, filter);
+                    } finally {
+                        connectionPermits.release();
+                    }
+                    long queryNanos = System.nanoTime() - queryStart;
+                    for (int position = 0; position < rows.size(); position++) {
+                        PublicDataMatch row = rows.get(position);
+                        long order = ((long) keywordIndex << 32) | position;
+                        merged.merge(row.data().getTitle(),
+                                new MergedMatch(row.data(), shift(row.matchedColumns(), keywordIndex), order),
+                                MergedMatch::combine);
+                    }
+                    return new RetrievalTiming(keyword, rows.size(), queryNanos / 1_000_000);
+                }));
+            }
+        }
+
+        SearchTrace trace = SearchTrace.current();
+        long sumMillis = 0;
+        for (int k = 0; k < futures.size(); k++) {
+            try {
+                RetrievalTiming timing = futures.get(k).get();
+                sumMillis += timing.millis();
+                if (trace != null) {
+                    trace.recordMillis("retrieval:" + backend.name().toLowerCase() + " '" + timing.keyword() + "'",
+                            timing.millis(), timing.rows());
+                }
+                log.info("  - 병렬 조회 '{}': {}건, {}ms", timing.keyword(), timing.rows(), timing.millis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("병렬 검색이 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                log.error("키워드 '{}' 검색 중 오류: {}", keywords.get(k), e.getCause().getMessage(), e.getCause());
+            }
+        }
+        log.info("병렬 조회 완료: 키워드 {}개, 전체 {}ms (개별 합계 {}ms, 동시 실행 한도 {})",
+                keywords.size(), (System.nanoTime() - startTime) / 1_000_000, sumMillis, maxConcurrentQueries);
+
+        return merged.values().stream()
+                .sorted(Comparator.comparingLong(MergedMatch::order))
+                .map(m -> new PublicDataMatch(m.data(), m.matchedColumns()))
+                .toList();
+    }
+
+    // 키워드 하나로 조회한 결과의 비트(키워드 0번 위치)를 전체 키워드 목록에서의 위치로 옮긴다.
+    private static BitSet shift(BitSet single, int keywordIndex) {
+        BitSet shifted = new BitSet();
+        int offset = PublicDataMatch.bitOf(keywordIndex, SearchField.PROVIDER_AGENCY);
+        for (int bit = single.nextSetBit(0); bit >= 0; bit = single.nextSetBit(bit + 1)) {
+            shifted.set(bit + offset);
+        }
+        return shifted;
+    }
+
+    public String describeSource() {
+        return searchIndex.isReady() ? "메모리 색인" : resolveBackend().name();
+    }
+
+    public record RetrievalTiming(String keyword, int rows, long millis) {
+    }
+
+    private record MergedMatch(PublicData data, BitSet matchedColumns, long order) {
+        static MergedMatch combine(MergedMatch a, MergedMatch b) {
+            BitSet bits = (BitSet) a.matchedColumns.clone();
+            bits.or(b.matchedColumns);
+            return new MergedMatch(a.order <= b.order ? a.data : b.data, bits, Math.min(a.order, b.order));
+        }
+    }
+
+    // 요청한 방식의 스키마가 준비되지 않았으면 LIKE 로 되돌린다.
+    private SearchBackend resolveBackend() {
+        return switch (configuredBackend) {
+            case AUTO -> postgresSearchSchema.isTrigramReady() ? SearchBackend.TRIGRAM : SearchBackend.LIKE;
+            case TRIGRAM -> postgresSearchSchema.isTrigramReady() ? SearchBackend.TRIGRAM : SearchBackend.LIKE;
+            case FULL_TEXT -> postgresSearchSchema.isFullTextReady() ? SearchBackend.FULL_TEXT : SearchBackend.LIKE;
+            case LIKE -> SearchBackend.LIKE;
+        };
+    }
+}
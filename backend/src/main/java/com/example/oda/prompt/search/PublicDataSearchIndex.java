@@ -0,0 +1,335 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.PublicDataMatch;
+import com.example.oda.repository.PublicDataRepository;
+import com.example.oda.repository.SearchField;
+import com.example.oda.repository.SearchFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * filedata 카탈로그 전체를 메모리에 올린 컬럼형 사본({@link CatalogSnapshot})과 컬럼별 부분 문자열 색인.
+ * <p>
+ * 애플리케이션 기동 시 한 번 적재하며, 적재 전이거나 실패한 경우 {@link #isReady()} 가 false 를 돌려주고
+ * 검색은 기존 DB 조회로 동작한다. 이후에는 수정일이 마지막 적재 시점 이후인 행만 주기적으로 다시 읽어 반영한다.
+ * 사본과 색인은 한 번에 통째로 바꾸므로 읽는 쪽은 잠금 없이 항상 일관된 상태를 본다.
+ */
+@Component
+public class PublicDataSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicDataSearchIndex.class);
+
+    private final PublicDataRepository publicDataRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+
+    private volatile Snapshot snapshot;
+
+    public PublicDataSearchIndex(PublicDataRepository publicDataRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${search.index.enabled:true}") boolean enabled) {
+        this.publicDataRepository = publicDataRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            log.info("검색 색인 비활성화됨 (search.index.enabled=false) - DB 조회로 검색합니다.");
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * 전체를 다시 적재한다. 변경 이벤트는 새 색인으로 바꾼 뒤, 잠금 밖에서 발행한다.
+     */
+    public void rebuild() {
+        publish(load());
+    }
+
+    private synchronized CatalogChangedEvent load() {
+        try {
+            long startTime = System.currentTimeMillis();
+            List<PublicData> all = publicDataRepository.findAll();
+            this.snapshot = Snapshot.build(CatalogSnapshot.of(all));
+            log.info("검색 색인 적재 완료: {}건 ({}ms 소요)", all.size(), System.currentTimeMillis() - startTime);
+            logMemoryUsage();
+            return new CatalogChangedEvent(all.size(), true);
+        } catch (Exception e) {
+            log.warn("검색 색인 적재 실패, DB 조회로 검색합니다: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 수정일이 현재 사본의 최신 수정일 이후(같은 시각 포함)인 행을 다시 읽어 반영한다.
+     * 수정일이 없는 행의 변경과 삭제는 감지하지 못하므로 필요하면 {@link #rebuild()} 로 전체를 다시 적재한다.
+     */
+    @Scheduled(initialDelayString = "${search.index.refresh-interval-ms:300000}",
+            fixedDelayString = "${search.index.refresh-interval-ms:300000}")
+    public void refreshChanged() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        LocalDateTime watermark = current.catalog.maxModifiedDate();
+        if (watermark == null) {
+            return;
+        }
+        try {
+            List<PublicData> changed = publicDataRepository.findByModifiedDateGreaterThanEqual(watermark).stream()
+                    .filter(data -> {
+                        int row = current.catalog.rowOf(data.getTitle());
+                        return row < 0 || !current.catalog.sameAs(row, data);
+                    })
+                    .toList();
+            if (!changed.isEmpty()) {
+                log.info("수정일 {} 이후 변경된 카탈로그 행 {}건을 반영합니다.", watermark, changed.size());
+                applyChanges(changed);
+            }
+        } catch (Exception e) {
+            log.warn("카탈로그 증분 갱신 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 바뀐(추가·수정된) 문서만 반영한다. DB 전체를 다시 읽지 않고, 바뀌지 않은 행은 엔티티로 만들지 않고 복사하며,
+     * 부분 문자열 색인과 코퍼스 통계도 바뀐 문서만큼만 고친다. 문서 식별은 기본키인 제목으로 한다.
+     */
+    public void applyChanges(Collection<PublicData> changed) {
+        publish(swapChanges(changed));
+    }
+
+    private synchronized CatalogChangedEvent swapChanges(Collection<PublicData> changed) {
+        Snapshot current = snapshot;
+        if (current == null || changed.isEmpty()) {
+            return null;
+        }
+        // 통계에서 뺄 예전 행은 길이만 필요하므로 설명 본문 없이 만든다.
+        List<PublicData> removed = new ArrayList<>();
+        for (PublicData document : changed) {
+            int row = current.catalog.rowOf(document.getTitle());
+            if (row >= 0) {
+                removed.add(current.catalog.summaryRow(row, List.of()));
+            }
+        }
+        this.snapshot = current.withChanges(current.catalog.withChanges(changed), removed, changed);
+        log.info("검색 색인 변경 반영: {}건 (교체 {}건)", changed.size(), removed.size());
+        return new CatalogChangedEvent(changed.size(), false);
+    }
+
+    // 파생 색인과 캐시는 새 사본을 읽어야 하므로 교체가 끝난 뒤에 알린다. 한 리스너의 실패가 색인 교체를 되돌리지는 않는다.
+    private void publish(CatalogChangedEvent event) {
+        if (event == null) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("카탈로그 변경 알림 처리 중 오류: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 현재 색인의 코퍼스 통계. 색인이 적재되지 않았으면 null.
+     */
+    public CorpusStatistics statistics() {
+        Snapshot current = snapshot;
+        return current != null ? current.statistics : null;
+    }
+
+    /**
+     * 현재 카탈로그 사본. 색인이 적재되지 않았으면 null.
+     */
+    public CatalogSnapshot catalog() {
+        Snapshot current = snapshot;
+        return current != null ? current.catalog : null;
+    }
+
+    /**
+     * 현재 카탈로그 사본과 그 위의 부분 문자열 색인의 메모리 사용량. 색인이 적재되지 않았으면 null.
+     */
+    public CatalogSnapshot.MemoryUsage memoryUsage() {
+        Snapshot current = snapshot;
+        return current != null ? current.memoryUsage() : null;
+    }
+
+    /**
+     * 파일데이터명이 정확히 같은 데이터. 색인이 적재되지 않았으면 호출하지 않는다.
+     */
+    public Optional<PublicData> findByFileDataName(String fileDataName) {
+        CatalogSnapshot catalog = requireSnapshot().catalog;
+        int row = catalog.rowOfFileDataName(fileDataName);
+        return row >= 0 ? Optional.of(catalog.row(row)) : Optional.empty();
+    }
+
+    /**
+     * {@link com.example.oda.repository.PublicDataRepositoryCustom#findByAnyKeyword} 와 같은 결과를 색인에서 만든다.
+     * 결과는 색인 순서이다.
+     */
+    public List<PublicDataMatch> findByAnyKeyword(List<String> keywords) {
+        return findByAnyKeyword(keywords, null, SearchFilter.NONE).matches();
+    }
+
+    /**
+     * 조건을 만족하는 행만 남긴 키워드 검색. 조건은 행 비트셋으로 먼저 만들어 두고 posting 을 거르므로,
+     * 조건에서 빠진 행은 엔티티로 만들지도, 점수를 매기지도 않는다.
+     *
+     * @param digestTerms 주어지면 결과 행은 설명 본문 대신 이 용어들의 {@link com.example.oda.entity.DescriptionDigest} 를 담는다
+     *                    (DB 요약 조회와 같은 형태). null 이면 행 전체를 만든다.
+     */
+    public FilteredMatches findByAnyKeyword(List<String> keywords, List<String> digestTerms, SearchFilter filter) {
+        return findByAnyKeyword(keywords, SearchField.values(), digestTerms, filter);
+    }
+
+    /**
+     * 주어진 컬럼에서만 찾는 키워드 검색. 짧은 컬럼만 훑으므로 전체 검색보다 빠르며, 일치 표시도 그 컬럼만 켜진다.
+     */
+    public FilteredMatches findByAnyKeyword(List<String> keywords, SearchField[] fields, List<String> digestTerms,
+                                            SearchFilter filter) {
+        Snapshot current = requireSnapshot();
+        BitSet allowed = filter.isEmpty() ? null : current.catalog.rowsMatching(filter);
+        Map<Integer, BitSet> matched = new TreeMap<>();
+        BitSet excluded = new BitSet();
+        for (int k = 0; k < keywords.size(); k++) {
+            String lowerKeyword = keywords.get(k).toLowerCase();
+            for (SearchField field : fields) {
+                int bit = PublicDataMatch.bitOf(k, field);
+                for (int docId : current.fields.get(field).findContaining(lowerKeyword)) {
+                    if (allowed != null && !allowed.get(docId)) {
+                        excluded.set(docId);
+                        continue;
+                    }
+                    matched.computeIfAbsent(docId, id -> new BitSet()).set(bit);
+                }
+            }
+        }
+        List<PublicDataMatch> results = new ArrayList<>(matched.size());
+        matched.forEach((docId, bits) -> results.add(new PublicDataMatch(
+                digestTerms != null ? current.catalog.summaryRow(docId, digestTerms) : current.catalog.row(docId), bits)));
+        return new FilteredMatches(results, results.size() + excluded.cardinality());
+    }
+
+    /**
+     * 제목(기본키)이 같은 행 전체. 색인이 적재되지 않았거나 사본에 없는 제목이면 빈 값.
+     */
+    public Optional<PublicData> findByTitle(String title) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int row = current.catalog.rowOf(title);
+        return row >= 0 ? Optional.of(current.catalog.row(row)) : Optional.empty();
+    }
+
+    /**
+     * 조건을 적용한 검색 결과와, 조건이 없었을 때의 결과 수.
+     */
+    public record FilteredMatches(List<PublicDataMatch> matches, int unfilteredCount) {
+    }
+
+    private Snapshot requireSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("검색 색인이 아직 적재되지 않았습니다.");
+        }
+        return current;
+    }
+
+    private void logMemoryUsage() {
+        CatalogSnapshot.MemoryUsage usage = snapshot.memoryUsage();
+        log.info("카탈로그 사본 메모리: {}KB (문자열 {}KB, 컬럼 {}KB, 사전 {}KB/{}개 값, 조회표 {}KB, 색인 {}KB) - 10만 건 기준 약 {}MB",
+                usage.totalBytes() / 1024, usage.arenaBytes() / 1024, usage.columnBytes() / 1024,
+                usage.dictionaryBytes() / 1024, usage.dictionaryEntries(), usage.lookupBytes() / 1024,
+                usage.indexBytes() / 1024, usage.bytesPer100k() / (1024 * 1024));
+    }
+
+    private static final class Snapshot {
+        private final CatalogSnapshot catalog;
+        private final Map<SearchField, SubstringIndex> fields;
+        private final CorpusStatistics statistics;
+
+        private Snapshot(CatalogSnapshot catalog, Map<SearchField, SubstringIndex> fields, long[] totalLengths,
+                         CorpusStatistics previousStatistics, List<PublicData> removed, Collection<PublicData> added) {
+            this.catalog = catalog;
+            this.fields = fields;
+            this.statistics = previousStatistics == null
+                    ? CorpusStatistics.of(catalog.size(), totalLengths, this::documentFrequency)
+                    : previousStatistics.withChanges(removed, added, this::documentFrequency);
+        }
+
+        /**
+         * 어느 필드에든 용어를 포함하는 문서 수 (필드별 posting 의 합집합 크기).
+         */
+        private int documentFrequency(String lowerTerm) {
+            BitSet union = new BitSet(catalog.size());
+            for (SubstringIndex index : fields.values()) {
+                for (int docId : index.findContaining(lowerTerm)) {
+                    union.set(docId);
+                }
+            }
+            return union.cardinality();
+        }
+
+        CatalogSnapshot.MemoryUsage memoryUsage() {
+            long indexBytes = 0;
+            for (SubstringIndex index : fields.values()) {
+                indexBytes += index.memoryBytes();
+            }
+            return catalog.memoryUsage().withIndexBytes(indexBytes);
+        }
+
+        static Snapshot build(CatalogSnapshot catalog) {
+            Map<SearchField, SubstringIndex> fields = new EnumMap<>(SearchField.class);
+            long[] totalLengths = new long[SearchField.values().length];
+            for (SearchField field : SearchField.values()) {
+                for (int row = 0; row < catalog.size(); row++) {
+                    totalLengths[field.ordinal()] += catalog.length(field, row);
+                }
+                fields.put(field, SubstringIndex.build(catalog.searchValues(field)));
+            }
+            return new Snapshot(catalog, fields, totalLengths, null, List.of(), List.of());
+        }
+
+        /**
+         * 바뀐 행만 반영한 스냅샷. 새 사본에서 바뀐 행 번호를 찾아 필드별 색인의 해당 posting 만 고친다.
+         */
+        Snapshot withChanges(CatalogSnapshot next, List<PublicData> removed, Collection<PublicData> added) {
+            BitSet changedRows = new BitSet(next.size());
+            for (PublicData document : added) {
+                int row = next.rowOf(document.getTitle());
+                if (row >= 0) {
+                    changedRows.set(row);
+                }
+            }
+            Map<SearchField, SubstringIndex> nextFields = new EnumMap<>(SearchField.class);
+            for (SearchField field : SearchField.values()) {
+                nextFields.put(field, fields.get(field).withChanges(next.searchValues(field), changedRows));
+            }
+            return new Snapshot(next, nextFields, null, statistics, removed, added);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+
+import java.util.List;
+
+/**
+ * 스트리밍 검색의 첫 결과용 간이 점수. 짧고 신호가 강한 파일데이터명과 제공기관만 본다.
+ * 설명/키워드를 훑지 않으므로 후보가 많아도 빠르며, 최종 순위는 설정된 {@link RelevanceRanker} 가 정한다.
+ */
+public class QuickRelevanceRanker implements RelevanceRanker {
+
+    public static final String NAME = "quick";
+
+    private static final int SCORE_PROVIDER_AGENCY = 200;
+    private static final int SCORE_DATA_NAME_STARTS_WITH = 150;
+    private static final int SCORE_DATA_NAME_CONTAINS = 40;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double[] score(List<PublicData> candidates, List<String> keywords) {
+        List<String> lowerKeywords = keywords.stream().map(String::toLowerCase).toList();
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile(lowerKeywords);
+        MultiPatternMatcher.Hits providerHits = matcher.newHits();
+        MultiPatternMatcher.Hits nameHits = matcher.newHits();
+
+        double[] scores = new double[candidates.size()];
+        for (int i = 0; i < scores.length; i++) {
+            PublicData data = candidates.get(i);
+            String dataName = data.getFileDataName() != null ? data.getFileDataName().toLowerCase() : "";
+            matcher.scan(data.getProviderAgency() != null ? data.getProviderAgency().toLowerCase() : null, providerHits);
+            matcher.scan(dataName, nameHits);
+            int score = 0;
+            for (int k = 0; k < lowerKeywords.size(); k++) {
+                if (providerHits.contains(k)) score += SCORE_PROVIDER_AGENCY;
+                if (dataName.startsWith(lowerKeywords.get(k))) score += SCORE_DATA_NAME_STARTS_WITH;
+                if (nameHits.contains(k)) score += SCORE_DATA_NAME_CONTAINS;
+            }
+            scores[i] = score;
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.oda.prompt.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 페이지 조회용으로 정렬된 전체 결과를 잠시 보관한다. 다음 페이지는 다시 검색하지 않고 여기서 잘라 준다.
+ * <p>
+ * 결과 한 건당 제목/파일데이터명/점수만 들고 있으며(첫 페이지에서 센 패싯 개수도 함께 둔다), 항목 수와 TTL 로 크기를 제한한다.
+ * 카탈로그나 검색 사전이 바뀌면 결과와 순서가 달라지므로 모두 버린다 (이어지는 페이지 요청은 만료로 처리된다).
+ */
+@Component
+public class RankedResultBuffer {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public RankedResultBuffer(@Value("${search.page.buffer-max-entries:200}") int maxEntries,
+                              @Value("${search.page.buffer-ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    public synchronized void put(String fingerprint, RankedResults results) {
+        entries.put(fingerprint, new Entry(new RankedResults(List.copyOf(results.items()), results.facets()), System.nanoTime()));
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        invalidateAll();
+    }
+
+    @EventListener
+    public void onDictionaryChanged(SearchDictionaryChangedEvent event) {
+        invalidateAll();
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized Optional<RankedResults> get(String fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.createdAt >= ttlNanos) {
+            entries.remove(fingerprint);
+            return Optional.empty();
+        }
+        return Optional.of(entry.results);
+    }
+
+    /**
+     * 정렬된 결과 한 건. 순서는 점수 내림차순, 같은 점수는 검색 순서이다.
+     */
+    public record RankedItem(String title, String fileDataName, double score) {
+    }
+
+    /**
+     * 정렬된 전체 결과와, 패싯 필터를 적용하기 전 후보 전체의 패싯별 개수.
+     */
+    public record RankedResults(List<RankedItem> items, Map<String, List<FacetIndex.FacetCount>> facets) {
+    }
+
+    private record Entry(RankedResults results, long createdAt) {
+    }
+}
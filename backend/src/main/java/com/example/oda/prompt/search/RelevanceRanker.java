@@ -0,0 +1,43 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 검색 후보의 관련도 점수 계산기. search.ranker 로 {@link #name()} 을 지정해 바꿔 쓸 수 있다.
+ */
+public interface RelevanceRanker {
+
+    String name();
+
+    /**
+     * @return candidates 와 같은 순서의 점수. 클수록 관련도가 높다.
+     */
+    double[] score(List<PublicData> candidates, List<String> keywords);
+
+    /**
+     * 설명 본문 없이 요약 조회할 때 설명에서 등장 횟수를 셀 소문자 용어들.
+     * 후보의 {@link com.example.oda.entity.DescriptionDigest} 가 이 목록으로 계산되어 있으면 설명 본문 없이 점수를 낼 수 있다.
+     */
+    default List<String> descriptionTerms(List<String> keywords) {
+        return keywords.stream().map(String::toLowerCase).toList();
+    }
+
+    /**
+     * 검색 설명 모드에서 후보별 점수 구성을 돌려준다. 정렬에는 쓰지 않으며, 기본 구현은 전체 점수 하나만 담는다.
+     */
+    default List<ScoreBreakdown> explain(List<PublicData> candidates, List<String> keywords) {
+        double[] scores = score(candidates, keywords);
+        List<ScoreBreakdown> breakdowns = new ArrayList<>(scores.length);
+        for (double score : scores) {
+            Map<String, Double> components = new LinkedHashMap<>();
+            components.put(name(), score);
+            breakdowns.add(new ScoreBreakdown(components, score));
+        }
+        return breakdowns;
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.oda.prompt.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Roaring 방식으로 압축한 읽기 전용 정수 집합 (0 이상의 행 번호용).
+ * <p>
+ * 값을 상위 16비트로 묶어 묶음마다 원소가 {@value #ARRAY_LIMIT} 개 이하이면 정렬된 char 배열, 넘으면 65536비트 비트맵으로 둔다.
+ * 드문 값(대부분의 제공기관)은 원소 수에 비례하는 공간만 쓰고, 흔한 값(확장자 CSV 등)은 비트 연산으로 교집합을 센다.
+ */
+public final class RoaringBitmap {
+
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+    private static final RoaringBitmap EMPTY = new RoaringBitmap(new char[0], new char[0][], new long[0][]);
+
+    // 묶음별 상위 16비트 (오름차순). arrays[i] 와 bitmaps[i] 중 하나만 null 이 아니다.
+    private final char[] keys;
+    private final char[][] arrays;
+    private final long[][] bitmaps;
+
+    private RoaringBitmap(char[] keys, char[][] arrays, long[][] bitmaps) {
+        this.keys = keys;
+        this.arrays = arrays;
+        this.bitmaps = bitmaps;
+    }
+
+    public static RoaringBitmap empty() {
+        return EMPTY;
+    }
+
+    /** 오름차순이고 중복이 없는 값들로 만든다. */
+    public static RoaringBitmap ofSorted(int[] values) {
+        Builder builder = new Builder();
+        for (int value : values) {
+            builder.add(value);
+        }
+        return builder.build();
+    }
+
+    /** 순서와 중복에 관계없는 값들로 만든다. */
+    public static RoaringBitmap of(int[] values) {
+        return ofSorted(Arrays.stream(values).sorted().distinct().toArray());
+    }
+
+    public boolean contains(int value) {
+        int i = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        return containsInContainer(i, value & 0xFFFF);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < keys.length; i++) {
+            cardinality += containerCardinality(i);
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /** 교집합의 크기. 교집합을 만들지 않고 센다. */
+    public int andCardinality(RoaringBitmap other) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += intersectCount(i, other, j);
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    public RoaringBitmap and(RoaringBitmap other) {
+        Builder builder = new Builder();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                int high = keys[i] << 16;
+                int otherContainer = j;
+                forEachInContainer(i, low -> {
+                    if (other.containsInContainer(otherContainer, low)) {
+                        builder.add(high | low);
+                    }
+                });
+                i++;
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    public RoaringBitmap or(RoaringBitmap other) {
+        Builder builder = new Builder();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j >= other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                copyContainer(this, i++, builder);
+            } else if (i >= keys.length || keys[i] > other.keys[j]) {
+                copyContainer(other, j++, builder);
+            } else {
+                long[] words = new long[BITMAP_WORDS];
+                setBits(this, i++, words);
+                setBits(other, j++, words);
+                int high = keys[i - 1] << 16;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    for (long bits = words[w]; bits != 0; bits &= bits - 1) {
+                        builder.add(high | (w << 6) | Long.numberOfTrailingZeros(bits));
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /** 오름차순 값 배열 */
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] position = {0};
+        for (int i = 0; i < keys.length; i++) {
+            int high = keys[i] << 16;
+            forEachInContainer(i, low -> values[position[0]++] = high | low);
+        }
+        return values;
+    }
+
+    /** 배열 헤더를 뺀 대략적인 크기 */
+    public long sizeInBytes() {
+        long bytes = 2L * keys.length;
+        for (int i = 0; i < keys.length; i++) {
+            bytes += arrays[i] != null ? 2L * arrays[i].length : 8L * BITMAP_WORDS;
+        }
+        return bytes;
+    }
+
+    private int containerCardinality(int i) {
+        if (arrays[i] != null) {
+            return arrays[i].length;
+        }
+        int count = 0;
+        for (long word : bitmaps[i]) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private int intersectCount(int i, RoaringBitmap other, int j) {
+        if (bitmaps[i] != null && other.bitmaps[j] != null) {
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                count += Long.bitCount(bitmaps[i][w] & other.bitmaps[j][w]);
+            }
+            return count;
+        }
+        if (arrays[i] != null && other.arrays[j] != null) {
+            char[] a = arrays[i];
+            char[] b = other.arrays[j];
+            int count = 0;
+            for (int x = 0, y = 0; x < a.length && y < b.length; ) {
+                if (a[x] < b[y]) {
+                    x++;
+                } else if (a[x] > b[y]) {
+                    y++;
+                } else {
+                    count++;
+                    x++;
+                    y++;
+                }
+            }
+            return count;
+        }
+        // 배열 쪽 원소를 비트맵에서 확인한다.
+        char[] array = arrays[i] != null ? arrays[i] : other.arrays[j];
+        long[] bitmap = arrays[i] != null ? other.bitmaps[j] : bitmaps[i];
+        int count = 0;
+        for (char low : array) {
+            if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean containsInContainer(int i, int low) {
+        return arrays[i] != null
+                ? Arrays.binarySearch(arrays[i], (char) low) >= 0
+                : (bitmaps[i][low >>> 6] & (1L << low)) != 0;
+    }
+
+    private void forEachInContainer(int i, IntConsumer action) {
+        if (arrays[i] != null) {
+            for (char low : arrays[i]) {
+                action.accept(low);
+            }
+            return;
+        }
+        long[] words = bitmaps[i];
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            for (long bits = words[w]; bits != 0; bits &= bits - 1) {
+                action.accept((w << 6) | Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+
+    private static void copyContainer(RoaringBitmap source, int i, Builder builder) {
+        int high = source.keys[i] << 16;
+        source.forEachInContainer(i, low -> builder.add(high | low));
+    }
+
+    private static void setBits(RoaringBitmap source, int i, long[] words) {
+        source.forEachInContainer(i, low -> words[low >>> 6] |= 1L << low);
+    }
+
+    /**
+     * 오름차순으로 값을 받아 묶음 단위로 채운다.
+     */
+    public static final class Builder {
+        private char[] keys = new char[4];
+        private char[][] arrays = new char[4][];
+        private long[][] bitmaps = new long[4][];
+        private int containers;
+        private int currentKey = -1;
+        private char[] buffer = new char[64];
+        private int buffered;
+        private int last = -1;
+
+        /** 직전 값보다 큰 값만 받는다 (같은 값은 무시). */
+        public Builder add(int value) {
+            if (value < 0 || value < last) {
+                throw new IllegalArgumentException("값은 0 이상의 오름차순이어야 합니다: " + value);
+            }
+            if (value == last) {
+                return this;
+            }
+            last = value;
+            int key = value >>> 16;
+            if (key != currentKey) {
+                flush();
+                currentKey = key;
+            }
+            if (buffered == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[buffered++] = (char) value;
+            return this;
+        }
+
+        public RoaringBitmap build() {
+            flush();
+            if (containers == 0) {
+                return EMPTY;
+            }
+            return new RoaringBitmap(Arrays.copyOf(keys, containers), Arrays.copyOf(arrays, containers),
+                    Arrays.copyOf(bitmaps, containers));
+        }
+
+        private void flush() {
+            if (buffered == 0) {
+                return;
+            }
+            if (containers == keys.length) {
+                keys = Arrays.copyOf(keys, containers * 2);
+                arrays = Arrays.copyOf(arrays, containers * 2);
+                bitmaps = Arrays.copyOf(bitmaps, containers * 2);
+            }
+            keys[containers] = (char) currentKey;
+            if (buffered <= ARRAY_LIMIT) {
+                arrays[containers] = Arrays.copyOf(buffer, buffered);
+            } else {
+                long[] words = new long[BITMAP_WORDS];
+                for (int i = 0; i < buffered; i++) {
+                    words[buffer[i] >>> 6] |= 1L << buffer[i];
+                }
+                bitmaps[containers] = words;
+            }
+            containers++;
+            buffered = 0;
+        }
+    }
+}
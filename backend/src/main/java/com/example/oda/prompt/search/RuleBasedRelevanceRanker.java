@@ -0,0 +1,301 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.DescriptionDigest;
+import com.example.oda.entity.PublicData;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 기존 규칙 기반 관련도 점수 (필드별 포함 여부에 고정 가중치를 더한다). search.ranker=rule
+ */
+@Component
+public class RuleBasedRelevanceRanker implements RelevanceRanker, SearchDictionaryParticipant {
+
+    public static final String NAME = "rule";
+
+    // 점수 상수화
+    private static final int SCORE_PROVIDER_AGENCY = 200;
+    private static final int SCORE_DATA_NAME_STARTS_WITH = 150;
+    private static final int SCORE_KEYWORD_EXACT_MATCH = 100;
+    private static final int SCORE_KEYWORD_CONTAINS = 60;
+    private static final int SCORE_DATA_NAME_CONTAINS = 40;
+    private static final int SCORE_TITLE_CONTAINS = 25;
+    private static final int SCORE_DESCRIPTION_CONTAINS = 30;
+    private static final int SCORE_DESCRIPTION_ALL_KEYWORDS = 50;
+    private static final int SCORE_RECENTLY_MODIFIED = 20;
+    private static final int SCORE_CLASSIFICATION_CONTAINS = 20;
+
+    // 기본 키워드 점수
+    private static final int PRIMARY_KEYWORD_REGION_PROVIDER = 100;
+    private static final int PRIMARY_KEYWORD_REGION_NAME_STARTS = 80;
+    private static final int PRIMARY_KEYWORD_REGION_NAME_CONTAINS = 50;
+    private static final int PRIMARY_KEYWORD_REGION_DESC = 40;
+    private static final int PRIMARY_KEYWORD_NORMAL_PROVIDER = 30;
+    private static final int PRIMARY_KEYWORD_NORMAL_NAME = 20;
+    private static final int PRIMARY_KEYWORD_NORMAL_DESC = 25;
+
+    // 설명 점수
+    private static final int DESC_SCORE_KEYWORD_PRESENCE = 10;
+    private static final int DESC_SCORE_SPECIAL_TERM = 25;
+    private static final int DESC_SCORE_HIGH_KEYWORD_DENSITY = 20;
+
+    // 지역 키워드와 설명 가산점 용어. 사전이 바뀌면 참조만 바꾸며, 정렬 한 번은 시작할 때 읽은 사전으로 끝까지 계산한다.
+    private final AtomicReference<SearchDictionary> dictionary = new AtomicReference<>(SearchDictionary.bundled());
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Runnable prepare(SearchDictionary next) {
+        return () -> dictionary.set(next);
+    }
+
+    @Override
+    public double[] score(List<PublicData> candidates, List<String> keywords) {
+        QueryTerms terms = new QueryTerms(keywords, dictionary.get());
+        FieldHits hits = new FieldHits(terms.matcher);
+        double[] scores = new double[candidates.size()];
+        for (int i = 0; i < scores.length; i++) {
+            ScoringDocument doc = new ScoringDocument(candidates.get(i), terms.patterns);
+            hits.scan(doc);
+            scores[i] = calculateRelevanceScore(doc, terms, hits);
+        }
+        return scores;
+    }
+
+    // 정렬과 같은 스캔 결과로 네 구성 요소를 따로 계산한다.
+    @Override
+    public List<ScoreBreakdown> explain(List<PublicData> candidates, List<String> keywords) {
+        QueryTerms terms = new QueryTerms(keywords, dictionary.get());
+        FieldHits hits = new FieldHits(terms.matcher);
+        List<ScoreBreakdown> breakdowns = new ArrayList<>(candidates.size());
+        for (PublicData candidate : candidates) {
+            ScoringDocument doc = new ScoringDocument(candidate, terms.patterns);
+            hits.scan(doc);
+            Map<String, Double> components = new LinkedHashMap<>();
+            components.put("keyword", (double) calculateScoresByKeyword(doc, terms, hits));
+            components.put("primaryKeyword", (double) calculateScoresByPrimaryKeyword(doc, terms, hits));
+            components.put("description", (double) calculateDescriptionScore(doc, terms, hits));
+            components.put("bonus", (double) calculateBonusScores(doc, terms, hits));
+            breakdowns.add(new ScoreBreakdown(components, calculateRelevanceScore(doc, terms, hits)));
+        }
+        return breakdowns;
+    }
+
+    // 설명 요약은 매처의 패턴 전체(키워드, 이어 붙인 키워드, 특수 용어)에 대해 센다.
+    @Override
+    public List<String> descriptionTerms(List<String> keywords) {
+        return new QueryTerms(keywords, dictionary.get()).patterns;
+    }
+
+    private int calculateRelevanceScore(ScoringDocument doc, QueryTerms terms, FieldHits hits) {
+        int score = 0;
+        score += calculateScoresByKeyword(doc, terms, hits);
+        score += calculateScoresByPrimaryKeyword(doc, terms, hits);
+        score += calculateDescriptionScore(doc, terms, hits);
+        score += calculateBonusScores(doc, terms, hits);
+        return Math.max(0, score);
+    }
+
+    // 키워드 k 의 포함 여부는 필드별 한 번의 스캔 결과(hits)에서 읽는다. 패턴 번호는 키워드 순서와 같다.
+    private int calculateScoresByKeyword(ScoringDocument doc, QueryTerms terms, FieldHits hits) {
+        int score = 0;
+        boolean descriptionHasAllKeywords = terms.multiple && hits.description.contains(terms.joinedPattern);
+
+        for (int k = 0; k < terms.lower.size(); k++) {
+            String lowerKeyword = terms.lower.get(k);
+            if (hits.providerAgency.contains(k)) score += SCORE_PROVIDER_AGENCY;
+            if (doc.dataName.startsWith(lowerKeyword)) score += SCORE_DATA_NAME_STARTS_WITH;
+            if (hits.dataKeywords.contains(k)) {
+                // 쉼표로 나눈 조각 중 하나가 키워드를 포함하면 전체 문자열도 포함하므로, 포함할 때만 조각을 검사한다.
+                score += isKeywordExactMatch(doc, lowerKeyword) ? SCORE_KEYWORD_EXACT_MATCH : SCORE_KEYWORD_CONTAINS;
+            }
+            if (hits.dataName.contains(k)) score += SCORE_DATA_NAME_CONTAINS;
+            if (hits.dataTitle.contains(k)) score += SCORE_TITLE_CONTAINS;
+            if (hits.description.contains(k)) score += SCORE_DESCRIPTION_CONTAINS;
+            if (descriptionHasAllKeywords) score += SCORE_DESCRIPTION_ALL_KEYWORDS;
+        }
+        return score;
+    }
+
+    private int calculateScoresByPrimaryKeyword(ScoringDocument doc, QueryTerms terms, FieldHits hits) {
+        if (terms.primary == null) {
+            return 0;
+        }
+        int score = 0;
+        final int primary = 0;
+
+        if (terms.primaryIsRegion) {
+            if (hits.providerAgency.contains(primary)) score += PRIMARY_KEYWORD_REGION_PROVIDER;
+            if (doc.dataName.startsWith(terms.primary)) score += PRIMARY_KEYWORD_REGION_NAME_STARTS;
+            if (hits.dataName.contains(primary)) score += PRIMARY_KEYWORD_REGION_NAME_CONTAINS;
+            if (hits.description.contains(primary)) score += PRIMARY_KEYWORD_REGION_DESC;
+        } else {
+            if (hits.providerAgency.contains(primary)) score += PRIMARY_KEYWORD_NORMAL_PROVIDER;
+            if (hits.dataName.contains(primary)) score += PRIMARY_KEYWORD_NORMAL_NAME;
+            if (hits.description.contains(primary)) score += PRIMARY_KEYWORD_NORMAL_DESC;
+        }
+        return score;
+    }
+
+    private int calculateBonusScores(ScoringDocument doc, QueryTerms terms, FieldHits hits) {
+        int score = 0;
+        if (doc.modifiedDate != null && doc.modifiedDate.isAfter(terms.recentlyModifiedSince)) {
+            score += SCORE_RECENTLY_MODIFIED;
+        }
+
+        if (doc.classification != null) {
+            for (int k = 0; k < terms.lower.size(); k++) {
+                if (hits.classification.contains(k)) {
+                    score += SCORE_CLASSIFICATION_CONTAINS;
+                }
+            }
+        }
+        return score;
+    }
+
+    private int calculateDescriptionScore(ScoringDocument doc, QueryTerms terms, FieldHits hits) {
+        if (!doc.hasDescription) return 0;
+        int score = 0;
+        for (int k = 0; k < terms.lower.size(); k++) {
+            if (hits.description.contains(k)) score += DESC_SCORE_KEYWORD_PRESENCE;
+        }
+        for (int t = terms.specialTermsFrom; t < terms.matcher.patternCount(); t++) {
+            if (hits.description.contains(t)) score += DESC_SCORE_SPECIAL_TERM;
+        }
+        // 기존 (길이 - replace 후 길이) / 원래 키워드 길이 계산과 같은 값
+        long keywordCount = 0;
+        for (int k = 0; k < terms.lower.size(); k++) {
+            keywordCount += (long) hits.description.count(k) * terms.lower.get(k).length() / Math.max(terms.originalLengths[k], 1);
+        }
+        if (keywordCount > 2) score += DESC_SCORE_HIGH_KEYWORD_DENSITY;
+        return score;
+    }
+
+    private boolean isKeywordExactMatch(ScoringDocument doc, String searchKeyword) {
+        if (doc.dataKeywords.isEmpty()) return false;
+        for (String trimmedKeyword : doc.keywordParts()) {
+            if (trimmedKeyword.equals(searchKeyword) || trimmedKeyword.contains(searchKeyword)) return true;
+        }
+        return false;
+    }
+
+    // 후보 한 건의 소문자화된 필드. 문서마다 한 번만 만든다.
+    private static final class ScoringDocument {
+        private final String dataName;
+        private final String dataKeywords;
+        private final String dataTitle;
+        private final String providerAgency;
+        private final String description;
+        private final boolean hasDescription;
+        private final DescriptionDigest descriptionDigest;
+        private final String classification;
+        private final LocalDateTime modifiedDate;
+        private String[] keywordParts;
+
+        private ScoringDocument(PublicData data, List<String> patterns) {
+            this.dataName = lowerOrEmpty(data.getFileDataName());
+            this.dataKeywords = lowerOrEmpty(data.getKeywords());
+            this.dataTitle = lowerOrEmpty(data.getTitle());
+            this.providerAgency = lowerOrEmpty(data.getProviderAgency());
+            this.description = lowerOrEmpty(data.getDescription());
+            DescriptionDigest digest = data.getDescriptionDigest();
+            // 설명 본문 없이 요약만 읽은 후보는 요약의 등장 횟수를 쓴다.
+            this.descriptionDigest = data.getDescription() == null && digest != null && digest.covers(patterns) ? digest : null;
+            this.hasDescription = descriptionDigest != null
+                    ? descriptionDigest.length() > 0
+                    : data.getDescription() != null && !data.getDescription().isEmpty();
+            this.classification = data.getClassificationSystem() != null ? data.getClassificationSystem().toLowerCase() : null;
+            this.modifiedDate = data.getModifiedDate();
+        }
+
+        // 쉼표로 나눈 키워드 조각 (정확 일치 검사에서 필요할 때만 만든다)
+        private String[] keywordParts() {
+            if (keywordParts == null) {
+                keywordParts = dataKeywords.split(",");
+                for (int i = 0; i < keywordParts.length; i++) {
+                    keywordParts[i] = keywordParts[i].trim();
+                }
+            }
+            return keywordParts;
+        }
+
+        private static String lowerOrEmpty(String value) {
+            return value != null ? value.toLowerCase() : "";
+        }
+    }
+
+    // 질의 키워드의 소문자 형태와 패턴 매처 등, 후보와 무관한 값을 정렬 한 번에 한 번만 만든다.
+    // 매처의 패턴 순서: 키워드들 [0, k), 키워드 전체를 공백으로 이은 문자열 (k), 특수 용어들 (k + 1 ~)
+    private static final class QueryTerms {
+        private final List<String> lower;
+        private final int[] originalLengths;
+        private final boolean multiple;
+        private final String primary;
+        private final boolean primaryIsRegion;
+        private final LocalDateTime recentlyModifiedSince;
+        private final List<String> patterns;
+        private final MultiPatternMatcher matcher;
+        private final int joinedPattern;
+        private final int specialTermsFrom;
+
+        private QueryTerms(List<String> keywords, SearchDictionary dictionary) {
+            this.lower = keywords.stream().map(String::toLowerCase).toList();
+            this.originalLengths = keywords.stream().mapToInt(String::length).toArray();
+            this.multiple = keywords.size() >= 2;
+            this.primary = lower.isEmpty() ? null : lower.get(0);
+            this.primaryIsRegion = primary != null && dictionary.isRegionKeyword(primary);
+            this.recentlyModifiedSince = LocalDateTime.now().minusYears(1);
+
+            List<String> patterns = new ArrayList<>(lower);
+            this.joinedPattern = patterns.size();
+            patterns.add(String.join(" ", keywords).toLowerCase());
+            this.specialTermsFrom = patterns.size();
+            patterns.addAll(dictionary.specialTerms());
+            this.patterns = List.copyOf(patterns);
+            this.matcher = MultiPatternMatcher.compile(patterns);
+        }
+    }
+
+    // 후보 한 건의 필드별 스캔 결과. 정렬 한 번 동안 같은 배열을 재사용한다.
+    private static final class FieldHits {
+        private final MultiPatternMatcher matcher;
+        private final MultiPatternMatcher.Hits providerAgency;
+        private final MultiPatternMatcher.Hits dataName;
+        private final MultiPatternMatcher.Hits dataTitle;
+        private final MultiPatternMatcher.Hits dataKeywords;
+        private final MultiPatternMatcher.Hits description;
+        private final MultiPatternMatcher.Hits classification;
+
+        private FieldHits(MultiPatternMatcher matcher) {
+            this.matcher = matcher;
+            this.providerAgency = matcher.newHits();
+            this.dataName = matcher.newHits();
+            this.dataTitle = matcher.newHits();
+            this.dataKeywords = matcher.newHits();
+            this.description = matcher.newHits();
+            this.classification = matcher.newHits();
+        }
+
+        private void scan(ScoringDocument doc) {
+            matcher.scan(doc.providerAgency, providerAgency);
+            matcher.scan(doc.dataName, dataName);
+            matcher.scan(doc.dataTitle, dataTitle);
+            matcher.scan(doc.dataKeywords, dataKeywords);
+            if (doc.descriptionDigest != null) {
+                description.assign(doc.descriptionDigest.counts());
+            } else {
+                matcher.scan(doc.description, description);
+            }
+            matcher.scan(doc.classification, classification);
+        }
+    }
+}
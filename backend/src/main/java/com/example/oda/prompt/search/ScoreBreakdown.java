@@ -0,0 +1,12 @@
+package com.example.oda.prompt.search;
+
+import java.util.Map;
+
+/**
+ * 후보 한 건의 관련도 점수 구성.
+ *
+ * @param components 구성 요소 이름별 점수 (계산 순서대로)
+ * @param total      최종 점수 (구성 요소의 합에 하한 등을 적용한 값)
+ */
+public record ScoreBreakdown(Map<String, Double> components, double total) {
+}
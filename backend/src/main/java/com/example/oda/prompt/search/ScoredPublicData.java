@@ -0,0 +1,9 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+
+/**
+ * 관련도 점수가 붙은 검색 결과 한 건.
+ */
+public record ScoredPublicData(PublicData data, double score) {
+}
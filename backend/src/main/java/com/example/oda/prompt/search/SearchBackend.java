@@ -0,0 +1,15 @@
+package com.example.oda.prompt.search;
+
+/**
+ * 메모리 색인을 쓸 수 없을 때 사용할 DB 검색 방식 (search.backend).
+ */
+public enum SearchBackend {
+    /** PostgreSQL 검색 스키마가 준비되어 있으면 TRIGRAM, 아니면 LIKE */
+    AUTO,
+    /** 이식 가능한 UPPER(..) LIKE 조회 (H2 포함) */
+    LIKE,
+    /** pg_trgm GIN 색인 + 유사도 일치 */
+    TRIGRAM,
+    /** tsvector 접두어 일치 */
+    FULL_TEXT
+}
@@ -0,0 +1,42 @@
+package com.example.oda.prompt.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 페이지 조회 커서. 클라이언트에는 불투명한 문자열로 전달된다.
+ *
+ * @param fingerprint 질의(정규화된 쿼리 플랜)의 지문
+ * @param offset      다음 페이지의 시작 위치
+ * @param pageSize    페이지 크기
+ * @param lastScore   이전 페이지 마지막 결과의 점수
+ * @param lastTitle   이전 페이지 마지막 결과의 제목(기본키)
+ */
+public record SearchCursor(String fingerprint, int offset, int pageSize, double lastScore, String lastTitle) {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        String raw = VERSION + SEPARATOR + fingerprint + SEPARATOR + offset + SEPARATOR + pageSize + SEPARATOR
+                + Long.toHexString(Double.doubleToLongBits(lastScore)) + SEPARATOR + lastTitle;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException 형식이 맞지 않는 커서
+     */
+    public static SearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 6);
+            if (parts.length != 6 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("지원하지 않는 커서입니다.");
+            }
+            return new SearchCursor(parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                    Double.longBitsToDouble(Long.parseUnsignedLong(parts[4], 16)), parts[5]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + e.getMessage(), e);
+        }
+    }
+}
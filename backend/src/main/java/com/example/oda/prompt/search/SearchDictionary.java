@@ -0,0 +1,97 @@
+package com.example.oda.prompt.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 쿼리 플래너와 관련도 점수가 쓰는 용어 사전의 원본 (JSON, 기본값은 classpath:dictionaries/search-dictionary.json).
+ * <p>
+ * 객체 필드는 넣은 순서가 유지된다(LinkedHashMap). 플래너는 이 순서로 동점 처리와 출력 순서를 정한다.
+ * 컴파일된 매처는 각 사용처({@link SearchDictionaryParticipant})가 만들고, 사전이 바뀌면 새로 만든 뒤 한꺼번에 바꾼다.
+ *
+ * @param version          사전 버전. 내용을 바꾸면 함께 올린다 (쿼리 플랜 캐시 키에 들어간다).
+ * @param categoryKeywords 대분류 → 용어
+ * @param domainPatterns   도메인 그룹 → 키워드로 뽑을 용어
+ * @param regions          키워드로 뽑을 지역 표현
+ * @param agencies         지역 표현 → 제공기관. 키는 관련도 점수에서 지역 키워드로도 쓴다.
+ * @param specialTerms     설명에 있으면 관련도 가산점을 주는 용어
+ */
+public record SearchDictionary(String version,
+                               Map<String, List<String>> categoryKeywords,
+                               Map<String, List<String>> domainPatterns,
+                               List<String> regions,
+                               Map<String, String> agencies,
+                               List<String> dateTerms,
+                               List<String> lastYearTerms,
+                               List<String> thisYearTerms,
+                               List<String> manyTerms,
+                               List<String> briefTerms,
+                               List<String> stopWords,
+                               List<String> nouns,
+                               List<String> suffixes,
+                               List<String> predicateEndings,
+                               List<String> counters,
+                               List<String> specialTerms) {
+
+    public static final String BUNDLED_RESOURCE = "/dictionaries/search-dictionary.json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final SearchDictionary BUNDLED = loadBundled();
+
+    public SearchDictionary {
+        if (version == null || version.isBlank()) {
+            throw new IllegalArgumentException("사전 version 이 없습니다.");
+        }
+        requirePresent("categoryKeywords", categoryKeywords);
+        requirePresent("domainPatterns", domainPatterns);
+        requirePresent("regions", regions);
+        requirePresent("agencies", agencies);
+        requirePresent("dateTerms", dateTerms);
+        requirePresent("lastYearTerms", lastYearTerms);
+        requirePresent("thisYearTerms", thisYearTerms);
+        requirePresent("manyTerms", manyTerms);
+        requirePresent("briefTerms", briefTerms);
+        requirePresent("stopWords", stopWords);
+        requirePresent("nouns", nouns);
+        requirePresent("suffixes", suffixes);
+        requirePresent("predicateEndings", predicateEndings);
+        requirePresent("counters", counters);
+        requirePresent("specialTerms", specialTerms);
+    }
+
+    /** 애플리케이션에 들어 있는 기본 사전 */
+    public static SearchDictionary bundled() {
+        return BUNDLED;
+    }
+
+    public static SearchDictionary parse(InputStream in) throws IOException {
+        return OBJECT_MAPPER.readValue(in, SearchDictionary.class);
+    }
+
+    /** 제공기관으로 이어지는 지역 키워드인지 (관련도 점수의 "지역 키워드") */
+    public boolean isRegionKeyword(String keyword) {
+        return agencies.containsKey(keyword);
+    }
+
+    private static void requirePresent(String field, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("사전에 " + field + " 항목이 없습니다.");
+        }
+    }
+
+    private static SearchDictionary loadBundled() {
+        try (InputStream in = SearchDictionary.class.getResourceAsStream(BUNDLED_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("기본 사전 " + BUNDLED_RESOURCE + " 을 찾을 수 없습니다.");
+            }
+            return parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("기본 사전을 읽지 못했습니다: " + BUNDLED_RESOURCE, e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.oda.prompt.search;
+
+/**
+ * 새 버전의 검색 사전으로 바뀜. 모든 {@link SearchDictionaryParticipant} 가 새 사전으로 바뀐 뒤에 발행된다.
+ * 이전 사전으로 계산해 둔 결과(검색 결과 캐시, 페이지 버퍼)를 버리는 데 쓴다.
+ *
+ * @param previousVersion 바뀌기 전 사전 버전
+ */
+public record SearchDictionaryChangedEvent(SearchDictionary dictionary, String previousVersion) {
+}
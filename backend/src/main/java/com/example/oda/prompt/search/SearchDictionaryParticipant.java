@@ -0,0 +1,15 @@
+package com.example.oda.prompt.search;
+
+/**
+ * 검색 사전으로 매처 등을 만들어 쓰는 쪽. {@link SearchDictionaryRegistry} 는 새 사전이 오면 모든 참여자의
+ * {@link #prepare} 를 먼저 부르고, 전부 성공했을 때만 돌려받은 교체 작업을 한꺼번에 실행한다.
+ * 하나라도 실패하면 아무것도 바꾸지 않고 이전 사전을 계속 쓴다.
+ */
+public interface SearchDictionaryParticipant {
+
+    /**
+     * next 로 쓸 것을 모두 만들어 두고, 그것으로 참조를 바꾸는 작업을 돌려준다. 교체 작업은 참조 대입만 해야 한다.
+     * 만들 수 없으면 예외를 던진다.
+     */
+    Runnable prepare(SearchDictionary next);
+}
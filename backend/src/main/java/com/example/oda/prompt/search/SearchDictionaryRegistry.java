@@ -0,0 +1,143 @@
+package com.example.oda.prompt.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 현재 검색 사전({@link SearchDictionary})의 출처와 버전.
+ * <p>
+ * search.dictionary.location 에 JSON 파일을 지정하면 기동 시와 주기적으로(수정 시각이 바뀌었을 때) 다시 읽는다.
+ * version 이 바뀐 경우에만 모든 {@link SearchDictionaryParticipant}(플래너, 관련도 점수)가 이 스케줄러 스레드에서 매처를
+ * 먼저 만들어 두고, 전부 성공하면 한꺼번에 바꾼 뒤 {@link SearchDictionaryChangedEvent} 를 발행한다.
+ * 읽기에 실패하거나 형식이 틀리거나 매처를 만들지 못하면 아무것도 바꾸지 않고 이전 사전을 계속 쓰며, 다음 주기에 다시 읽는다.
+ */
+@Component
+public class SearchDictionaryRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchDictionaryRegistry.class);
+
+    private static final String BUNDLED_SOURCE = "classpath:" + SearchDictionary.BUNDLED_RESOURCE;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<SearchDictionaryParticipant> participants;
+    private final String location;
+
+    private final AtomicReference<SearchDictionary> current = new AtomicReference<>(SearchDictionary.bundled());
+    private volatile String source = BUNDLED_SOURCE;
+    private volatile LocalDateTime loadedAt = LocalDateTime.now();
+    private volatile String lastError;
+    // 마지막으로 적재에 성공한 파일의 수정 시각 (reload 안에서만 쓴다)
+    private long lastModified = -1;
+
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public SearchDictionaryRegistry(ApplicationEventPublisher eventPublisher,
+                                    List<SearchDictionaryParticipant> participants,
+                                    @Value("${search.dictionary.location:}") String location) {
+        this.eventPublisher = eventPublisher;
+        this.participants = participants;
+        this.location = location;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (location.isBlank()) {
+            log.info("검색 사전: 기본 사전 사용 (버전 {})", current.get().version());
+            return;
+        }
+        reload(false);
+    }
+
+    @Scheduled(initialDelayString = "${search.dictionary.refresh-interval-ms:30000}",
+            fixedDelayString = "${search.dictionary.refresh-interval-ms:30000}")
+    public void refreshIfModified() {
+        if (!location.isBlank()) {
+            reload(false);
+        }
+    }
+
+    /**
+     * 사전 파일을 다시 읽는다. force 면 수정 시각이 같아도 읽는다. 사전을 읽는 요청은 이 메서드를 기다리지 않는다.
+     * 실패하면 수정 시각을 기록하지 않으므로 파일이 그대로여도 다음 주기에 다시 시도한다.
+     */
+    public synchronized Status reload(boolean force) {
+        if (location.isBlank()) {
+            return status();
+        }
+        SearchDictionaryChangedEvent changed = null;
+        try {
+            Path path = Path.of(location);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (!force && modified == lastModified) {
+                return status();
+            }
+            SearchDictionary next;
+            try (InputStream in = Files.newInputStream(path)) {
+                next = SearchDictionary.parse(in);
+            }
+
+            SearchDictionary previous = current.get();
+            if (next.version().equals(previous.version())) {
+                lastModified = modified;
+                log.info("검색 사전 {} 의 버전({})이 현재와 같아 다시 적재하지 않습니다.", location, next.version());
+                return status();
+            }
+            long startTime = System.currentTimeMillis();
+            // 모두 만들어 본 뒤에만 바꾼다. 하나라도 실패하면 여기서 예외로 빠져 아무것도 바뀌지 않는다.
+            List<Runnable> swaps = new ArrayList<>(participants.size());
+            for (SearchDictionaryParticipant participant : participants) {
+                swaps.add(participant.prepare(next));
+            }
+            swaps.forEach(Runnable::run);
+            current.set(next);
+            lastModified = modified;
+            source = location;
+            loadedAt = LocalDateTime.now();
+            lastError = null;
+            reloads.incrementAndGet();
+            log.info("검색 사전 교체: {} → {} ({}ms 소요)", previous.version(), next.version(), System.currentTimeMillis() - startTime);
+            changed = new SearchDictionaryChangedEvent(next, previous.version());
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            lastError = e.getMessage();
+            log.warn("검색 사전 {} 적재 실패, 버전 {} 을 계속 씁니다: {}", location, current.get().version(), e.getMessage(), e);
+        }
+        if (changed != null) {
+            eventPublisher.publishEvent(changed);
+        }
+        return status();
+    }
+
+    public SearchDictionary current() {
+        return current.get();
+    }
+
+    public Status status() {
+        return new Status(current.get().version(), source, loadedAt, reloads.get(), failures.get(), lastError);
+    }
+
+    /**
+     * @param reloads   기동 후 사전이 바뀐 횟수
+     * @param failures  읽기/형식 오류로 이전 사전을 유지한 횟수
+     * @param lastError 마지막 적재가 실패했다면 그 이유
+     */
+    public record Status(String version, String source, LocalDateTime loadedAt, long reloads, long failures,
+                         String lastError) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.repository.SearchField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 쿼리 플랜 단위의 검색 결과 캐시 (검색 → 중복 제거 → 관련도 정렬 결과).
+ * <p>
+ * 표현만 다른 프롬프트("서울 교통 데이터", "서울 교통 관련 데이터")는 같은 플랜이 되므로 같은 결과를 재사용한다.
+ * 크기는 결과 문자열의 대략적인 바이트 수로 제한하며(LRU 로 밀어냄), 항목은 TTL 이 지나거나
+ * {@link CatalogChangedEvent} 를 받으면 버린다.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultCache.class);
+
+    // 항목 하나와 PublicData 한 건의 고정 비용 추정치 (객체 헤더, 참조, 맵 노드)
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+    private static final long RESULT_OVERHEAD_BYTES = 96;
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+    // 조회 중에 카탈로그가 바뀌면 그 결과는 저장하지 않는다.
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SearchResultCache(@Value("${search.cache.enabled:true}") boolean enabled,
+                             @Value("${search.cache.max-bytes:16777216}") long maxBytes,
+                             @Value("${search.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * 플랜의 캐시된 결과를 돌려주고, 없으면 loader 로 계산해 저장한다.
+     */
+    public SearchOutcome get(QueryPlanDto plan, Supplier<SearchOutcome> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = Key.of(plan);
+        long startGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.createdAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.outcome;
+                }
+                remove(key, entry);
+                expirations.incrementAndGet();
+            }
+            startGeneration = generation;
+        }
+        misses.incrementAndGet();
+
+        // 계산은 잠금 밖에서 한다. 같은 플랜이 동시에 들어오면 중복 계산될 수 있지만 결과는 같다.
+        SearchOutcome outcome = loader.get();
+        long weight = weigh(key, outcome);
+        if (weight > maxBytes) {
+            return outcome;
+        }
+        synchronized (this) {
+            if (generation != startGeneration) {
+                return outcome;
+            }
+            Entry previous = entries.put(key, new Entry(outcome, weight, System.nanoTime()));
+            if (previous != null) {
+                currentBytes -= previous.weight;
+            }
+            currentBytes += weight;
+            evictToFit();
+        }
+        return outcome;
+    }
+
+    // 파생 색인 리스너보다 먼저 비워, 그쪽 갱신이 실패해도 예전 카탈로그의 결과가 남지 않게 한다.
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        invalidateAll();
+        log.info("카탈로그 변경({}건, 전체 재적재: {})으로 검색 결과 캐시를 비웠습니다.", event.changedRows(), event.fullReload());
+    }
+
+    // 키워드 확장과 점수가 사전에 따라 달라지므로 이전 사전으로 만든 결과도 버린다.
+    @EventListener
+    public void onDictionaryChanged(SearchDictionaryChangedEvent event) {
+        invalidateAll();
+        log.info("검색 사전 변경({} → {})으로 검색 결과 캐시를 비웠습니다.", event.previousVersion(), event.dictionary().version());
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+        currentBytes = 0;
+        generation++;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), expirations.get(), invalidations.get(),
+                entries.size(), currentBytes, maxBytes);
+    }
+
+    // 가장 오래 쓰이지 않은 항목부터 밀어낸다.
+    private void evictToFit() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            currentBytes -= eldest.getValue().weight;
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        currentBytes -= entry.weight;
+    }
+
+    private static long weigh(Key key, SearchOutcome outcome) {
+        long bytes = ENTRY_OVERHEAD_BYTES;
+        for (String keyword : key.keywords()) {
+            bytes += 2L * keyword.length();
+        }
+        for (PublicData data : outcome.topResults()) {
+            bytes += RESULT_OVERHEAD_BYTES;
+            for (SearchField field : SearchField.values()) {
+                String value = field.valueOf(data);
+                if (value != null) {
+                    bytes += 2L * value.length();
+                }
+            }
+            if (data.getClassificationSystem() != null) {
+                bytes += 2L * data.getClassificationSystem().length();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 플랜의 정규형. 관련도 점수는 키워드 순서(첫 키워드 가중치, 이어 붙인 키워드 일치)에 따라 달라지므로
+     * 키워드는 정렬하지 않고 순서대로 비교한다.
+     */
+    record Key(List<String> keywords, String majorCategory, Integer searchYear, String providerAgency,
+               boolean hasDateFilter, int limit) {
+
+        static Key of(QueryPlanDto plan) {
+            return new Key(
+                    plan.getKeywords() != null ? List.copyOf(plan.getKeywords()) : List.of(),
+                    normalize(plan.getMajorCategory()),
+                    plan.getSearchYear(),
+                    normalize(plan.getProviderAgency()),
+                    plan.isHasDateFilter(),
+                    plan.getLimit());
+        }
+
+        private static String normalize(String value) {
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    private record Entry(SearchOutcome outcome, long weight, long createdAt) {
+    }
+
+    /**
+     * 캐시되는 검색 결과.
+     *
+     * @param uniqueCount 중복 제거 후 후보 수 (0 이면 검색 결과 없음)
+     * @param topResults  관련도순 상위 결과
+     */
+    public record SearchOutcome(int uniqueCount, List<PublicData> topResults) {
+    }
+
+    public record CacheStats(long hits, long misses, long evictions, long expirations, long invalidations,
+                             int size, long bytes, long maxBytes) {
+    }
+}
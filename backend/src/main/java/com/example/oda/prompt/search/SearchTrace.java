@@ -0,0 +1,56 @@
+package com.example.oda.prompt.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 검색 설명(explain) 모드에서 단계별 소요 시간과 행 수를 모은다.
+ * <p>
+ * 요청 스레드에 {@link #begin()} 으로 붙이고, 각 단계는 {@link #current()} 가 null 이 아닐 때만 기록한다.
+ * 설명 모드가 아니면 단계마다 ThreadLocal 조회 한 번 외에는 아무 일도 하지 않는다.
+ * 병렬 조회처럼 다른 스레드에서 잰 값은 요청 스레드로 돌아와 기록한다.
+ */
+public final class SearchTrace implements AutoCloseable {
+
+    private static final ThreadLocal<SearchTrace> CURRENT = new ThreadLocal<>();
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    private SearchTrace() {
+    }
+
+    public static SearchTrace begin() {
+        SearchTrace trace = new SearchTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /** 현재 스레드의 기록기. 설명 모드가 아니면 null */
+    public static SearchTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param startNanos 단계 시작 시각 ({@link System#nanoTime()})
+     * @param rows       단계가 만든 행 수 (의미 없으면 -1)
+     */
+    public void record(String stage, long startNanos, int rows) {
+        recordMillis(stage, (System.nanoTime() - startNanos) / 1_000_000.0, rows);
+    }
+
+    public void recordMillis(String stage, double millis, int rows) {
+        stages.add(new Stage(stage, millis, rows));
+    }
+
+    public List<Stage> stages() {
+        return List.copyOf(stages);
+    }
+
+    @Override
+    public void close() {
+        CURRENT.remove();
+    }
+
+    public record Stage(String name, double millis, int rows) {
+    }
+}
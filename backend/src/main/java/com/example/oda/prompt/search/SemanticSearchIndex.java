@@ -0,0 +1,181 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.SearchField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 제목·키워드·설명을 {@link HashedNgramEmbedder} 로 벡터화해 {@link HnswIndex} 에 담은 의미 검색 색인.
+ * <p>
+ * 외부 모델이나 네트워크 없이 동작한다. {@link CatalogChangedEvent} 를 받을 때마다 현재 카탈로그 사본으로
+ * 별도 스레드에서 다시 만들고(연달아 오면 한 번으로 합침), 다 만든 뒤 통째로 교체한다. 만든 직후에는
+ * 무작위 문서 제목으로 근사 검색과 전수 검색을 비교해 재현율과 지연 시간을 로그와 {@link #benchmark()} 로 남긴다.
+ * <p>
+ * 색인은 만든 시점의 카탈로그를 가리키므로, 검색 결과는 제목으로 현재 카탈로그에서 다시 찾아 돌려준다.
+ * 그 사이 바뀐 행은 현재 값으로, 지워진 행은 빼고 돌려준다. 기본값은 꺼짐(search.semantic.enabled=false).
+ */
+@Component
+public class SemanticSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SemanticSearchIndex.class);
+
+    // 제목, 키워드, 설명 순
+    private static final float[] FIELD_WEIGHTS = {1.0f, 1.0f, 0.5f};
+    private static final int BENCHMARK_QUERIES = 200;
+    private static final int BENCHMARK_K = 10;
+
+    private final PublicDataSearchIndex searchIndex;
+    private final boolean enabled;
+    private final HashedNgramEmbedder embedder;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "semantic-index-build");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    public SemanticSearchIndex(PublicDataSearchIndex searchIndex,
+                               @Value("${search.semantic.enabled:false}") boolean enabled,
+                               @Value("${search.semantic.dimension:256}") int dimension,
+                               @Value("${search.semantic.hnsw.m:16}") int m,
+                               @Value("${search.semantic.hnsw.ef-construction:100}") int efConstruction,
+                               @Value("${search.semantic.hnsw.ef-search:64}") int efSearch) {
+        this.searchIndex = searchIndex;
+        this.enabled = enabled;
+        this.embedder = new HashedNgramEmbedder(dimension);
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (enabled && rebuildPending.compareAndSet(false, true)) {
+            builder.submit(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 질의와 의미가 가까운 데이터를 유사도 순으로 최대 k 건. 유사도가 minSimilarity 미만인 항목과
+     * 현재 카탈로그에 더 이상 없는 항목은 뺀다. 색인이 준비되지 않았으면 빈 목록.
+     */
+    public List<PublicData> findSimilar(String query, int k, double minSimilarity) {
+        Snapshot current = snapshot;
+        if (current == null || query == null || query.isBlank()) {
+            return List.of();
+        }
+        float[] similarities = new float[k];
+        int[] rows = current.index.search(embedder.embed(query), k, efSearch, similarities);
+        CatalogSnapshot latest = searchIndex.catalog();
+        List<PublicData> results = new ArrayList<>(rows.length);
+        for (int i = 0; i < rows.length && similarities[i] >= minSimilarity; i++) {
+            if (latest == current.catalog) {
+                results.add(latest.row(rows[i]));
+                continue;
+            }
+            // 색인을 만든 뒤 카탈로그가 바뀌었으면 제목으로 현재 행을 다시 찾는다
+            int row = latest != null ? latest.rowOf(current.catalog.value(SearchField.TITLE, rows[i])) : -1;
+            if (row >= 0) {
+                results.add(latest.row(row));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 마지막으로 만든 색인의 재현율·지연 시간 측정값. 아직 만들지 않았으면 null.
+     */
+    public Benchmark benchmark() {
+        Snapshot current = snapshot;
+        return current != null ? current.benchmark : null;
+    }
+
+    private void rebuild() {
+        CatalogSnapshot catalog = searchIndex.catalog();
+        if (catalog == null || catalog.size() == 0) {
+            return;
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            HnswIndex index = new HnswIndex(embedder.dimension(), catalog.size(), m, efConstruction);
+            for (int row = 0; row < catalog.size(); row++) {
+                index.add(embedder.embed(new String[]{
+                        catalog.value(SearchField.TITLE, row),
+                        catalog.value(SearchField.KEYWORDS, row),
+                        catalog.value(SearchField.DESCRIPTION, row)}, FIELD_WEIGHTS));
+            }
+            long buildMillis = System.currentTimeMillis() - startTime;
+            Benchmark benchmark = measure(catalog, index, buildMillis);
+            this.snapshot = new Snapshot(catalog, index, benchmark);
+            log.info("의미 검색 색인 구축 완료: {}건, {}ms (벡터 {}KB 힙 밖, 링크 {}KB)",
+                    index.size(), buildMillis, index.offHeapBytes() / 1024, index.linkBytes() / 1024);
+            log.info("의미 검색 벤치마크: 질의 {}개, recall@{}={}, HNSW 평균 {}us, 전수 비교 평균 {}us",
+                    benchmark.queries(), BENCHMARK_K, String.format("%.3f", benchmark.recall()),
+                    benchmark.hnswMicros(), benchmark.bruteForceMicros());
+        } catch (Exception e) {
+            log.warn("의미 검색 색인 구축 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    // 무작위 문서의 제목을 질의로 삼아 근사 검색 결과가 전수 검색 상위 k 건을 얼마나 찾는지 잰다.
+    private Benchmark measure(CatalogSnapshot catalog, HnswIndex index, long buildMillis) {
+        Random random = new Random(7);
+        int queries = Math.min(BENCHMARK_QUERIES, catalog.size());
+        long hnswNanos = 0;
+        long bruteNanos = 0;
+        long found = 0;
+        long expected = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = embedder.embed(catalog.value(SearchField.TITLE, random.nextInt(catalog.size())));
+            long start = System.nanoTime();
+            int[] approximate = index.search(query, BENCHMARK_K, efSearch, null);
+            long middle = System.nanoTime();
+            int[] exact = index.bruteForce(query, BENCHMARK_K);
+            bruteNanos += System.nanoTime() - middle;
+            hnswNanos += middle - start;
+
+            expected += exact.length;
+            for (int node : exact) {
+                for (int candidate : approximate) {
+                    if (candidate == node) {
+                        found++;
+                        break;
+                    }
+                }
+            }
+        }
+        double recall = expected == 0 ? 1 : (double) found / expected;
+        return new Benchmark(index.size(), queries, recall, hnswNanos / Math.max(1, queries) / 1_000,
+                bruteNanos / Math.max(1, queries) / 1_000, buildMillis, index.offHeapBytes());
+    }
+
+    public record Benchmark(int documents, int queries, double recall, long hnswMicros, long bruteForceMicros,
+                            long buildMillis, long offHeapBytes) {
+    }
+
+    private record Snapshot(CatalogSnapshot catalog, HnswIndex index, Benchmark benchmark) {
+    }
+}
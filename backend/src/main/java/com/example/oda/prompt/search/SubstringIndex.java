@@ -0,0 +1,359 @@
+package com.example.oda.prompt.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * 한 컬럼에 대한 부분 문자열(contains) 역색인.
+ * <p>
+ * 소문자화한 값에서 문자 bigram 과 공백/기호로 나눈 전체 토큰을 색인한다. 질의는 bigram posting 교집합으로 후보를 좁힌 뒤
+ * 원본 값에 대해 검증하므로 결과는 기존 {@code UPPER(col) LIKE UPPER('%kw%')} 조회와 같다.
+ * 값 자체는 복사해 두지 않고 {@link Values} 로만 읽는다 (카탈로그 색인은 {@link CatalogSnapshot} 의 바이트 배열을 직접 검사한다).
+ */
+final class SubstringIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * 색인할 값의 원본. 색인은 구축과 변경 반영 때만 값을 문자열로 읽고, 질의 때는 {@link #containing} 으로 검증만 한다.
+     */
+    interface Values {
+
+        int size();
+
+        /** 문서의 소문자화된 값 (null 허용). 색인 구축과 변경 반영 때만 부른다. */
+        String lowerValue(int docId);
+
+        /** 소문자화된 값이 lowerQuery 를 포함하는 문서를 고르는 검사. 질의마다 한 번 만든다. */
+        IntPredicate containing(String lowerQuery);
+
+        /** 이미 소문자화된 문자열 배열을 그대로 원본으로 쓴다. */
+        static Values of(String[] lowerValues) {
+            return new Values() {
+                @Override
+                public int size() {
+                    return lowerValues.length;
+                }
+
+                @Override
+                public String lowerValue(int docId) {
+                    return lowerValues[docId];
+                }
+
+                @Override
+                public IntPredicate containing(String lowerQuery) {
+                    return docId -> lowerValues[docId] != null && lowerValues[docId].contains(lowerQuery);
+                }
+            };
+        }
+    }
+
+    private final Values values;
+    private final int[] gramKeys;
+    private final int[] gramOffsets;
+    private final int[] gramPostings;
+    private final Map<String, int[]> tokenPostings;
+
+    private SubstringIndex(Values values, int[] gramKeys, int[] gramOffsets, int[] gramPostings,
+                           Map<String, int[]> tokenPostings) {
+        this.values = values;
+        this.gramKeys = gramKeys;
+        this.gramOffsets = gramOffsets;
+        this.gramPostings = gramPostings;
+        this.tokenPostings = tokenPostings;
+    }
+
+    /**
+     * @param lowerValues 문서 id 순서의 소문자화된 컬럼 값 (null 허용). 색인이 배열을 그대로 참조한다.
+     */
+    static SubstringIndex build(String[] lowerValues) {
+        return build(Values.of(lowerValues));
+    }
+
+    static SubstringIndex build(Values values) {
+        Map<Integer, IntList> grams = new HashMap<>();
+        Map<String, IntList> tokens = new HashMap<>();
+        for (int docId = 0; docId < values.size(); docId++) {
+            collect(values.lowerValue(docId), docId, grams, tokens);
+        }
+
+        int[] keys = sortedKeys(grams.keySet());
+        int[] offsets = new int[keys.length + 1];
+        int total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            offsets[i] = total;
+            total += grams.get(keys[i]).size();
+        }
+        offsets[keys.length] = total;
+
+        int[] postings = new int[total];
+        for (int i = 0; i < keys.length; i++) {
+            IntList list = grams.get(keys[i]);
+            for (int j = 0; j < list.size(); j++) {
+                postings[offsets[i] + j] = list.get(j);
+            }
+        }
+
+        Map<String, int[]> tokenPostings = new HashMap<>(tokens.size() * 2);
+        tokens.forEach((token, list) -> tokenPostings.put(token, list.toArray()));
+
+        return new SubstringIndex(values, keys, offsets, postings, tokenPostings);
+    }
+
+    /**
+     * 일부 문서만 바뀐 원본에 맞춘 색인. 바뀐 문서가 쓰던(또는 새로 쓰는) bigram·토큰의 posting 만 다시 만들고
+     * 나머지 구간은 그대로 복사한다. 바뀐 문서의 예전 값은 이 색인의 원본에서 읽는다.
+     *
+     * @param changed 값이 바뀌었거나 새로 추가된 문서 id (새 원본 기준). 기존 문서 id 는 유지되어야 한다.
+     */
+    SubstringIndex withChanges(Values newValues, BitSet changed) {
+        Set<Integer> removedGrams = new HashSet<>();
+        Set<String> removedTokens = new HashSet<>();
+        Map<Integer, IntList> addedGrams = new HashMap<>();
+        Map<String, IntList> addedTokens = new HashMap<>();
+        for (int docId = changed.nextSetBit(0); docId >= 0; docId = changed.nextSetBit(docId + 1)) {
+            if (docId < values.size()) {
+                String previous = values.lowerValue(docId);
+                if (previous != null) {
+                    for (int i = 0; i + 1 < previous.length(); i++) {
+                        removedGrams.add(gramKey(previous.charAt(i), previous.charAt(i + 1)));
+                    }
+                    removedTokens.addAll(tokenize(previous));
+                }
+            }
+            collect(newValues.lowerValue(docId), docId, addedGrams, addedTokens);
+        }
+
+        // 기존 키와 새 키를 합쳐 정렬 순서대로 posting 을 다시 이어 붙인다.
+        Set<Integer> keySet = new HashSet<>(addedGrams.keySet());
+        for (int key : gramKeys) {
+            keySet.add(key);
+        }
+        int[] keys = sortedKeys(keySet);
+        int[][] rebuilt = new int[keys.length][];
+        int[] offsets = new int[keys.length + 1];
+        int total = 0;
+        int kept = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = Arrays.binarySearch(gramKeys, keys[i]);
+            int length;
+            if (removedGrams.contains(keys[i]) || addedGrams.containsKey(keys[i])) {
+                int[] previous = slot >= 0 ? Arrays.copyOfRange(gramPostings, gramOffsets[slot], gramOffsets[slot + 1]) : EMPTY;
+                rebuilt[i] = merge(previous, changed, addedGrams.get(keys[i]));
+                length = rebuilt[i].length;
+            } else {
+                length = gramOffsets[slot + 1] - gramOffsets[slot];
+            }
+            offsets[i] = total;
+            total += length;
+            if (length > 0) {
+                kept++;
+            }
+        }
+        offsets[keys.length] = total;
+
+        int[] postings = new int[total];
+        int[] compactKeys = new int[kept];
+        int[] compactOffsets = new int[kept + 1];
+        int k = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int length = offsets[i + 1] - offsets[i];
+            if (length == 0) {
+                continue;
+            }
+            if (rebuilt[i] != null) {
+                System.arraycopy(rebuilt[i], 0, postings, offsets[i], length);
+            } else {
+                int slot = Arrays.binarySearch(gramKeys, keys[i]);
+                System.arraycopy(gramPostings, gramOffsets[slot], postings, offsets[i], length);
+            }
+            compactKeys[k] = keys[i];
+            compactOffsets[k++] = offsets[i];
+        }
+        compactOffsets[kept] = total;
+
+        Map<String, int[]> tokens = new HashMap<>(tokenPostings);
+        Set<String> touchedTokens = new HashSet<>(removedTokens);
+        touchedTokens.addAll(addedTokens.keySet());
+        for (String token : touchedTokens) {
+            int[] merged = merge(tokenPostings.getOrDefault(token, EMPTY), changed, addedTokens.get(token));
+            if (merged.length == 0) {
+                tokens.remove(token);
+            } else {
+                tokens.put(token, merged);
+            }
+        }
+        return new SubstringIndex(newValues, compactKeys, compactOffsets, postings, tokens);
+    }
+
+    /**
+     * 값에 {@code lowerQuery} 를 포함하는 문서 id 를 오름차순으로 돌려준다.
+     */
+    int[] findContaining(String lowerQuery) {
+        if (lowerQuery.length() < 2) {
+            return scan(lowerQuery);
+        }
+
+        // 질의의 bigram 별 posting 구간을 모아 짧은 것부터 교집합
+        int gramCount = lowerQuery.length() - 1;
+        int[][] ranges = new int[gramCount][];
+        int distinct = 0;
+        for (int i = 0; i < gramCount; i++) {
+            int slot = Arrays.binarySearch(gramKeys, gramKey(lowerQuery.charAt(i), lowerQuery.charAt(i + 1)));
+            if (slot < 0) {
+                return EMPTY;
+            }
+            boolean seen = false;
+            for (int j = 0; j < distinct; j++) {
+                if (ranges[j][0] == gramOffsets[slot]) {
+                    seen = true;
+                    break;
+                }
+            }
+            if (!seen) {
+                ranges[distinct++] = new int[]{gramOffsets[slot], gramOffsets[slot + 1]};
+            }
+        }
+        int[][] sorted = Arrays.copyOf(ranges, distinct);
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a[1] - a[0], b[1] - b[0]));
+
+        int[] candidates = Arrays.copyOfRange(gramPostings, sorted[0][0], sorted[0][1]);
+        int candidateCount = candidates.length;
+        for (int r = 1; r < sorted.length && candidateCount > 0; r++) {
+            candidateCount = intersectInPlace(candidates, candidateCount, sorted[r][0], sorted[r][1]);
+        }
+
+        if (lowerQuery.length() == 2) {
+            return candidateCount == candidates.length ? candidates : Arrays.copyOf(candidates, candidateCount);
+        }
+
+        // bigram 이 모두 있어도 연속해서 나타나는지는 모르므로 검증한다. 전체 토큰이 일치하는 문서는 검증을 건너뛴다.
+        int[] exactTokens = tokenPostings.getOrDefault(lowerQuery, EMPTY);
+        IntPredicate containing = values.containing(lowerQuery);
+        int verified = 0;
+        int t = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int docId = candidates[i];
+            while (t < exactTokens.length && exactTokens[t] < docId) {
+                t++;
+            }
+            boolean tokenHit = t < exactTokens.length && exactTokens[t] == docId;
+            if (tokenHit || containing.test(docId)) {
+                candidates[verified++] = docId;
+            }
+        }
+        return Arrays.copyOf(candidates, verified);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    /**
+     * posting 배열과 토큰 표가 차지하는 대략적인 메모리 (원본 값은 제외).
+     */
+    long memoryBytes() {
+        long bytes = 4L * (gramKeys.length + gramOffsets.length + gramPostings.length);
+        for (Map.Entry<String, int[]> entry : tokenPostings.entrySet()) {
+            // HashMap 노드 + 키 문자열 + posting 배열
+            bytes += 32 + 40 + 2L * entry.getKey().length() + 16 + 4L * entry.getValue().length;
+        }
+        return bytes;
+    }
+
+    private int intersectInPlace(int[] candidates, int count, int from, int to) {
+        int kept = 0;
+        int p = from;
+        for (int i = 0; i < count && p < to; i++) {
+            int docId = candidates[i];
+            while (p < to && gramPostings[p] < docId) {
+                p++;
+            }
+            if (p < to && gramPostings[p] == docId) {
+                candidates[kept++] = docId;
+            }
+        }
+        return kept;
+    }
+
+    private int[] scan(String lowerQuery) {
+        IntPredicate containing = values.containing(lowerQuery);
+        IntList hits = new IntList();
+        for (int docId = 0; docId < values.size(); docId++) {
+            if (containing.test(docId)) {
+                hits.add(docId);
+            }
+        }
+        return hits.toArray();
+    }
+
+    private static void collect(String value, int docId, Map<Integer, IntList> grams, Map<String, IntList> tokens) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i + 1 < value.length(); i++) {
+            grams.computeIfAbsent(gramKey(value.charAt(i), value.charAt(i + 1)), k -> new IntList())
+                    .addIfLastDiffers(docId);
+        }
+        for (String token : tokenize(value)) {
+            tokens.computeIfAbsent(token, k -> new IntList()).addIfLastDiffers(docId);
+        }
+    }
+
+    // 기존 posting 에서 바뀐 문서를 빼고 새로 모은 문서를 끼워 넣는다. 둘 다 오름차순이다.
+    private static int[] merge(int[] previous, BitSet changed, IntList added) {
+        int addedSize = added != null ? added.size() : 0;
+        int[] merged = new int[previous.length + addedSize];
+        int count = 0;
+        int a = 0;
+        for (int docId : previous) {
+            if (changed.get(docId)) {
+                continue;
+            }
+            while (a < addedSize && added.get(a) < docId) {
+                merged[count++] = added.get(a++);
+            }
+            merged[count++] = docId;
+        }
+        while (a < addedSize) {
+            merged[count++] = added.get(a++);
+        }
+        return count == merged.length ? merged : Arrays.copyOf(merged, count);
+    }
+
+    private static int[] sortedKeys(Set<Integer> keySet) {
+        int[] keys = new int[keySet.size()];
+        int k = 0;
+        for (Integer key : keySet) {
+            keys[k++] = key;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static int gramKey(char first, char second) {
+        return (first << 16) | second;
+    }
+
+    private static List<String> tokenize(String value) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            boolean wordChar = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(value.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.oda.prompt.search;
+
+import java.util.Arrays;
+
+/**
+ * 점수 배열에서 상위 k 개의 위치를 고른다. 점수 내림차순, 동점이면 앞선 위치가 먼저이며
+ * 전체를 안정 정렬한 뒤 앞에서 k 개를 자른 결과와 같다. 크기 k 의 최소 힙만 쓰므로 O(n log k).
+ */
+public final class TopKSelector {
+
+    private TopKSelector() {
+    }
+
+    public static int[] select(double[] scores, int k) {
+        int size = Math.min(Math.max(k, 0), scores.length);
+        if (size == 0) {
+            return new int[0];
+        }
+
+        // heap[0] 은 지금까지 고른 것 중 가장 나쁜 후보
+        int[] heap = new int[size];
+        int count = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (count < size) {
+                heap[count] = i;
+                siftUp(heap, count++, scores);
+            } else if (isWorse(heap[0], i, scores)) {
+                heap[0] = i;
+                siftDown(heap, count, scores);
+            }
+        }
+
+        Integer[] ordered = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            ordered[i] = heap[i];
+        }
+        Arrays.sort(ordered, (a, b) -> isWorse(a, b, scores) ? 1 : -1);
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ordered[i];
+        }
+        return result;
+    }
+
+    // a 가 b 보다 순위가 낮은가 (점수가 낮거나, 동점이면 뒤에 있는가)
+    private static boolean isWorse(int a, int b, double[] scores) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && a > b);
+    }
+
+    private static void siftUp(int[] heap, int index, double[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(heap[index], heap[parent], scores)) {
+                break;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int count, double[] scores) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= count) {
+                break;
+            }
+            int right = left + 1;
+            int worst = right < count && isWorse(heap[right], heap[left], scores) ? right : left;
+            if (!isWorse(heap[worst], heap[index], scores)) {
+                break;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.prompt.dto.SuggestionDto;
+import com.example.oda.repository.SearchField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 파일데이터명·제목 자동완성 색인. 입력할 때마다 호출되므로 DB 를 거치지 않고 {@link PrefixSuggester} 로만 답한다.
+ * <p>
+ * 순위 가중치는 데이터의 수정일(최근일수록 앞)이며, {@link CatalogChangedEvent} 를 받으면 현재 카탈로그 사본으로
+ * 다시 만들어 통째로 교체한다.
+ */
+@Component
+public class TypeaheadIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TypeaheadIndex.class);
+    private static final int MAX_LIMIT = 50;
+
+    private final PublicDataSearchIndex searchIndex;
+
+    private volatile Snapshot snapshot;
+
+    public TypeaheadIndex(PublicDataSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            CatalogSnapshot catalog = searchIndex.catalog();
+            if (catalog == null) {
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            int size = catalog.size();
+            String[] keys = new String[size * 2];
+            int[] rows = new int[size * 2];
+            SearchField[] fields = new SearchField[size * 2];
+            int[] weights = new int[size * 2];
+            for (int row = 0; row < size; row++) {
+                LocalDateTime modified = catalog.modifiedDate(row);
+                int weight = modified != null ? (int) modified.toLocalDate().toEpochDay() : 0;
+                for (SearchField field : new SearchField[]{SearchField.FILE_DATA_NAME, SearchField.TITLE}) {
+                    int key = row * 2 + (field == SearchField.TITLE ? 1 : 0);
+                    keys[key] = catalog.value(field, row);
+                    rows[key] = row;
+                    fields[key] = field;
+                    weights[key] = weight;
+                }
+            }
+            PrefixSuggester suggester = PrefixSuggester.build(keys, rows, fields, weights);
+            this.snapshot = new Snapshot(catalog, suggester);
+            log.info("자동완성 색인 구축 완료: 키 {}개, 약 {}KB ({}ms 소요)",
+                    suggester.keyCount(), suggester.memoryBytes() / 1024, System.currentTimeMillis() - startTime);
+        } catch (RuntimeException e) {
+            log.warn("자동완성 색인 갱신 실패, 이전 색인을 계속 씁니다: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 입력 중인 문자열로 시작하는 파일데이터명 또는 제목을 최대 limit 건 (공백·대소문자 무시).
+     * 색인이 아직 없으면 빈 목록.
+     */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        if (current == null || prefix == null) {
+            return List.of();
+        }
+        long startTime = System.nanoTime();
+        List<PrefixSuggester.Match> matches = current.suggester.suggest(prefix, Math.min(Math.max(limit, 1), MAX_LIMIT));
+        List<SuggestionDto> suggestions = new ArrayList<>(matches.size());
+        for (PrefixSuggester.Match match : matches) {
+            suggestions.add(new SuggestionDto(
+                    current.catalog.value(SearchField.FILE_DATA_NAME, match.row()),
+                    current.catalog.value(SearchField.TITLE, match.row()),
+                    current.catalog.value(SearchField.PROVIDER_AGENCY, match.row()),
+                    match.field().getLabel()));
+        }
+        log.debug("자동완성 '{}': {}건, {}us", prefix, suggestions.size(), (System.nanoTime() - startTime) / 1_000);
+        return suggestions;
+    }
+
+    private record Snapshot(CatalogSnapshot catalog, PrefixSuggester suggester) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.oda.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PostgreSQL 전용 검색 스키마(pg_trgm GIN 색인, tsvector 컬럼 + 트리거)를 준비하고 사용 가능 여부를 알려준다.
+ * PostgreSQL 이 아니거나(H2 테스트 등) 준비에 실패하면 두 기능 모두 사용 불가로 보고 기존 LIKE 조회를 쓴다.
+ * <p>
+ * 스키마 생성(search.postgres.manage-schema)은 기본으로 꺼져 있다. 켜면 색인은 CONCURRENTLY 로 만들고,
+ * 트리거는 없을 때만 만들며, search_vector 는 비어 있는 행만 나눠서 채우므로 다시 기동해도 테이블을 다시 쓰지 않는다.
+ */
+@Component
+public class PostgresSearchSchema {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresSearchSchema.class);
+
+    // 제공기관은 요청 범위 밖이지만 같은 LIKE 조건에 쓰이므로 함께 색인한다.
+    // CONCURRENTLY 로 만들어 색인을 만드는 동안에도 쓰기를 막지 않는다 (트랜잭션 밖, 자동 커밋에서만 가능).
+    private static final List<String> TRIGRAM_INDEX_DDL = List.of(
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_filedata_title_trgm ON public.filedata USING gin (제목 gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_filedata_filedataname_trgm ON public.filedata USING gin (파일데이터명 gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_filedata_keywords_trgm ON public.filedata USING gin (키워드 gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_filedata_description_trgm ON public.filedata USING gin (설명 gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_filedata_provideragency_trgm ON public.filedata USING gin (제공기관 gin_trgm_ops)"
+    );
+
+    // trigram 방식을 고르기 전에 모두 있어야 하는 색인 (확장만 있고 색인이 없으면 % 와 ILIKE 가 전체 스캔이 된다)
+    private static final List<String> TRIGRAM_INDEX_NAMES = List.of(
+            "idx_filedata_title_trgm",
+            "idx_filedata_filedataname_trgm",
+            "idx_filedata_keywords_trgm",
+            "idx_filedata_description_trgm",
+            "idx_filedata_provideragency_trgm"
+    );
+
+    private static final String SEARCH_VECTOR_EXPRESSION =
+            "setweight(to_tsvector('simple', coalesce(%1$s제목, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(%1$s파일데이터명, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(%1$s키워드, '')), 'B') || " +
+            "setweight(to_tsvector('simple', coalesce(%1$s제공기관, '')), 'B') || " +
+            "setweight(to_tsvector('simple', coalesce(%1$s설명, '')), 'C')";
+
+    // 트리거가 아직 없을 때만 실행한다 (이미 있으면 컬럼/함수도 있다).
+    private static final List<String> SEARCH_VECTOR_DDL = List.of(
+            "ALTER TABLE public.filedata ADD COLUMN IF NOT EXISTS search_vector tsvector",
+            "CREATE OR REPLACE FUNCTION public.filedata_search_vector_update() RETURNS trigger AS $$ " +
+                    "BEGIN NEW.search_vector := " + SEARCH_VECTOR_EXPRESSION.formatted("NEW.") + "; RETURN NEW; END " +
+                    "$$ LANGUAGE plpgsql",
+            "CREATE TRIGGER filedata_search_vector_trigger BEFORE INSERT OR UPDATE ON public.filedata " +
+                    "FOR EACH ROW EXECUTE FUNCTION public.filedata_search_vector_update()"
+    );
+
+    // 비어 있는 행만, 짧은 트랜잭션 여러 번으로 채운다. 한 번 채운 행은 트리거가 갱신하므로 다시 돌지 않는다.
+    private static final String BACKFILL_BATCH_SQL =
+            "UPDATE public.filedata SET search_vector = " + SEARCH_VECTOR_EXPRESSION.formatted("") +
+            " WHERE ctid = ANY (ARRAY(SELECT ctid FROM public.filedata WHERE search_vector IS NULL LIMIT " +
+            "%d))";
+    private static final int BACKFILL_BATCH_SIZE = 5_000;
+
+    private static final String SEARCH_VECTOR_INDEX_DDL =
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_filedata_search_vector ON public.filedata USING gin (search_vector)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final boolean manageSchema;
+    private final double similarityThreshold;
+
+    private volatile boolean postgres;
+    private volatile boolean trigramReady;
+    private volatile boolean fullTextReady;
+    private volatile double serverSimilarityThreshold;
+
+    public PostgresSearchSchema(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                @Value("${search.postgres.manage-schema:false}") boolean manageSchema,
+                                @Value("${search.trigram.similarity-threshold:0.4}") double similarityThreshold) {
+        if (similarityThreshold < 0 || similarityThreshold > 1) {
+            throw new IllegalArgumentException("search.trigram.similarity-threshold 는 0 ~ 1 사이여야 합니다: " + similarityThreshold);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.manageSchema = manageSchema;
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepare() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            log.warn("DB 종류 확인 실패, PostgreSQL 검색 기능을 사용하지 않습니다: {}", e.getMessage());
+            return;
+        }
+        if (!postgres) {
+            log.info("PostgreSQL 이 아니므로 trigram/전문 검색을 사용하지 않습니다.");
+            return;
+        }
+
+        if (manageSchema) {
+            prepareTrigram();
+            prepareFullText();
+        }
+        trigramReady = exists("SELECT count(*) FROM pg_extension WHERE extname = 'pg_trgm'")
+                && validIndexCount(TRIGRAM_INDEX_NAMES) == TRIGRAM_INDEX_NAMES.size();
+        fullTextReady = exists("SELECT count(*) FROM information_schema.columns " +
+                "WHERE table_schema = 'public' AND table_name = 'filedata' AND column_name = 'search_vector'");
+        if (trigramReady) {
+            checkSimilarityThreshold();
+        }
+        log.info("PostgreSQL 검색 스키마 - pg_trgm(색인 포함): {}, tsvector: {}", trigramReady, fullTextReady);
+    }
+
+    /**
+     * trigram 조회의 {@code %} 연산자는 서버의 pg_trgm.similarity_threshold 를 쓰므로, 설정값이 그보다 낮으면
+     * 실제로는 서버 값이 적용된다. 이 경우 경고를 남기고 {@link #effectiveSimilarityThreshold()} 로 실제 값을 알려준다.
+     */
+    private void checkSimilarityThreshold() {
+        try {
+            // show_limit() 은 pg_trgm 라이브러리를 불러온 뒤 현재 세션의 similarity_threshold 를 돌려준다.
+            Double value = jdbcTemplate.queryForObject("SELECT show_limit()", Double.class);
+            serverSimilarityThreshold = value == null ? 0 : value;
+        } catch (Exception e) {
+            log.warn("pg_trgm.similarity_threshold 확인 실패: {}", e.getMessage());
+            return;
+        }
+        if (similarityThreshold < serverSimilarityThreshold) {
+            log.warn("search.trigram.similarity-threshold({}) 가 서버의 pg_trgm.similarity_threshold({}) 보다 낮아 {} 가 적용됩니다. " +
+                            "더 낮추려면 DB/역할 설정에서 pg_trgm.similarity_threshold 를 함께 낮추세요.",
+                    similarityThreshold, serverSimilarityThreshold, serverSimilarityThreshold);
+        }
+    }
+
+    public boolean isTrigramReady() {
+        return trigramReady;
+    }
+
+    public boolean isFullTextReady() {
+        return fullTextReady;
+    }
+
+    /** trigram 유사 일치에 실제로 적용되는 최소 similarity() 값 (설정값과 서버 pg_trgm.similarity_threshold 중 큰 값) */
+    public double effectiveSimilarityThreshold() {
+        return Math.max(similarityThreshold, serverSimilarityThreshold);
+    }
+
+    private void prepareTrigram() {
+        List<String> statements = new ArrayList<>();
+        statements.add("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        statements.addAll(TRIGRAM_INDEX_DDL);
+        execute("pg_trgm 색인", statements);
+    }
+
+    private void prepareFullText() {
+        if (!exists("SELECT count(*) FROM pg_trigger WHERE tgname = 'filedata_search_vector_trigger'")) {
+            if (!execute("tsvector 컬럼/트리거", SEARCH_VECTOR_DDL)) {
+                return;
+            }
+        }
+        try {
+            long filled = 0;
+            int updated;
+            while ((updated = jdbcTemplate.update(BACKFILL_BATCH_SQL.formatted(BACKFILL_BATCH_SIZE))) > 0) {
+                filled += updated;
+            }
+            if (filled > 0) {
+                log.info("search_vector {}건 채움", filled);
+            }
+        } catch (Exception e) {
+            log.warn("search_vector 채우기 실패: {}", e.getMessage());
+            return;
+        }
+        execute("tsvector 색인", List.of(SEARCH_VECTOR_INDEX_DDL));
+    }
+
+    private boolean execute(String label, List<String> statements) {
+        try {
+            for (String sql : statements) {
+                jdbcTemplate.execute(sql);
+            }
+            log.info("{} 준비 완료", label);
+            return true;
+        } catch (Exception e) {
+            log.warn("{} 준비 실패 (권한 또는 확장 미지원): {}", label, e.getMessage());
+            return false;
+        }
+    }
+
+    // CONCURRENTLY 생성이 중간에 실패하면 INVALID 색인이 남으므로 pg_indexes 에 있고 유효한 것만 센다.
+    private int validIndexCount(List<String> indexNames) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_indexes i " +
+                    "JOIN pg_class c ON c.relname = i.indexname " +
+                    "JOIN pg_namespace n ON n.oid = c.relnamespace AND n.nspname = i.schemaname " +
+                    "JOIN pg_index x ON x.indexrelid = c.oid " +
+                    "WHERE i.schemaname = 'public' AND i.tablename = 'filedata' AND x.indisvalid " +
+                    "AND i.indexname = ANY (?)",
+                    Integer.class, (Object) indexNames.toArray(new String[0]));
+            return count == null ? 0 : count;
+        } catch (Exception e) {
+            log.warn("검색 색인 확인 실패: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private boolean exists(String countSql) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(countSql, Integer.class);
+            return count != null && count > 0;
+        } catch (Exception e) {
+            log.warn("검색 스키마 확인 실패: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.oda.repository;
+
+import com.example.oda.entity.PublicData;
+
+import java.util.BitSet;
+
+/**
+ * 다중 키워드 검색 결과 한 건과, 어떤 (키워드, 컬럼) 쌍이 일치했는지에 대한 표시.
+ * 비트 위치는 {@code keywordIndex * SearchField 개수 + field.ordinal()} 이다.
+ */
+public record PublicDataMatch(PublicData data, BitSet matchedColumns) {
+
+    private static final int FIELD_COUNT = SearchField.values().length;
+
+    public static int bitOf(int keywordIndex, SearchField field) {
+        return keywordIndex * FIELD_COUNT + field.ordinal();
+    }
+
+    public boolean matches(int keywordIndex, SearchField field) {
+        return matchedColumns.get(bitOf(keywordIndex, field));
+    }
+
+    public boolean matchesKeyword(int keywordIndex) {
+        int from = keywordIndex * FIELD_COUNT;
+        int next = matchedColumns.nextSetBit(from);
+        return next >= 0 && next < from + FIELD_COUNT;
+    }
+}
@@ -4,20 +4,11 @@ import com.example.oda.entity.PublicData;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface PublicDataRepository extends JpaRepository<PublicData, String> {
-
-    @Query("SELECT p FROM PublicData p WHERE " +
-            "(:majorCategory IS NULL OR UPPER(p.classificationSystem) LIKE UPPER(CONCAT('%', :majorCategory, '%'))) AND " +
-            "(:keyword IS NULL OR :keyword = '' OR " +
-            " UPPER(p.keywords) LIKE UPPER(CONCAT('%', :keyword, '%')) OR " +
-            " UPPER(p.title) LIKE UPPER(CONCAT('%', :keyword, '%')) OR " +
-            " UPPER(p.providerAgency) LIKE UPPER(CONCAT('%', :keyword, '%')) OR " +
-            " UPPER(p.fileDataName) LIKE UPPER(CONCAT('%', :keyword, '%')) OR " +
-            " UPPER(p.description) LIKE UPPER(CONCAT('%', :keyword, '%')))")
-    List<PublicData> searchByQueryPlan(@Param("majorCategory") String majorCategory, @Param("keyword") String keyword);
+public interface PublicDataRepository extends JpaRepository<PublicData, String>, PublicDataRepositoryCustom {
 
     List<PublicData> findByProviderAgencyContainingIgnoreCase(String providerAgency);
 
@@ -57,4 +48,7 @@ public interface PublicDataRepository extends JpaRepository<PublicData, String>
     // ⭐ 유사한 파일명 검색 (정확하지 않은 경우 대비)
     @Query("SELECT p FROM PublicData p WHERE UPPER(p.fileDataName) LIKE UPPER(CONCAT('%', :fileName, '%'))")
     List<PublicData> findByFileDataNameContaining(@Param("fileName") String fileName);
+
+    // 메모리 카탈로그 증분 갱신용 (수정일 워터마크 이후 행)
+    List<PublicData> findByModifiedDateGreaterThanEqual(LocalDateTime modifiedDate);
 }
\ No newline at end of file
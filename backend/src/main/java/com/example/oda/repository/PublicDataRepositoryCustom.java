@@ -0,0 +1,54 @@
+package com.example.oda.repository;
+
+
+import java.util.List;
+
+public interface PublicDataRepositoryCustom {
+
+    /**
+     * 키워드 중 하나라도 제공기관/파일명/제목/키워드/설명에 포함된(대소문자 무시) 데이터를 한 번의 조회로 가져온다.
+     * 각 행에는 일치한 (키워드, 컬럼) 쌍이 함께 표시된다.
+     */
+    List<PublicDataMatch> findByAnyKeyword(List<String> keywords);
+
+    /**
+     * PostgreSQL pg_trgm 을 쓰는 {@link #findByAnyKeyword}. ILIKE 조건이 GIN trigram 색인을 타며,
+     * 제목/파일명은 {@code %} 연산자와 {@code similarity() >= similarityThreshold} 인 유사 일치도 포함한다.
+     * {@code %} 는 세션의 pg_trgm.similarity_threshold 를 쓰므로 similarityThreshold 는 그 값 이상일 때만 의미가 있다
+     * ({@link PostgresSearchSchema#effectiveSimilarityThreshold()}).
+     */
+    List<PublicDataMatch> findByAnyKeywordTrigram(List<String> keywords, double similarityThreshold);
+
+    /**
+     * PostgreSQL tsvector 컬럼(search_vector)의 접두어 일치로 후보를 찾는다. 토큰 중간의 부분 문자열은 찾지 못하며,
+     * 후보 중 실제로 키워드를 포함하는 (키워드, 컬럼) 쌍만 표시된다.
+     */
+    List<PublicDataMatch> findByAnyKeywordFullText(List<String> keywords);
+
+    /**
+     * {@link #findByAnyKeyword} 의 요약 조회. 순위 계산에 필요한 컬럼(제목, 파일명, 분류체계, 제공기관, 키워드, 수정일)만 읽고,
+     * 설명 본문 대신 digestTerms 의 등장 횟수를 담은 {@link com.example.oda.entity.DescriptionDigest} 를 채운다.
+     * 결과 엔티티는 영속성 컨텍스트에 속하지 않는다.
+     */
+    List<PublicDataMatch> findSummariesByAnyKeyword(List<String> keywords, List<String> digestTerms);
+
+    /** {@link #findByAnyKeywordTrigram} 의 요약 조회 */
+    List<PublicDataMatch> findSummariesByAnyKeywordTrigram(List<String> keywords, double similarityThreshold,
+                                                          List<String> digestTerms);
+
+    /** {@link #findByAnyKeywordFullText} 의 요약 조회 */
+    List<PublicDataMatch> findSummariesByAnyKeywordFullText(List<String> keywords, List<String> digestTerms);
+
+    /**
+     * 조건을 WHERE 절로 먼저 적용하는 {@link #findByAnyKeyword}. digestTerms 가 null 이면 엔티티 전체를, 아니면 요약을 읽는다.
+     */
+    List<PublicDataMatch> findFilteredByAnyKeyword(List<String> keywords, List<String> digestTerms, SearchFilter filter);
+
+    /** 조건을 먼저 적용하는 {@link #findByAnyKeywordTrigram} */
+    List<PublicDataMatch> findFilteredByAnyKeywordTrigram(List<String> keywords, double similarityThreshold,
+                                                         List<String> digestTerms, SearchFilter filter);
+
+    /** 조건을 먼저 적용하는 {@link #findByAnyKeywordFullText} */
+    List<PublicDataMatch> findFilteredByAnyKeywordFullText(List<String> keywords, List<String> digestTerms,
+                                                          SearchFilter filter);
+}
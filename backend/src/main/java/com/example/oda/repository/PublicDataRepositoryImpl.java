@@ -0,0 +1,332 @@
+package com.example.oda.repository;
+
+import com.example.oda.entity.DescriptionDigest;
+import com.example.oda.entity.PublicData;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+public class PublicDataRepositoryImpl implements PublicDataRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    // 요약 조회에서 읽는 컬럼 (엔티티 속성명, 컬럼명). 순서는 toSummary 와 같다.
+    private static final String[] SUMMARY_ATTRIBUTES =
+            {"title", "fileDataName", "classificationSystem", "providerAgency", "keywords", "modifiedDate"};
+    private static final String[] SUMMARY_COLUMNS = {"제목", "파일데이터명", "분류체계", "제공기관", "키워드", "수정일"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PublicDataMatch> findByAnyKeyword(List<String> keywords) {
+        return findFilteredByAnyKeyword(keywords, null, SearchFilter.NONE);
+    }
+
+    @Override
+    public List<PublicDataMatch> findSummariesByAnyKeyword(List<String> keywords, List<String> digestTerms) {
+        return findFilteredByAnyKeyword(keywords, digestTerms, SearchFilter.NONE);
+    }
+
+    // digestTerms 가 null 이면 엔티티 전체를, 아니면 요약 컬럼과 설명 요약을 읽는다.
+    @Override
+    public List<PublicDataMatch> findFilteredByAnyKeyword(List<String> keywords, List<String> digestTerms, SearchFilter filter) {
+        if (keywords.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<PublicData> root = query.from(PublicData.class);
+
+        // SELECT p, CASE WHEN <키워드0·컬럼0 일치> THEN 1 ELSE 0 END, ... WHERE <일치 조건 OR>
+        List<Selection<?>> selections = new ArrayList<>();
+        if (digestTerms == null) {
+            selections.add(root);
+        } else {
+            for (String attribute : SUMMARY_ATTRIBUTES) {
+                selections.add(root.get(attribute));
+            }
+            Expression<String> description = cb.lower(cb.coalesce(root.<String>get("description"), ""));
+            selections.add(cb.length(description));
+            for (String term : digestTerms) {
+                selections.add(term.isEmpty() ? cb.literal(0) : cb.diff(cb.length(description),
+                        cb.length(cb.function("replace", String.class, description, cb.literal(term), cb.literal("")))));
+            }
+        }
+        int flagsFrom = selections.size();
+
+        List<Predicate> anyMatch = new ArrayList<>();
+        for (String keyword : keywords) {
+            String pattern = "%" + escapeLike(keyword).toUpperCase() + "%";
+            for (SearchField field : SearchField.values()) {
+                Expression<String> column = cb.upper(root.get(field.getAttribute()));
+                anyMatch.add(cb.like(column, pattern, LIKE_ESCAPE));
+                selections.add(cb.<Integer>selectCase()
+                        .when(cb.like(column, pattern, LIKE_ESCAPE), 1)
+                        .otherwise(0));
+            }
+        }
+        List<Predicate> conditions = filterPredicates(cb, root, filter);
+        conditions.add(cb.or(anyMatch.toArray(new Predicate[0])));
+        query.multiselect(selections).where(conditions.toArray(new Predicate[0]));
+
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        List<PublicDataMatch> matches = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            BitSet matchedColumns = new BitSet(selections.size() - flagsFrom);
+            for (int i = flagsFrom; i < selections.size(); i++) {
+                if (row.get(i, Integer.class) == 1) {
+                    matchedColumns.set(i - flagsFrom);
+                }
+            }
+            PublicData data = digestTerms == null ? row.get(0, PublicData.class) : toSummary(row.toArray(), digestTerms);
+            matches.add(new PublicDataMatch(data, matchedColumns));
+        }
+        return matches;
+    }
+
+    @Override
+    public List<PublicDataMatch> findByAnyKeywordTrigram(List<String> keywords, double similarityThreshold) {
+        return findFilteredByAnyKeywordTrigram(keywords, similarityThreshold, null, SearchFilter.NONE);
+    }
+
+    @Override
+    public List<PublicDataMatch> findSummariesByAnyKeywordTrigram(List<String> keywords, double similarityThreshold,
+                                                                 List<String> digestTerms) {
+        return findFilteredByAnyKeywordTrigram(keywords, similarityThreshold, digestTerms, SearchFilter.NONE);
+    }
+
+    @Override
+    public List<PublicDataMatch> findFilteredByAnyKeywordTrigram(List<String> keywords, double similarityThreshold,
+                                                                List<String> digestTerms, SearchFilter filter) {
+        if (keywords.isEmpty()) {
+            return List.of();
+        }
+        List<String> flags = new ArrayList<>();
+        for (int k = 0; k < keywords.size(); k++) {
+            for (SearchField field : SearchField.values()) {
+                String condition = "f." + field.getColumn() + " ILIKE :p" + k;
+                if (field == SearchField.TITLE || field == SearchField.FILE_DATA_NAME) {
+                    condition += " OR (f." + field.getColumn() + " % :k" + k +
+                            " AND similarity(f." + field.getColumn() + ", :k" + k + ") >= :threshold)";
+                }
+                flags.add(condition);
+            }
+        }
+        String sql = "SELECT " + selectColumns(digestTerms) + ", " + flagColumn(flags) + " AS match_flags " +
+                "FROM public.filedata f WHERE " + filterSql(filter) + "(" +
+                String.join(" OR ", flags.stream().map(c -> "(" + c + ")").toList()) + ")";
+
+        Query query = createNativeQuery(sql, digestTerms);
+        bindFilter(query, filter);
+        for (int k = 0; k < keywords.size(); k++) {
+            query.setParameter("p" + k, "%" + escapeLike(keywords.get(k)) + "%");
+            query.setParameter("k" + k, keywords.get(k));
+        }
+        query.setParameter("threshold", similarityThreshold);
+        return toMatches(query.getResultList(), digestTerms);
+    }
+
+    @Override
+    public List<PublicDataMatch> findByAnyKeywordFullText(List<String> keywords) {
+        return findFilteredByAnyKeywordFullText(keywords, null, SearchFilter.NONE);
+    }
+
+    @Override
+    public List<PublicDataMatch> findSummariesByAnyKeywordFullText(List<String> keywords, List<String> digestTerms) {
+        return findFilteredByAnyKeywordFullText(keywords, digestTerms, SearchFilter.NONE);
+    }
+
+    @Override
+    public List<PublicDataMatch> findFilteredByAnyKeywordFullText(List<String> keywords, List<String> digestTerms,
+                                                                 SearchFilter filter) {
+        List<String> prefixQueries = keywords.stream().map(PublicDataRepositoryImpl::toPrefixTsQuery)
+                .filter(q -> !q.isEmpty()).toList();
+        if (prefixQueries.isEmpty()) {
+            return List.of();
+        }
+        List<String> flags = new ArrayList<>();
+        for (int k = 0; k < keywords.size(); k++) {
+            for (SearchField field : SearchField.values()) {
+                flags.add("f." + field.getColumn() + " ILIKE :p" + k);
+            }
+        }
+        String sql = "SELECT " + selectColumns(digestTerms) + ", " + flagColumn(flags) + " AS match_flags " +
+                "FROM public.filedata f WHERE " + filterSql(filter) + "f.search_vector @@ to_tsquery('simple', :tsquery)";
+
+        Query query = createNativeQuery(sql, digestTerms);
+        bindFilter(query, filter);
+        for (int k = 0; k < keywords.size(); k++) {
+            query.setParameter("p" + k, "%" + escapeLike(keywords.get(k)) + "%");
+        }
+        query.setParameter("tsquery", String.join(" | ", prefixQueries));
+
+        // 접두어로는 걸렸지만 어느 컬럼에도 키워드를 그대로 포함하지 않는 행은 버린다.
+        return toMatches(query.getResultList(), digestTerms).stream()
+                .filter(match -> !match.matchedColumns().isEmpty())
+                .toList();
+    }
+
+    // 키워드 조건보다 먼저 평가할 조건들. 제공기관은 접두어, 분류체계는 부분 문자열로 비교한다.
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<PublicData> root, SearchFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.providerAgencyPrefixes() != null) {
+            predicates.add(cb.or(filter.providerAgencyPrefixes().stream()
+                    .map(prefix -> cb.like(root.get("providerAgency"), escapeLike(prefix) + "%", LIKE_ESCAPE))
+                    .toArray(Predicate[]::new)));
+        }
+        if (filter.classificationPart() != null) {
+            predicates.add(cb.like(root.get("classificationSystem"), "%" + escapeLike(filter.classificationPart()) + "%", LIKE_ESCAPE));
+        }
+        if (filter.modifiedSince() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("modifiedDate"), filter.modifiedSince()));
+        }
+        return predicates;
+    }
+
+    // 네이티브 쿼리용 조건. 비어 있지 않으면 "... AND " 로 끝나므로 뒤에 키워드 조건을 이어 붙인다.
+    private static String filterSql(SearchFilter filter) {
+        StringBuilder sql = new StringBuilder();
+        if (filter.providerAgencyPrefixes() != null) {
+            StringJoiner agencies = new StringJoiner(" OR ", "(", ") AND ");
+            for (int i = 0; i < filter.providerAgencyPrefixes().size(); i++) {
+                agencies.add("f.제공기관 LIKE :filterAgency" + i);
+            }
+            sql.append(agencies);
+        }
+        if (filter.classificationPart() != null) {
+            sql.append("f.분류체계 LIKE :filterClassification AND ");
+        }
+        if (filter.modifiedSince() != null) {
+            sql.append("f.수정일 >= :filterSince AND ");
+        }
+        return sql.toString();
+    }
+
+    private static void bindFilter(Query query, SearchFilter filter) {
+        if (filter.providerAgencyPrefixes() != null) {
+            for (int i = 0; i < filter.providerAgencyPrefixes().size(); i++) {
+                query.setParameter("filterAgency" + i, escapeLike(filter.providerAgencyPrefixes().get(i)) + "%");
+            }
+        }
+        if (filter.classificationPart() != null) {
+            query.setParameter("filterClassification", "%" + escapeLike(filter.classificationPart()) + "%");
+        }
+        if (filter.modifiedSince() != null) {
+            query.setParameter("filterSince", filter.modifiedSince());
+        }
+    }
+
+    // 네이티브 쿼리의 SELECT 목록. 요약 조회는 설명 본문 대신 길이와 용어별 (길이 - replace 후 길이) 를 읽는다.
+    private static String selectColumns(List<String> digestTerms) {
+        if (digestTerms == null) {
+            return "f.*";
+        }
+        String description = "lower(coalesce(f.설명, ''))";
+        List<String> columns = new ArrayList<>();
+        for (String column : SUMMARY_COLUMNS) {
+            columns.add("f." + column);
+        }
+        columns.add("length(" + description + ")");
+        for (int t = 0; t < digestTerms.size(); t++) {
+            columns.add(digestTerms.get(t).isEmpty() ? "0"
+                    : "length(" + description + ") - length(replace(" + description + ", :d" + t + ", ''))");
+        }
+        return String.join(", ", columns);
+    }
+
+    private Query createNativeQuery(String sql, List<String> digestTerms) {
+        if (digestTerms == null) {
+            return entityManager.createNativeQuery(sql, PublicData.MATCH_MAPPING);
+        }
+        Query query = entityManager.createNativeQuery(sql);
+        for (int t = 0; t < digestTerms.size(); t++) {
+            if (!digestTerms.get(t).isEmpty()) {
+                query.setParameter("d" + t, digestTerms.get(t));
+            }
+        }
+        return query;
+    }
+
+    // CASE 플래그를 '0'/'1' 문자열로 이어 붙인다. CONCAT 의 인자 수 제한(100)을 피하려고 || 를 쓴다.
+    private static String flagColumn(List<String> conditions) {
+        return conditions.stream()
+                .map(c -> "(CASE WHEN " + c + " THEN '1' ELSE '0' END)")
+                .collect(Collectors.joining(" || "));
+    }
+
+    private static List<PublicDataMatch> toMatches(List<?> rows, List<String> digestTerms) {
+        List<PublicDataMatch> matches = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            String flags = (String) columns[columns.length - 1];
+            BitSet matchedColumns = new BitSet(flags.length());
+            for (int i = 0; i < flags.length(); i++) {
+                if (flags.charAt(i) == '1') {
+                    matchedColumns.set(i);
+                }
+            }
+            PublicData data = digestTerms == null ? (PublicData) columns[0] : toSummary(columns, digestTerms);
+            matches.add(new PublicDataMatch(data, matchedColumns));
+        }
+        return matches;
+    }
+
+    // 요약 컬럼, 설명 길이, 용어별 줄어든 길이 순의 행을 설명 없는 PublicData 로 만든다.
+    private static PublicData toSummary(Object[] columns, List<String> digestTerms) {
+        PublicData data = new PublicData();
+        data.setTitle((String) columns[0]);
+        data.setFileDataName((String) columns[1]);
+        data.setClassificationSystem((String) columns[2]);
+        data.setProviderAgency((String) columns[3]);
+        data.setKeywords((String) columns[4]);
+        data.setModifiedDate(toLocalDateTime(columns[5]));
+
+        int offset = SUMMARY_COLUMNS.length;
+        int[] counts = new int[digestTerms.size()];
+        for (int t = 0; t < counts.length; t++) {
+            int removedLength = ((Number) columns[offset + 1 + t]).intValue();
+            counts[t] = digestTerms.get(t).isEmpty() ? 0 : removedLength / digestTerms.get(t).length();
+        }
+        data.setDescriptionDigest(new DescriptionDigest(((Number) columns[offset]).intValue(), digestTerms, counts));
+        return data;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    // 키워드를 단어로 나눠 각 단어의 접두어가 모두 나타나는 tsquery 로 만든다. 예: "교통 사고" -> "(교통:* & 사고:*)"
+    private static String toPrefixTsQuery(String keyword) {
+        List<String> terms = Arrays.stream(keyword.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .toList();
+        return terms.isEmpty() ? "" : "(" + String.join(" & ", terms) + ")";
+    }
+
+    // 파생 쿼리(ContainingIgnoreCase)와 같이 LIKE 와일드카드를 리터럴로 취급
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.oda.repository;
+
+import com.example.oda.entity.PublicData;
+
+import java.util.function.Function;
+
+/**
+ * 키워드 검색 대상 컬럼. 선언 순서는 기존 SearchServiceImpl 의 검색 순서(제공기관 → 파일명 → 제목 → 키워드 → 설명)와 같다.
+ */
+public enum SearchField {
+    PROVIDER_AGENCY("제공기관", "providerAgency", "제공기관", PublicData::getProviderAgency),
+    FILE_DATA_NAME("파일명", "fileDataName", "파일데이터명", PublicData::getFileDataName),
+    TITLE("제목", "title", "제목", PublicData::getTitle),
+    KEYWORDS("키워드 필드", "keywords", "키워드", PublicData::getKeywords),
+    DESCRIPTION("설명", "description", "설명", PublicData::getDescription);
+
+    private final String label;
+    private final String attribute;
+    private final String column;
+    private final Function<PublicData, String> accessor;
+
+    SearchField(String label, String attribute, String column, Function<PublicData, String> accessor) {
+        this.label = label;
+        this.attribute = attribute;
+        this.column = column;
+        this.accessor = accessor;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /** JPA 엔티티 속성명 */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /** filedata 테이블 컬럼명 (네이티브 쿼리용) */
+    public String getColumn() {
+        return column;
+    }
+
+    public String valueOf(PublicData data) {
+        return accessor.apply(data);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.oda.repository;
+
+import com.example.oda.entity.PublicData;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 텍스트 일치보다 먼저 적용하는 후보 조건. null 인 조건은 적용하지 않는다.
+ * <p>
+ * DB 경로에서는 WHERE 절로, 메모리 색인 경로에서는 행 비트셋으로 적용한다.
+ *
+ * @param providerAgencyPrefixes 제공기관 접두어들. 하나라도 일치하면 통과한다 ("충북", "충청북도" → "충북개발공사", "충청북도 청주시" 포함)
+ * @param classificationPart     분류체계에 포함되어야 할 문자열
+ * @param modifiedSince          이 시각 이후(포함) 수정된 데이터만
+ */
+public record SearchFilter(List<String> providerAgencyPrefixes, String classificationPart, LocalDateTime modifiedSince) {
+
+    public static final SearchFilter NONE = new SearchFilter(null, null, null);
+
+    public SearchFilter {
+        providerAgencyPrefixes = providerAgencyPrefixes == null || providerAgencyPrefixes.isEmpty()
+                ? null : List.copyOf(providerAgencyPrefixes);
+    }
+
+    public boolean isEmpty() {
+        return providerAgencyPrefixes == null && classificationPart == null && modifiedSince == null;
+    }
+
+    public boolean matchesProviderAgency(String providerAgency) {
+        if (providerAgencyPrefixes == null) {
+            return true;
+        }
+        if (providerAgency == null) {
+            return false;
+        }
+        for (String prefix : providerAgencyPrefixes) {
+            if (providerAgency.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean matchesClassification(String classificationSystem) {
+        return classificationPart == null || (classificationSystem != null && classificationSystem.contains(classificationPart));
+    }
+
+    public boolean matchesModifiedDate(LocalDateTime modifiedDate) {
+        return modifiedSince == null || (modifiedDate != null && !modifiedDate.isBefore(modifiedSince));
+    }
+
+    public boolean matches(PublicData data) {
+        return matchesProviderAgency(data.getProviderAgency())
+                && matchesClassification(data.getClassificationSystem())
+                && matchesModifiedDate(data.getModifiedDate());
+    }
+}
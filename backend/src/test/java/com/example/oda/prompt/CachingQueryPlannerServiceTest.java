@@ -0,0 +1,82 @@
+package com.example.oda.prompt;
+
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CachingQueryPlannerServiceTest {
+
+	private final QueryPlannerServiceImpl planner = new QueryPlannerServiceImpl();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void spellingVariantsShareOneKey() {
+		CachingQueryPlannerService cache = new CachingQueryPlannerService(planner, true, 100);
+		CachingQueryPlannerService.Key key = cache.keyOf("서울 교통사고 데이터 보여줘");
+
+		assertEquals(key, cache.keyOf("  서울의   교통사고\t데이터\n보여줘 "));
+		assertEquals(key, cache.keyOf(Normalizer.normalize("서울 교통사고 데이터 보여줘", Normalizer.Form.NFD)));
+		assertEquals(key, cache.keyOf("서울의 교통사고 데이터 보여줘"));
+		assertNotEquals(key, cache.keyOf("부산 교통사고 데이터 보여줘"));
+		assertNotEquals(key, cache.keyOf("서울교통사고 데이터 보여줘"));
+	}
+
+	@Test
+	void cachedPlansMatchThePlannerOnTheGoldenCorpus() throws IOException {
+		CachingQueryPlannerService cache = new CachingQueryPlannerService(planner, true, 100);
+		List<String> prompts = readGoldenPrompts();
+		assertFalse(prompts.isEmpty());
+
+		for (String prompt : prompts) {
+			String expected = describe(planner.createQueryPlan(prompt));
+			assertEquals(expected, describe(cache.createQueryPlan(prompt)), prompt);
+			assertEquals(expected, describe(cache.createQueryPlan(" " + prompt.replace(" ", "  ") + " ")), prompt);
+		}
+		CachingQueryPlannerService.Stats stats = cache.stats();
+		assertEquals(prompts.size(), stats.misses());
+		assertEquals(prompts.size(), stats.hits());
+	}
+
+	@Test
+	void callersCannotChangeCachedPlans() {
+		CachingQueryPlannerService cache = new CachingQueryPlannerService(planner, true, 100);
+		QueryPlanDto first = cache.createQueryPlan("서울 교통사고 데이터 보여줘");
+		String expected = describe(first);
+		first.getKeywords().clear();
+		first.setLimit(1);
+
+		assertEquals(expected, describe(cache.createQueryPlan("서울 교통사고 데이터 보여줘")));
+	}
+
+	private static String describe(QueryPlanDto plan) {
+		return plan.getMajorCategory() + "|" + plan.getKeywords() + "|" + plan.getSearchYear() + "|"
+				+ plan.getProviderAgency() + "|" + plan.isHasDateFilter() + "|" + plan.getLimit();
+	}
+
+	private List<String> readGoldenPrompts() throws IOException {
+		List<String> prompts = new ArrayList<>();
+		try (InputStream in = getClass().getResourceAsStream("/query-plans/golden.jsonl");
+			 BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isBlank()) {
+					prompts.add(objectMapper.readTree(line).get("prompt").asText());
+				}
+			}
+		}
+		return prompts;
+	}
+}
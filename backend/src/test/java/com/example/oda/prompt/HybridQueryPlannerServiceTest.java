@@ -0,0 +1,134 @@
+package com.example.oda.prompt;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.service.AiModelService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class HybridQueryPlannerServiceTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final String AI_PLAN = "{\"majorCategory\":\"교통및물류\",\"keywords\":[\"AI교통\",\" \",\"AI교통\",\"혼잡도\"],"
+			+ "\"searchYear\":null,\"hasDateFilter\":false,\"isAIEnhanced\":true}";
+	private static final String DEFAULT_PLAN = "{\"majorCategory\":\"일반공공행정\",\"keywords\":[\"기본\"],\"isAIEnhanced\":false}";
+
+	private final CachingQueryPlannerService localPlanner = new CachingQueryPlannerService(new QueryPlannerServiceImpl(), true, 100);
+
+	@Test
+	void usesAiPlanThatArrivesWithinBudget() {
+		FakeAi ai = new FakeAi();
+		ai.next = CompletableFuture.completedFuture(json(AI_PLAN));
+		HybridQueryPlannerService planner = planner(ai, 1_000, 60);
+
+		QueryPlanDto plan = planner.createQueryPlan("서울 교통 데이터 5개");
+		QueryPlanDto local = localPlanner.createQueryPlan("서울 교통 데이터 5개");
+
+		assertEquals(List.of("AI교통", "혼잡도"), plan.getKeywords());
+		assertEquals("교통및물류", plan.getMajorCategory());
+		assertEquals(local.getLimit(), plan.getLimit(), "개수는 규칙 기반 플랜에서 채운다");
+		assertEquals(1L, planner.stats().aiWins());
+	}
+
+	@Test
+	void fallsBackAfterBudgetAndWarmsCacheWithLatePlan() {
+		FakeAi ai = new FakeAi();
+		CompletableFuture<JsonNode> slow = new CompletableFuture<>();
+		ai.next = slow;
+		HybridQueryPlannerService planner = planner(ai, 20, 60);
+
+		QueryPlanDto first = planner.createQueryPlan("서울 교통 데이터");
+		assertEquals(localPlanner.createQueryPlan("서울 교통 데이터").getKeywords(), first.getKeywords());
+		assertEquals(1L, planner.stats().budgetExceeded());
+
+		slow.complete(json(AI_PLAN));
+		// 같은 플랜 캐시 키로 정규화되는 프롬프트는 늦게 온 LLM 플랜을 바로 쓴다.
+		QueryPlanDto second = planner.createQueryPlan("  서울   교통 데이터 ");
+		assertEquals(List.of("AI교통", "혼잡도"), second.getKeywords());
+		assertEquals(1, ai.calls.get());
+		HybridQueryPlannerService.Stats stats = planner.stats();
+		assertEquals(1L, stats.lateWarms());
+		assertEquals(1L, stats.aiCacheHits());
+		assertEquals(1L, stats.localWins());
+	}
+
+	@Test
+	void doesNotRetryUnusablePlansUntilFailureTtlExpires() {
+		FakeAi ai = new FakeAi();
+		ai.next = CompletableFuture.completedFuture(json(DEFAULT_PLAN));
+		HybridQueryPlannerService planner = planner(ai, 1_000, 60);
+
+		QueryPlanDto first = planner.createQueryPlan("부산 주차장");
+		QueryPlanDto second = planner.createQueryPlan("부산 주차장");
+		assertEquals(localPlanner.createQueryPlan("부산 주차장").getKeywords(), first.getKeywords());
+		assertEquals(first.getKeywords(), second.getKeywords());
+		assertEquals(1, ai.calls.get());
+		assertEquals(1L, planner.stats().failureCacheHits());
+
+		HybridQueryPlannerService retrying = planner(ai, 1_000, 0);
+		ai.next = CompletableFuture.failedFuture(new IllegalStateException("agent down"));
+		retrying.createQueryPlan("부산 주차장");
+		retrying.createQueryPlan("부산 주차장");
+		assertEquals(3, ai.calls.get());
+		assertEquals(2L, retrying.stats().aiFailures());
+	}
+
+	@Test
+	void disabledPlannerNeverCallsTheAgent() {
+		FakeAi ai = new FakeAi();
+		HybridQueryPlannerService planner = new HybridQueryPlannerService(localPlanner, ai, false, 300, 1_000, 100, 4, 60);
+		QueryPlanDto plan = planner.createQueryPlan("서울 교통 데이터");
+		assertEquals(localPlanner.createQueryPlan("서울 교통 데이터").getKeywords(), plan.getKeywords());
+		assertEquals(0, ai.calls.get());
+		assertFalse(planner.stats().enabled());
+	}
+
+	private HybridQueryPlannerService planner(AiModelService ai, long budgetMs, long failureTtlSeconds) {
+		return new HybridQueryPlannerService(localPlanner, ai, true, budgetMs, 5_000, 100, 4, failureTtlSeconds);
+	}
+
+	private static JsonNode json(String text) {
+		try {
+			return MAPPER.readTree(text);
+		} catch (Exception e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	// 다음 응답을 테스트가 정하는 에이전트. 호출 수만 센다.
+	private static final class FakeAi implements AiModelService {
+		private final AtomicInteger calls = new AtomicInteger();
+		private volatile CompletableFuture<JsonNode> next = new CompletableFuture<>();
+
+		@Override
+		public Mono<JsonNode> getQueryPlan(String prompt) {
+			calls.incrementAndGet();
+			CompletableFuture<JsonNode> response = next;
+			return Mono.fromFuture(() -> response);
+		}
+
+		@Override
+		public Mono<JsonNode> getUtilizationRecommendations(PublicData data) {
+			return Mono.error(new UnsupportedOperationException());
+		}
+
+		@Override
+		public Mono<JsonNode> getSingleUtilizationRecommendation(PublicData data, String analysisType) {
+			return Mono.error(new UnsupportedOperationException());
+		}
+
+		@Override
+		public Mono<JsonNode> analyzeDataByPk(Long publicDataPk) {
+			return Mono.error(new UnsupportedOperationException());
+		}
+	}
+}
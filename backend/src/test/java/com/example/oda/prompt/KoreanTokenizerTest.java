@@ -0,0 +1,85 @@
+package com.example.oda.prompt;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KoreanTokenizerTest {
+
+	private final PlannerDictionary dictionary = PlannerDictionary.defaults();
+
+	@Test
+	void keepsWordsThatContainParticleCharacters() {
+		assertEquals(List.of("서울", "과학"), dictionary.nouns("서울 과학"));
+		assertEquals(List.of("결과", "평가"), dictionary.nouns("결과 평가"));
+	}
+
+	@Test
+	void stripsParticlesAndSuffixes() {
+		assertEquals(List.of("서울", "교통사고"), dictionary.nouns("서울의 교통사고를"));
+		assertEquals(List.of("부산", "주차장", "요금"), dictionary.nouns("부산에서 주차장별 요금은"));
+		assertEquals(List.of("효율", "노선"), dictionary.nouns("효율적인 노선들"));
+		assertEquals(List.of("어린이", "소방서", "실거래가"), dictionary.nouns("어린이 소방서 실거래가"));
+	}
+
+	@Test
+	void splitsCompoundsOfKnownNouns() {
+		assertEquals(List.of("서울", "교통사고", "데이터"), dictionary.nouns("서울교통사고데이터"));
+		assertEquals(List.of("미세먼지", "농도"), dictionary.nouns("미세먼지농도를"));
+		assertEquals(List.of("지하도로"), dictionary.nouns("지하도로"));
+	}
+
+	@Test
+	void dropsPredicatesAndCounts() {
+		assertEquals(List.of("교통"), dictionary.nouns("교통 보여줘 알려주세요 찾아줘"));
+		assertEquals(List.of("주차장"), dictionary.nouns("2024년 주차장 5개 3건의 10에서"));
+		assertEquals(List.of("CCTV", "3D"), dictionary.nouns("CCTV 3D"));
+	}
+
+	@Test
+	void strippedWordsTokenizeTheSame() {
+		for (String word : List.of("서울의", "교통사고를", "주차장별", "효율적인", "10에서", "2024년에", "보여줘들", "어린이")) {
+			assertEquals(dictionary.nouns(word), dictionary.nouns(dictionary.stripSuffixes(word)), word);
+		}
+	}
+
+	/**
+	 * 처리량 측정. 단위 테스트에서는 빠지고 {@code ./gradlew benchmark} 로만 돌며, 속도는 단언하지 않고 표준 출력으로 남긴다.
+	 */
+	@Test
+	@Tag("benchmark")
+	void benchmarkThroughput() {
+		List<String> prompts = List.of(
+				"서울 교통사고 데이터 보여줘",
+				"부산에서 주차장별 요금 정보를 찾고 싶어요",
+				"대구시 미세먼지농도 측정소 데이터가 있나요",
+				"인천광역시의 소방서 위치와 화재 발생 통계",
+				"효율적인 대중교통 노선 분석 자료 3건",
+				"2024년 경기도 어린이집 보육 시설 현황 20개",
+				"Traffic accident DATA in Seoul",
+				"프로젝트를 위해서 연구 분석 자료가 필요해");
+		int rounds = 200_000;
+
+		for (int i = 0; i < rounds / 10; i++) {
+			dictionary.nouns(prompts.get(i % prompts.size()));
+		}
+		long tokens = 0;
+		long chars = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			String prompt = prompts.get(i % prompts.size());
+			tokens += dictionary.nouns(prompt).size();
+			chars += prompt.length();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		assertTrue(tokens > 0);
+		double seconds = elapsed / 1e9;
+		System.out.printf("[KoreanTokenizer] 프롬프트 %d개, %.2f us/프롬프트, 토큰 %.0f개/s, %.1f MB/s (UTF-16 글자 기준)%n",
+				rounds, elapsed / 1_000.0 / rounds, tokens / seconds, chars * 2 / seconds / 1_000_000);
+	}
+}
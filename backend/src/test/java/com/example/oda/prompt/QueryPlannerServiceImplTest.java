@@ -0,0 +1,75 @@
+package com.example.oda.prompt;
+
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 골든 코퍼스(query-plans/golden.jsonl)의 플랜은 사전 컴파일 전의 QueryPlannerServiceImpl 이 만든 결과에서
+ * 일반 키워드만 {@link KoreanTokenizer} 의 명사 어간으로 바꾼 것이다.
+ * "작년"/"올해" 처럼 실행 연도에 따라 바뀌는 값은 {Y-1}, {Y} 로 적혀 있다.
+ */
+class QueryPlannerServiceImplTest {
+
+	private final QueryPlannerService planner = new QueryPlannerServiceImpl();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void plansMatchGoldenCorpus() throws IOException {
+		int currentYear = Calendar.getInstance().get(Calendar.YEAR);
+		List<JsonNode> cases = readGoldenCorpus();
+		assertFalse(cases.isEmpty());
+
+		for (JsonNode expected : cases) {
+			String prompt = expected.get("prompt").asText();
+			QueryPlanDto plan = planner.createQueryPlan(prompt);
+
+			List<String> keywords = new ArrayList<>();
+			expected.get("keywords").forEach(keyword -> keywords.add(resolveYear(keyword.asText(), currentYear)));
+			JsonNode searchYear = expected.get("searchYear");
+
+			assertEquals(expected.get("majorCategory").asText(), plan.getMajorCategory(), prompt);
+			assertEquals(keywords, plan.getKeywords(), prompt);
+			assertEquals(searchYear.isNull() ? null : Integer.valueOf(resolveYear(searchYear.asText(), currentYear)),
+					plan.getSearchYear(), prompt);
+			assertEquals(expected.get("providerAgency").asText(), plan.getProviderAgency(), prompt);
+			assertEquals(expected.get("hasDateFilter").asBoolean(), plan.isHasDateFilter(), prompt);
+			assertEquals(expected.get("limit").asInt(), plan.getLimit(), prompt);
+		}
+	}
+
+	private List<JsonNode> readGoldenCorpus() throws IOException {
+		List<JsonNode> cases = new ArrayList<>();
+		try (InputStream in = getClass().getResourceAsStream("/query-plans/golden.jsonl");
+			 BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isBlank()) {
+					cases.add(objectMapper.readTree(line));
+				}
+			}
+		}
+		return cases;
+	}
+
+	private static String resolveYear(String value, int currentYear) {
+		return switch (value) {
+			case "{Y}" -> String.valueOf(currentYear);
+			case "{Y-1}" -> String.valueOf(currentYear - 1);
+			default -> value;
+		};
+	}
+}
@@ -0,0 +1,190 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.DescriptionDigest;
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.SearchField;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CatalogSnapshotTest {
+
+	private static final String[] WORDS = {"서울", "교통", "Traffic", "DATA", "주차장", "İstanbul", "ÄRZTE", "버스", "api", "𝔸𝔹", "csv", "  ", "-"};
+
+	@Test
+	void decodesRowsAsEncoded() {
+		List<PublicData> rows = randomRows(new Random(1), 200);
+		rows.add(data("빈 값", null, null, null, null, null, null, null));
+		CatalogSnapshot catalog = CatalogSnapshot.of(rows);
+
+		assertEquals(rows.size(), catalog.size());
+		for (int row = 0; row < rows.size(); row++) {
+			assertSameData(rows.get(row), catalog.row(row));
+			assertEquals(row, catalog.rowOf(rows.get(row).getTitle()));
+			assertEquals(true, catalog.sameAs(row, rows.get(row)), "sameAs " + row);
+			for (SearchField field : SearchField.values()) {
+				String value = field.valueOf(rows.get(row));
+				assertEquals(value != null ? value.length() : 0, catalog.length(field, row), field + " length " + row);
+			}
+		}
+		assertEquals(-1, catalog.rowOf("없는 제목"));
+		assertEquals(-1, catalog.rowOfFileDataName("없는 파일"));
+		assertEquals(0, catalog.rowOfFileDataName(rows.get(0).getFileDataName()));
+	}
+
+	@Test
+	void summaryRowCountsTermsLikeTheDatabase() {
+		List<PublicData> rows = randomRows(new Random(2), 100);
+		CatalogSnapshot catalog = CatalogSnapshot.of(rows);
+		List<String> terms = List.of("서울", "traffic", "data", "i̇stanbul", "ärzte", "𝔸", "", "  ");
+
+		for (int row = 0; row < rows.size(); row++) {
+			PublicData summary = catalog.summaryRow(row, terms);
+			assertNull(summary.getDescription());
+			String description = rows.get(row).getDescription();
+			String lower = description != null ? description.toLowerCase() : "";
+			DescriptionDigest digest = summary.getDescriptionDigest();
+			assertEquals(description != null ? description.length() : 0, digest.length(), "length " + row);
+			for (int t = 0; t < terms.size(); t++) {
+				String term = terms.get(t);
+				int expected = term.isEmpty() ? 0 : (lower.length() - lower.replace(term, "").length()) / term.length();
+				assertEquals(expected, digest.counts()[t], "'" + term + "' in row " + row);
+			}
+		}
+	}
+
+	@Test
+	void indexOverArenaMatchesLowercaseContains() {
+		List<PublicData> rows = randomRows(new Random(3), 300);
+		CatalogSnapshot catalog = CatalogSnapshot.of(rows);
+		for (SearchField field : SearchField.values()) {
+			SubstringIndex index = SubstringIndex.build(catalog.searchValues(field));
+			for (String query : queries()) {
+				assertArrayEquals(expectedMatches(rows, field, query), index.findContaining(query), field + " '" + query + "'");
+			}
+		}
+	}
+
+	@Test
+	void incrementalChangesMatchFullRebuild() {
+		Random random = new Random(4);
+		List<PublicData> rows = randomRows(random, 300);
+		CatalogSnapshot catalog = CatalogSnapshot.of(rows);
+		List<SubstringIndex> indexes = new ArrayList<>();
+		for (SearchField field : SearchField.values()) {
+			indexes.add(SubstringIndex.build(catalog.searchValues(field)));
+		}
+
+		List<PublicData> expected = new ArrayList<>(rows);
+		List<PublicData> changed = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			int row = random.nextInt(rows.size());
+			PublicData replacement = randomRow(random, rows.get(row).getTitle());
+			expected.set(row, replacement);
+			changed.add(replacement);
+		}
+		for (int i = 0; i < 5; i++) {
+			PublicData added = randomRow(random, "추가 " + i);
+			expected.add(added);
+			changed.add(added);
+		}
+		CatalogSnapshot next = catalog.withChanges(changed);
+		BitSet changedRows = new BitSet();
+		changed.forEach(data -> changedRows.set(next.rowOf(data.getTitle())));
+
+		assertEquals(expected.size(), next.size());
+		for (int row = 0; row < expected.size(); row++) {
+			assertSameData(expected.get(row), next.row(row));
+		}
+		for (SearchField field : SearchField.values()) {
+			SubstringIndex updated = indexes.get(field.ordinal()).withChanges(next.searchValues(field), changedRows);
+			SubstringIndex rebuilt = SubstringIndex.build(next.searchValues(field));
+			for (String query : queries()) {
+				int[] want = expectedMatches(expected, field, query);
+				assertArrayEquals(want, updated.findContaining(query), "updated " + field + " '" + query + "'");
+				assertArrayEquals(want, rebuilt.findContaining(query), "rebuilt " + field + " '" + query + "'");
+			}
+		}
+	}
+
+	private static List<String> queries() {
+		List<String> queries = new ArrayList<>();
+		for (String word : WORDS) {
+			String lower = word.toLowerCase();
+			queries.add(lower);
+			for (int i = 0; i + 1 < lower.length(); i++) {
+				queries.add(lower.substring(i, i + 2));
+			}
+		}
+		queries.addAll(List.of("서울 교통", "traffic data", "a", "없음", "주차장 api", "\uD835"));
+		return queries;
+	}
+
+	private static int[] expectedMatches(List<PublicData> rows, SearchField field, String lowerQuery) {
+		return IntStream.range(0, rows.size())
+				.filter(row -> field.valueOf(rows.get(row)) != null && field.valueOf(rows.get(row)).toLowerCase().contains(lowerQuery))
+				.toArray();
+	}
+
+	private static List<PublicData> randomRows(Random random, int count) {
+		List<PublicData> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add(randomRow(random, "데이터 " + i));
+		}
+		return rows;
+	}
+
+	private static PublicData randomRow(Random random, String title) {
+		return data(title, text(random, 3), random.nextInt(5) == 0 ? null : "기관" + random.nextInt(4) + " " + WORDS[random.nextInt(WORDS.length)],
+				random.nextBoolean() ? "교통 > 도로" : null, text(random, 4), random.nextInt(4) == 0 ? null : text(random, 12),
+				random.nextInt(6) == 0 ? null : LocalDateTime.of(2024, 1 + random.nextInt(12), 1, 12, 30, 15, random.nextInt(1_000_000) * 1_000),
+				random.nextBoolean() ? (long) random.nextInt(1000) : null);
+	}
+
+	private static String text(Random random, int words) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			text.append(WORDS[random.nextInt(WORDS.length)]);
+			if (random.nextBoolean()) {
+				text.append(' ');
+			}
+		}
+		return text.toString();
+	}
+
+	private static PublicData data(String title, String fileDataName, String providerAgency, String classification,
+	                               String keywords, String description, LocalDateTime modified, Long pk) {
+		PublicData data = new PublicData();
+		data.setTitle(title);
+		data.setFileDataName(fileDataName);
+		data.setProviderAgency(providerAgency);
+		data.setClassificationSystem(classification);
+		data.setKeywords(keywords);
+		data.setDescription(description);
+		data.setFileExtension(pk != null ? "CSV" : null);
+		data.setModifiedDate(modified);
+		data.setPublicDataPk(pk);
+		return data;
+	}
+
+	private static void assertSameData(PublicData expected, PublicData actual) {
+		assertEquals(expected.getTitle(), actual.getTitle());
+		assertEquals(expected.getFileDataName(), actual.getFileDataName());
+		assertEquals(expected.getProviderAgency(), actual.getProviderAgency());
+		assertEquals(expected.getClassificationSystem(), actual.getClassificationSystem());
+		assertEquals(expected.getKeywords(), actual.getKeywords());
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getFileExtension(), actual.getFileExtension());
+		assertEquals(expected.getModifiedDate(), actual.getModifiedDate());
+		assertEquals(expected.getPublicDataPk(), actual.getPublicDataPk());
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileNameTrigramIndexTest {
+
+	private final FileNameTrigramIndex index = indexOf(
+			TestCatalogs.data("전기차 충전소", "한국환경공단_전기자동차 충전소 정보"),
+			TestCatalogs.data("전국 주차장", "전국주차장정보표준데이터"),
+			TestCatalogs.data("서울 버스", "서울특별시_버스노선 정보"),
+			TestCatalogs.data("서울 지하철", "서울교통공사_지하철역 정보"));
+
+	@Test
+	void shortQueryDoesNotMatchNamesSharingOnlyTheFirstCharacter() {
+		// "서울교" 의 경계 3-gram("  서", " 서울")은 두 서울 파일명과 모두 겹치지만 내부 3-gram "서울교" 는 한쪽에만 있다.
+		assertEquals(List.of("서울교통공사_지하철역 정보"), names(index.findSimilar("서울교", 0.9, 10)));
+		assertEquals(List.of(), names(index.findSimilar("전주", 0.9, 10)));
+		assertEquals(List.of(), names(index.findSimilar("한국", 0.9, 10)));
+	}
+
+	@Test
+	void acceptsPartialNamesCoveredByTheQuery() {
+		List<FileNameTrigramIndex.FileNameMatch> matches = index.findSimilar("전기자동차 충전소", 0.9, 10);
+		assertEquals(List.of("한국환경공단_전기자동차 충전소 정보"), names(matches));
+		assertTrue(matches.get(0).similarity() < 0.9);
+	}
+
+	@Test
+	void ranksTyposByDiceSimilarity() {
+		List<FileNameTrigramIndex.FileNameMatch> matches = index.findSimilar("전국주차장정보표준데이타", 0.5, 10);
+		assertEquals("전국주차장정보표준데이터", matches.get(0).data().getFileDataName());
+		assertEquals(1, matches.size());
+	}
+
+	private static FileNameTrigramIndex indexOf(PublicData... rows) {
+		PublicDataSearchIndex searchIndex = TestCatalogs.loadedIndex(List.of(rows));
+		FileNameTrigramIndex index = new FileNameTrigramIndex(searchIndex);
+		index.onCatalogChanged(new CatalogChangedEvent(rows.length, true));
+		return index;
+	}
+
+	private static List<String> names(List<FileNameTrigramIndex.FileNameMatch> matches) {
+		return matches.stream().map(match -> match.data().getFileDataName()).toList();
+	}
+}
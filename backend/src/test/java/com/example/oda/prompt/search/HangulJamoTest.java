@@ -0,0 +1,63 @@
+package com.example.oda.prompt.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HangulJamoTest {
+
+	@Test
+	void decomposesSyllables() {
+		assertEquals("ㅈㄱㅊ", HangulJamo.initials("전기차"));
+		assertEquals("ㅅㅇ ㄱㅌ-ab1", HangulJamo.initials("서울 교통-AB1"));
+		assertEquals("ㅈㅓㄴㄱㅣㅊㅏ", HangulJamo.decompose("전기차"));
+		assertEquals("ㄷㅏㄺ ㄱㅏㅄ ㅇㅏㄶ", HangulJamo.decompose("닭 값 않"));
+		assertEquals("ㄱㅏ ㅎㅣㅎ", HangulJamo.decompose("가 힣"));
+		assertEquals("ㅈㅓㄴㄱㅣㅊ", HangulJamo.decompose("전기ㅊ"));
+
+		int[] sourceIndex = new int[8];
+		assertEquals("ㄷㅏㄺa", HangulJamo.decompose("닭A", sourceIndex));
+		assertArrayEquals(new int[]{0, 0, 0, 1}, Arrays.copyOf(sourceIndex, 4));
+	}
+
+	@Test
+	void everySyllableAgreesWithUnicodeDecomposition() {
+		Set<String> seen = new HashSet<>();
+		for (char c = '가'; c <= '힣'; c++) {
+			String syllable = String.valueOf(c);
+			String jamo = HangulJamo.decompose(syllable);
+			String conjoining = Normalizer.normalize(syllable, Normalizer.Form.NFD);
+
+			assertEquals(conjoining.length(), jamo.length(), syllable);
+			assertEquals(HangulJamo.initials(syllable).charAt(0), jamo.charAt(0), syllable);
+			// 초성과 중성의 호환용 자모는 NFKD 로 첫가끝 자모가 된다
+			assertEquals(conjoining.substring(0, 2), Normalizer.normalize(jamo.substring(0, 2), Normalizer.Form.NFKD), syllable);
+			assertTrue(seen.add(jamo), "중복 분해 " + syllable);
+		}
+		assertEquals(11_172, seen.size());
+	}
+
+	@Test
+	void recognizesJamoQueries() {
+		assertTrue(HangulJamo.isInitialsQuery("ㅈㄱㅊ"));
+		assertTrue(HangulJamo.isInitialsQuery("ㅅㅇ ㄱㅌ"));
+		assertFalse(HangulJamo.isInitialsQuery("ㅈ"));
+		assertFalse(HangulJamo.isInitialsQuery("ㅈㅏ"));
+		assertFalse(HangulJamo.isInitialsQuery("전기차"));
+		assertFalse(HangulJamo.isInitialsQuery("ab"));
+
+		assertTrue(HangulJamo.isJamoQuery("ㅈㄱㅊ"));
+		assertTrue(HangulJamo.isJamoQuery("전기ㅊ"));
+		assertTrue(HangulJamo.isJamoQuery("ㅏ"));
+		assertFalse(HangulJamo.isJamoQuery("전기차"));
+		assertFalse(HangulJamo.isJamoQuery("traffic"));
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.oda.prompt.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+	private static final String[] WORDS = {"서울", "부산", "교통", "버스", "정류장", "주차장", "대기질", "미세먼지", "자전거", "도로",
+			"인구", "통계", "공원", "관광", "숙박", "날씨", "병원", "약국", "학교", "도서관", "현황", "위치", "이용", "월별"};
+
+	@Test
+	void approximateSearchFindsMostOfTheExactNeighbors() {
+		HashedNgramEmbedder embedder = new HashedNgramEmbedder(128);
+		Random random = new Random(11);
+		int size = 3_000;
+		HnswIndex index = new HnswIndex(embedder.dimension(), size, 16, 100);
+		for (int i = 0; i < size; i++) {
+			index.add(embedder.embed(phrase(random, 4)));
+		}
+		assertEquals(size, index.size());
+
+		int k = 10;
+		long found = 0;
+		long expected = 0;
+		for (int q = 0; q < 200; q++) {
+			float[] query = embedder.embed(phrase(random, 2));
+			int[] approximate = index.search(query, k, 64, null);
+			int[] exact = index.bruteForce(query, k);
+			expected += exact.length;
+			for (int node : exact) {
+				for (int candidate : approximate) {
+					if (candidate == node) {
+						found++;
+						break;
+					}
+				}
+			}
+		}
+		double recall = (double) found / expected;
+		assertTrue(recall >= 0.9, "recall@10 = " + recall);
+	}
+
+	@Test
+	void bruteForceReturnsHighestSimilarityFirst() {
+		HashedNgramEmbedder embedder = new HashedNgramEmbedder(64);
+		Random random = new Random(12);
+		HnswIndex index = new HnswIndex(embedder.dimension(), 200, 8, 50);
+		for (int i = 0; i < 200; i++) {
+			index.add(embedder.embed(phrase(random, 3)));
+		}
+		float[] query = embedder.embed("서울 버스 정류장");
+		int[] top = index.bruteForce(query, 20);
+
+		assertEquals(20, top.length);
+		for (int i = 1; i < top.length; i++) {
+			assertTrue(index.similarity(query, top[i - 1]) >= index.similarity(query, top[i]), "order at " + i);
+		}
+		for (int node = 0; node < index.size(); node++) {
+			assertTrue(index.similarity(query, node) <= index.similarity(query, top[0]) + 1e-6f, "node " + node);
+		}
+		float[] similarities = new float[5];
+		int[] nodes = index.search(query, 5, 200, similarities);
+		assertArrayEquals(new int[]{top[0], top[1], top[2], top[3], top[4]}, nodes);
+	}
+
+	private static String phrase(Random random, int words) {
+		StringBuilder phrase = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				phrase.append(' ');
+			}
+			phrase.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return phrase.toString();
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.oda.prompt.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiPatternMatcherTest {
+
+	@Test
+	void countsNonOverlappingOccurrencesPerPattern() {
+		MultiPatternMatcher matcher = MultiPatternMatcher.compile(List.of("aa", "aba", "a", "서울", "서울시", "aa", ""));
+		MultiPatternMatcher.Hits hits = matcher.newHits();
+
+		matcher.scan("aaaa ababa 서울시 서울", hits);
+		assertEquals(2, hits.count(0));
+		assertEquals(1, hits.count(1));
+		assertEquals(7, hits.count(2));
+		assertEquals(2, hits.count(3));
+		assertEquals(1, hits.count(4));
+		assertEquals(2, hits.count(5));
+		assertEquals(0, hits.count(6));
+		assertTrue(hits.contains(6));
+
+		matcher.scan(null, hits);
+		assertEquals(0, hits.count(0));
+		assertFalse(hits.contains(3));
+		assertTrue(hits.contains(6));
+	}
+
+	@Test
+	void matchesStringReplaceCounting() {
+		Random random = new Random(9);
+		String alphabet = "ab가나 ";
+		for (int round = 0; round < 200; round++) {
+			List<String> patterns = new ArrayList<>();
+			for (int p = 0; p < 1 + random.nextInt(6); p++) {
+				patterns.add(randomText(random, alphabet, 1 + random.nextInt(4)));
+			}
+			MultiPatternMatcher matcher = MultiPatternMatcher.compile(patterns);
+			MultiPatternMatcher.Hits hits = matcher.newHits();
+			String text = randomText(random, alphabet, random.nextInt(40));
+			matcher.scan(text, hits);
+			for (int p = 0; p < patterns.size(); p++) {
+				String pattern = patterns.get(p);
+				int expected = (text.length() - text.replace(pattern, "").length()) / pattern.length();
+				assertEquals(expected, hits.count(p), "'" + pattern + "' in '" + text + "'");
+				assertEquals(text.contains(pattern), hits.contains(p), "'" + pattern + "' in '" + text + "'");
+			}
+		}
+	}
+
+	private static String randomText(Random random, String alphabet, int length) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return text.toString();
+	}
+}
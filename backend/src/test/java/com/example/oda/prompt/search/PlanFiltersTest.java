@@ -0,0 +1,76 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.QueryPlannerServiceImpl;
+import com.example.oda.prompt.dto.QueryPlanDto;
+import com.example.oda.repository.PublicDataMatch;
+import com.example.oda.repository.SearchFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanFiltersTest {
+
+	private final QueryPlannerServiceImpl planner = new QueryPlannerServiceImpl();
+
+	@Test
+	void regionFilterKeepsEveryAgencyInTheRegion() {
+		PublicDataSearchIndex index = TestCatalogs.loadedIndex(List.of(
+				data("인천광역시 서구 주차장 현황", "인천광역시서구", "교통및물류 - 교통"),
+				data("인천광역시 남동구 공영주차장", "인천광역시 남동구", "교통및물류 - 도로"),
+				data("인천교통공사 환승주차장", "인천교통공사", "일반공공행정 - 일반행정"),
+				data("서울특별시 공영주차장", "서울특별시", "교통및물류 - 교통"),
+				data("서울교통공사 역사 주차장", "서울교통공사", "교통및물류 - 교통")));
+
+		QueryPlanDto plan = planner.createQueryPlan("인천 주차장 현황");
+		SearchFilter filter = PlanFilters.of(plan, SearchDictionary.bundled(), 24, LocalDate.of(2026, 1, 1));
+		assertEquals(List.of("인천"), filter.providerAgencyPrefixes());
+		assertNull(filter.classificationPart(), "대분류는 조건이 아니라 순위 가산으로만 쓴다");
+		assertEquals(List.of("인천광역시 남동구 공영주차장", "인천광역시 서구 주차장 현황", "인천교통공사 환승주차장"),
+				titles(index.findByAnyKeyword(List.of("주차장"), null, filter).matches()));
+
+		SearchFilter seoul = PlanFilters.of(planner.createQueryPlan("서울 주차장"), SearchDictionary.bundled(), 24,
+				LocalDate.of(2026, 1, 1));
+		assertEquals(List.of("서울교통공사 역사 주차장", "서울특별시 공영주차장"),
+				titles(index.findByAnyKeyword(List.of("주차장"), null, seoul).matches()));
+	}
+
+	@Test
+	void regionPrefixesCoverShortAndOfficialNames() {
+		SearchDictionary dictionary = SearchDictionary.bundled();
+		assertEquals(List.of("서울"), PlanFilters.regionPrefixes("서울특별시", dictionary.agencies()));
+		assertEquals(List.of("인천"), PlanFilters.regionPrefixes("인천광역시 서구", dictionary.agencies()));
+		assertEquals(List.of("충북", "충청북도"), PlanFilters.regionPrefixes("충청북도", dictionary.agencies()));
+		assertNull(PlanFilters.regionPrefixes("국토교통부", dictionary.agencies()), "지역을 알 수 없는 기관은 조건으로 쓰지 않는다");
+		assertNull(PlanFilters.regionPrefixes(null, dictionary.agencies()));
+	}
+
+	@Test
+	void agencyAndCategoryArePreferredNotFiltered() {
+		QueryPlanDto plan = new QueryPlanDto("교통및물류", List.of("주차장"), 2024, "인천광역시서구", false, 12);
+		SearchFilter filter = PlanFilters.of(plan, SearchDictionary.bundled(), 24, LocalDate.of(2026, 1, 1));
+		assertEquals(List.of("인천"), filter.providerAgencyPrefixes());
+		assertEquals(LocalDate.of(2024, 1, 1).atStartOfDay(), filter.modifiedSince());
+
+		SearchFilter preferred = PlanFilters.preferred(plan);
+		assertEquals(List.of("인천광역시서구"), preferred.providerAgencyPrefixes());
+		assertEquals("교통및물류", preferred.classificationPart());
+		assertTrue(PlanFilters.preferred(new QueryPlanDto("기타", List.of("주차장"), null, "기타기관", false, 12)).isEmpty());
+	}
+
+	private static List<String> titles(List<PublicDataMatch> matches) {
+		return matches.stream().map(match -> match.data().getTitle()).sorted().toList();
+	}
+
+	private static PublicData data(String title, String providerAgency, String classificationSystem) {
+		PublicData data = TestCatalogs.data(title, title);
+		data.setProviderAgency(providerAgency);
+		data.setClassificationSystem(classificationSystem);
+		return data;
+	}
+}
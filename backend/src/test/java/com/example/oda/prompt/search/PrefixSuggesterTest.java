@@ -0,0 +1,113 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.prompt.dto.SuggestionDto;
+import com.example.oda.repository.SearchField;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixSuggesterTest {
+
+	@Test
+	void matchesSortingEveryPrefixedKey() {
+		Random random = new Random(8);
+		String alphabet = "서울교 Ab";
+		int size = 400;
+		String[] keys = new String[size];
+		int[] rows = new int[size];
+		SearchField[] fields = new SearchField[size];
+		int[] weights = new int[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = random.nextInt(30) == 0 ? null : randomText(random, alphabet, random.nextInt(7));
+			rows[i] = i / 2;
+			fields[i] = i % 2 == 0 ? SearchField.FILE_DATA_NAME : SearchField.TITLE;
+			weights[i] = random.nextInt(5);
+		}
+		PrefixSuggester suggester = PrefixSuggester.build(keys, rows, fields, weights);
+
+		for (int q = 0; q < 300; q++) {
+			String prefix = randomText(random, alphabet, 1 + random.nextInt(3));
+			int limit = 1 + random.nextInt(15);
+			List<PrefixSuggester.Match> expected = bruteForce(keys, rows, fields, weights, prefix, limit);
+			assertEquals(expected, suggester.suggest(prefix, limit), "'" + prefix + "' limit " + limit);
+		}
+	}
+
+	@Test
+	void typeaheadPrefersRecentDataAndIgnoresCaseAndSpaces() {
+		List<PublicData> rows = new ArrayList<>();
+		rows.add(data("서울시 교통량 통계", "교통량", LocalDateTime.of(2020, 1, 1, 0, 0)));
+		rows.add(data("서울시 교통사고 현황", "Traffic Accidents", LocalDateTime.of(2024, 5, 1, 0, 0)));
+		rows.add(data("부산 교통 정보", "서울 교통 비교", null));
+		rows.add(data("traffic 측정", "측정소", LocalDateTime.of(2023, 1, 1, 0, 0)));
+		TypeaheadIndex typeahead = new TypeaheadIndex(TestCatalogs.loadedIndex(rows));
+		assertTrue(typeahead.suggest("서울", 5).isEmpty());
+		typeahead.onCatalogChanged(new CatalogChangedEvent(rows.size(), true));
+
+		List<SuggestionDto> seoul = typeahead.suggest("서울시교통", 5);
+		assertEquals(List.of("서울시 교통사고 현황", "서울시 교통량 통계"), seoul.stream().map(SuggestionDto::getTitle).toList());
+		assertEquals(SearchField.TITLE.getLabel(), seoul.get(0).getMatchedField());
+
+		List<SuggestionDto> traffic = typeahead.suggest("TRAFFIC a", 5);
+		assertEquals(1, traffic.size());
+		assertEquals("Traffic Accidents", traffic.get(0).getFileDataName());
+		assertEquals(SearchField.FILE_DATA_NAME.getLabel(), traffic.get(0).getMatchedField());
+
+		assertEquals(List.of("서울시 교통사고 현황", "서울시 교통량 통계", "부산 교통 정보"),
+				typeahead.suggest("서울", 5).stream().map(SuggestionDto::getTitle).toList());
+		assertTrue(typeahead.suggest(" ", 5).isEmpty());
+	}
+
+	// 접두어로 시작하는 키를 모두 가중치 내림차순, 같으면 정규화한 키 순으로 정렬한 뒤 행마다 한 번만 남긴다.
+	private static List<PrefixSuggester.Match> bruteForce(String[] keys, int[] rows, SearchField[] fields, int[] weights,
+	                                                      String prefix, int limit) {
+		String normalizedPrefix = PrefixSuggester.normalize(prefix);
+		if (normalizedPrefix.isEmpty()) {
+			return List.of();
+		}
+		List<Integer> order = IntStream.range(0, keys.length)
+				.filter(i -> keys[i] != null && !PrefixSuggester.normalize(keys[i]).isEmpty()
+						&& PrefixSuggester.normalize(keys[i]).startsWith(normalizedPrefix))
+				.boxed()
+				.sorted(Comparator.comparing((Integer i) -> -weights[i])
+						.thenComparing(i -> PrefixSuggester.normalize(keys[i]))
+						.thenComparing(i -> i))
+				.toList();
+		List<PrefixSuggester.Match> matches = new ArrayList<>();
+		BitSet seenRows = new BitSet();
+		for (int i : order) {
+			if (matches.size() == limit) {
+				break;
+			}
+			if (!seenRows.get(rows[i])) {
+				seenRows.set(rows[i]);
+				matches.add(new PrefixSuggester.Match(rows[i], fields[i], weights[i]));
+			}
+		}
+		return matches;
+	}
+
+	private static PublicData data(String title, String fileDataName, LocalDateTime modified) {
+		PublicData data = TestCatalogs.data(title, fileDataName);
+		data.setModifiedDate(modified);
+		return data;
+	}
+
+	private static String randomText(Random random, String alphabet, int length) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return text.toString();
+	}
+}
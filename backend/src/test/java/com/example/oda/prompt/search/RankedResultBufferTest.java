@@ -0,0 +1,25 @@
+package com.example.oda.prompt.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankedResultBufferTest {
+
+	@Test
+	void catalogChangeDropsBufferedRankings() {
+		RankedResultBuffer buffer = new RankedResultBuffer(10, 300);
+		RankedResultBuffer.RankedResults results = new RankedResultBuffer.RankedResults(
+				List.of(new RankedResultBuffer.RankedItem("서울시 교통사고 현황", "교통사고", 3.5)), Map.of());
+		buffer.put("fingerprint", results);
+		assertTrue(buffer.get("fingerprint").isPresent());
+
+		buffer.onCatalogChanged(new CatalogChangedEvent(1, false));
+
+		assertFalse(buffer.get("fingerprint").isPresent());
+	}
+}
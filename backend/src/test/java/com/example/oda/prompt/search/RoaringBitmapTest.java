@@ -0,0 +1,87 @@
+package com.example.oda.prompt.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoaringBitmapTest {
+
+	// 세 묶음(0~65535, 65536~131071, 131072~196607)에 걸치는 값 범위
+	private static final int RANGE = 3 << 16;
+
+	@Test
+	void setOperationsMatchBitSetAcrossContainerKinds() {
+		Random random = new Random(17);
+		// 묶음당 원소 수가 배열 한도(4096) 안팎이 되도록 밀도를 고른다
+		double[] densities = {0.0001, 0.01, 0.05, 0.062, 0.07, 0.5, 0.99};
+		for (double a : densities) {
+			for (double b : densities) {
+				BitSet left = randomSet(random, a);
+				BitSet right = randomSet(random, b);
+				RoaringBitmap leftBitmap = RoaringBitmap.of(shuffled(random, left.stream().toArray()));
+				RoaringBitmap rightBitmap = RoaringBitmap.ofSorted(right.stream().toArray());
+				String label = a + " x " + b;
+
+				assertArrayEquals(left.stream().toArray(), leftBitmap.toArray(), label);
+				assertEquals(left.cardinality(), leftBitmap.cardinality(), label);
+
+				BitSet and = (BitSet) left.clone();
+				and.and(right);
+				assertEquals(and.cardinality(), leftBitmap.andCardinality(rightBitmap), label);
+				assertEquals(and.cardinality(), rightBitmap.andCardinality(leftBitmap), label);
+				assertArrayEquals(and.stream().toArray(), leftBitmap.and(rightBitmap).toArray(), label);
+				assertEquals(and.cardinality(), leftBitmap.and(rightBitmap).cardinality(), label);
+
+				BitSet or = (BitSet) left.clone();
+				or.or(right);
+				assertArrayEquals(or.stream().toArray(), leftBitmap.or(rightBitmap).toArray(), label);
+				assertEquals(or.cardinality(), rightBitmap.or(leftBitmap).cardinality(), label);
+
+				for (int probe = 0; probe < 200; probe++) {
+					int value = random.nextInt(RANGE);
+					assertEquals(left.get(value), leftBitmap.contains(value), label + " contains " + value);
+				}
+			}
+		}
+	}
+
+	@Test
+	void handlesEmptyAndBoundaryValues() {
+		RoaringBitmap empty = RoaringBitmap.empty();
+		RoaringBitmap edges = RoaringBitmap.of(new int[]{65536, 0, 65535, 65535, 131071});
+
+		assertTrue(empty.isEmpty());
+		assertEquals(0, empty.andCardinality(edges));
+		assertArrayEquals(new int[0], empty.and(edges).toArray());
+		assertArrayEquals(new int[]{0, 65535, 65536, 131071}, edges.toArray());
+		assertArrayEquals(edges.toArray(), empty.or(edges).toArray());
+		assertTrue(edges.contains(65535) && edges.contains(65536));
+		assertFalse(edges.contains(1) || edges.contains(131072) || edges.contains(-1));
+	}
+
+	private static BitSet randomSet(Random random, double density) {
+		BitSet set = new BitSet(RANGE);
+		for (int value = 0; value < RANGE; value++) {
+			if (random.nextDouble() < density) {
+				set.set(value);
+			}
+		}
+		return set;
+	}
+
+	private static int[] shuffled(Random random, int[] values) {
+		for (int i = values.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = values[i];
+			values[i] = values[j];
+			values[j] = tmp;
+		}
+		return values;
+	}
+}
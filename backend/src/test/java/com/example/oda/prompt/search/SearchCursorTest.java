@@ -0,0 +1,41 @@
+package com.example.oda.prompt.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCursorTest {
+
+	@Test
+	void decodesWhatItEncodes() {
+		double[] scores = {0, -0.0, 123.456, -7.5, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, 1.0 / 3};
+		String[] titles = {"서울시 교통사고 현황", "", "줄\n바꿈이 든 제목", "🚲 자전거", "a+b/c=d"};
+		for (double score : scores) {
+			for (String title : titles) {
+				SearchCursor cursor = new SearchCursor("9f86d081884c7d65", 40, 20, score, title);
+				String encoded = cursor.encode();
+
+				assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+				assertEquals(cursor, SearchCursor.decode(encoded));
+			}
+		}
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("2\nabc\n0\n20\n0\n제목")));
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("1\nabc\n0\n20")));
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("1\nabc\n영\n20\n0\n제목")));
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("1\nabc\n0\n20\nxyz\n제목")));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
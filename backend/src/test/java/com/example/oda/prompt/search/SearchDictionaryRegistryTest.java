@@ -0,0 +1,64 @@
+package com.example.oda.prompt.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchDictionaryRegistryTest {
+
+	@Test
+	void swapsOnlyWhenEveryParticipantPrepares() throws Exception {
+		Path file = Files.createTempFile("search-dictionary", ".json");
+		List<String> log = new ArrayList<>();
+		SearchDictionaryParticipant planner = next -> {
+			log.add("prepare planner " + next.version());
+			return () -> log.add("swap planner " + next.version());
+		};
+		SearchDictionaryParticipant ranker = next -> {
+			if (next.version().equals("v3")) {
+				throw new IllegalStateException("compile failed");
+			}
+			return () -> log.add("swap ranker " + next.version());
+		};
+		SearchDictionaryRegistry registry = new SearchDictionaryRegistry(
+				event -> log.add("event " + ((SearchDictionaryChangedEvent) event).dictionary().version()),
+				List.of(planner, ranker), file.toString());
+
+		write(file, "v2", 1_000);
+		registry.refreshIfModified();
+		assertEquals(List.of("prepare planner v2", "swap planner v2", "swap ranker v2", "event v2"), log);
+		assertEquals("v2", registry.current().version());
+
+		log.clear();
+		write(file, "v3", 2_000);
+		registry.refreshIfModified();
+		assertEquals(List.of("prepare planner v3"), log, "준비가 하나라도 실패하면 아무것도 바꾸지 않는다");
+		assertEquals("v2", registry.current().version());
+		assertEquals(1L, registry.status().failures());
+
+		// 실패한 파일의 수정 시각은 기록하지 않으므로, 시각이 같아도 다음 주기에 다시 읽는다.
+		log.clear();
+		write(file, "v4", 2_000);
+		registry.refreshIfModified();
+		assertEquals("v4", registry.current().version());
+		assertEquals(List.of("prepare planner v4", "swap planner v4", "swap ranker v4", "event v4"), log);
+		Files.delete(file);
+	}
+
+	private static void write(Path file, String version, long modifiedMillis) throws Exception {
+		String bundled;
+		try (InputStream in = SearchDictionary.class.getResourceAsStream(SearchDictionary.BUNDLED_RESOURCE)) {
+			bundled = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		Files.writeString(file, bundled.replace("\"version\": \"" + SearchDictionary.bundled().version() + "\"", "\"version\": \"" + version + "\""));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedMillis));
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SemanticSearchIndexTest {
+
+	@Test
+	void returnsRowsFromTheCurrentCatalog() throws InterruptedException {
+		List<PublicData> rows = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			rows.add(TestCatalogs.data("데이터 " + i, "파일 " + i));
+		}
+		rows.add(TestCatalogs.data("서울시 자전거 대여소 현황", "자전거 대여소"));
+		PublicDataSearchIndex searchIndex = TestCatalogs.loadedIndex(rows);
+		SemanticSearchIndex semanticIndex = new SemanticSearchIndex(searchIndex, true, 64, 8, 50, 32);
+		semanticIndex.onCatalogChanged(new CatalogChangedEvent(rows.size(), true));
+		for (int i = 0; i < 500 && !semanticIndex.isReady(); i++) {
+			Thread.sleep(10);
+		}
+		assertTrue(semanticIndex.isReady());
+
+		PublicData updated = TestCatalogs.data("서울시 자전거 대여소 현황", "자전거 대여소 2024");
+		searchIndex.applyChanges(List.of(updated));
+
+		List<PublicData> similar = semanticIndex.findSimilar("자전거 대여소", 3, 0.3);
+		assertFalse(similar.isEmpty());
+		assertEquals("서울시 자전거 대여소 현황", similar.get(0).getTitle());
+		assertEquals("자전거 대여소 2024", similar.get(0).getFileDataName());
+	}
+
+	@Test
+	void staysEmptyWhenDisabled() {
+		PublicDataSearchIndex searchIndex = TestCatalogs.loadedIndex(List.of(TestCatalogs.data("서울시 자전거", "자전거")));
+		SemanticSearchIndex semanticIndex = new SemanticSearchIndex(searchIndex, false, 64, 8, 50, 32);
+		semanticIndex.onCatalogChanged(new CatalogChangedEvent(1, true));
+
+		assertFalse(semanticIndex.isReady());
+		assertTrue(semanticIndex.findSimilar("자전거", 3, 0).isEmpty());
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.oda.prompt.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class SubstringIndexTest {
+
+	@Test
+	void bigramsThatDoNotFollowEachOtherAreNotAMatch() {
+		SubstringIndex index = SubstringIndex.build(new String[]{"서울 울산", "서울산업진흥원", "abc cab", "abcab", null, "ab"});
+
+		assertArrayEquals(new int[]{1}, index.findContaining("서울산"));
+		assertArrayEquals(new int[]{3}, index.findContaining("bcab"));
+		assertArrayEquals(new int[]{2, 3}, index.findContaining("cab"));
+		assertArrayEquals(new int[]{2, 3, 5}, index.findContaining("ab"));
+		assertArrayEquals(new int[]{0, 1}, index.findContaining("울"));
+		assertArrayEquals(new int[0], index.findContaining("abab"));
+		assertArrayEquals(new int[0], index.findContaining("없는값"));
+	}
+
+	@Test
+	void matchesStringContains() {
+		Random random = new Random(5);
+		String alphabet = "가나다라 ab-1";
+		String[] values = new String[500];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextInt(20) == 0 ? null : randomText(random, alphabet, 1 + random.nextInt(12));
+		}
+		SubstringIndex index = SubstringIndex.build(values);
+
+		List<String> queries = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			queries.add(randomText(random, alphabet, 1 + random.nextInt(5)));
+		}
+		for (String query : queries) {
+			int[] expected = IntStream.range(0, values.length)
+					.filter(docId -> values[docId] != null && values[docId].contains(query))
+					.toArray();
+			assertArrayEquals(expected, index.findContaining(query), "'" + query + "'");
+		}
+	}
+
+	private static String randomText(Random random, String alphabet, int length) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.oda.prompt.search;
+
+import com.example.oda.entity.PublicData;
+import com.example.oda.repository.PublicDataRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * 색인 테스트용 카탈로그. DB 없이 주어진 행으로 {@link PublicDataSearchIndex} 를 적재한다.
+ */
+final class TestCatalogs {
+
+	private TestCatalogs() {
+	}
+
+	/** findAll 만 주어진 행을 돌려주는 저장소로 적재한 색인. 변경 이벤트는 발행하지 않는다. */
+	static PublicDataSearchIndex loadedIndex(List<PublicData> rows) {
+		PublicDataRepository repository = (PublicDataRepository) Proxy.newProxyInstance(
+				PublicDataRepository.class.getClassLoader(), new Class<?>[]{PublicDataRepository.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("findAll") && (args == null || args.length == 0)) {
+						return rows;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		PublicDataSearchIndex index = new PublicDataSearchIndex(repository, event -> {
+		}, true);
+		index.rebuild();
+		return index;
+	}
+
+	static PublicData data(String title, String fileDataName) {
+		PublicData data = new PublicData();
+		data.setTitle(title);
+		data.setFileDataName(fileDataName);
+		return data;
+	}
+}
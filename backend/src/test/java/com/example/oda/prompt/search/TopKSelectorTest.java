@@ -0,0 +1,46 @@
+package com.example.oda.prompt.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TopKSelectorTest {
+
+	@Test
+	void matchesStableSortTruncatedToK() {
+		Random random = new Random(3);
+		for (int round = 0; round < 200; round++) {
+			double[] scores = new double[random.nextInt(60)];
+			for (int i = 0; i < scores.length; i++) {
+				// 동점이 많도록 적은 수의 값만 쓴다
+				scores[i] = random.nextInt(6) * 0.5;
+			}
+			int k = random.nextInt(scores.length + 3);
+			assertArrayEquals(sortedTopK(scores, k), TopKSelector.select(scores, k), "round " + round);
+		}
+	}
+
+	@Test
+	void handlesDegenerateLimits() {
+		double[] scores = {1.0, 3.0, 2.0, 3.0};
+
+		assertArrayEquals(new int[0], TopKSelector.select(scores, 0));
+		assertArrayEquals(new int[0], TopKSelector.select(scores, -1));
+		assertArrayEquals(new int[0], TopKSelector.select(new double[0], 5));
+		assertArrayEquals(new int[]{1, 3, 2, 0}, TopKSelector.select(scores, 10));
+		assertArrayEquals(new int[]{1}, TopKSelector.select(scores, 1));
+	}
+
+	private static int[] sortedTopK(double[] scores, int k) {
+		return IntStream.range(0, scores.length)
+				.boxed()
+				.sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+				.limit(Math.max(k, 0))
+				.mapToInt(Integer::intValue)
+				.toArray();
+	}
+}
@@ -53,6 +53,29 @@ function getErrorMessage(error: unknown): string {
 // 🎯 엔드포인트
 // -------------------------------
 
+// ✅ LLM 쿼리 계획 (백엔드가 규칙 기반 계획과 함께 요청하고, 시간 예산 안에 오면 쓴다)
+app.post("/api/ai/query-plan", async (req: Request, res: Response) => {
+  const { prompt } = req.body;
+  if (!prompt) {
+    return res.status(400).json({
+      error: "prompt is required",
+      code: "MISSING_PROMPT",
+    });
+  }
+
+  try {
+    const plan = await publicDataService.createAIQueryPlan({ prompt });
+    res.json(plan);
+  } catch (error) {
+    console.error("LLM 쿼리 계획 생성 오류:", error);
+    res.status(500).json({
+      error: "Failed to create query plan",
+      code: "QUERY_PLAN_ERROR",
+      message: getErrorMessage(error),
+    });
+  }
+});
+
 // ✅ 통합 분석(다운로드→분석→정리)
 app.post("/api/analyze-data-by-pk", async (req: Request, res: Response) => {
   const { publicDataPk } = req.body;
@@ -203,6 +226,7 @@ app.get("/health", (_req: Request, res: Response) => {
 app.listen(port, () => {
   console.log(`🚀 Agentica AI Service running on http://localhost:${port}`);
   console.log(`📋 Available endpoints:`);
+  console.log(`   POST /api/ai/query-plan           - LLM 쿼리 계획`);
   console.log(`   POST /api/analyze-data-by-pk      - 파일 PK 분석 워크플로`);
   console.log(`   GET  /api/download-by-pk/:pk      - 파일 다운로드 스트리밍`);
   console.log(`   POST /api/data-utilization/full   - 전체 활용방안`);
@@ -54,6 +54,15 @@ export class HybridQueryPlannerService {
     return ruleBasedPlan;
   }
 
+  /**
+   * LLM 전용 쿼리 계획 (백엔드 /api/ai/query-plan 이 규칙 기반 계획과 동시에 요청한다)
+   * - 백엔드를 다시 부르지 않도록 규칙 기반 결과 대신 기본 계획을 참고값으로 넘긴다
+   * - 실패하면 isAIEnhanced: false 인 기본 계획을 돌려주고, 백엔드는 이를 무시한다
+   */
+  public async createAIPlan(prompt: string) {
+    return this.enhanceWithAI(prompt, this.getDefaultPlan());
+  }
+
   /**
    * AI 보완 필요성 휴리스틱
    */
@@ -50,6 +50,10 @@ export class PublicDataService {
     return this.queryPlanner.createQueryPlan(input.prompt);
   }
 
+  public async createAIQueryPlan(input: { prompt: string }): Promise<any> {
+    return this.queryPlanner.createAIPlan(input.prompt);
+  }
+
   public async recommendData(input: {
     prompt: string;
     candidates: string[];